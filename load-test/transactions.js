@@ -0,0 +1,46 @@
+// k6 run -e BASE_URL=http://localhost:9080 -e EMAIL=... -e PASSWORD=... -e CARD_ID=... load-test/transactions.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:9080';
+const CLIENTS = Number(__ENV.CLIENTS || 2000);
+
+export const options = {
+    scenarios: {
+        clients: {
+            executor: 'constant-vus',
+            vus: CLIENTS,
+            duration: __ENV.DURATION || '2m',
+        },
+    },
+    summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        'http_req_failed': ['rate<0.01'],
+    },
+};
+
+export function setup() {
+    const response = http.post(`${BASE_URL}/api/v1/auth/login`,
+        JSON.stringify({ email: __ENV.EMAIL, password: __ENV.PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' } });
+    check(response, { 'logged in': (r) => r.status === 200 });
+    return { token: response.json('accessToken') };
+}
+
+export default function (data) {
+    const params = {
+        headers: {
+            'Authorization': `Bearer ${data.token}`,
+            'Content-Type': 'application/json',
+        },
+    };
+
+    const history = http.get(`${BASE_URL}/api/transactions/transactions/cursor?size=20`, params);
+    check(history, { 'history 200': (r) => r.status === 200 });
+
+    if (__ENV.CARD_ID) {
+        const deposit = http.post(`${BASE_URL}/api/transactions/${__ENV.CARD_ID}/deposit`,
+            JSON.stringify({ amount: 1.00, description: 'load test' }), params);
+        check(deposit, { 'deposit 200': (r) => r.status === 200 });
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.benchmark.support.BenchmarkFixtures;
+import com.example.bankcards.benchmark.support.LegacyCardCryptoService;
+import com.example.bankcards.service.CardCryptoService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+@Threads(4)
+public class CardCryptoBenchmark {
+    private static final String CARD_NUMBER = "4000123412341234";
+
+    /**
+     * "legacy" creates and initializes a Cipher per call, "pooled" is the
+     * current CardCryptoServiceImpl.
+     */
+    @Param({"legacy", "pooled"})
+    private String implementation;
+
+    private CardCryptoService cardCryptoService;
+    private String encrypted;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cardCryptoService = "legacy".equals(implementation)
+                ? new LegacyCardCryptoService(BenchmarkFixtures.CRYPTO_SECRET)
+                : BenchmarkFixtures.cardCryptoService();
+        encrypted = cardCryptoService.encryptCardNumber(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String encryptCardNumber() {
+        return cardCryptoService.encryptCardNumber(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String decryptCardNumber() {
+        return cardCryptoService.decryptCardNumber(encrypted);
+    }
+
+    @Benchmark
+    public String maskCardNumberDecrypted() {
+        return cardCryptoService.maskCardNumberDecrypted(encrypted);
+    }
+}
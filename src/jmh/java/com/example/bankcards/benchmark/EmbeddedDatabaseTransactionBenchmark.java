@@ -0,0 +1,168 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.BankCardsApplication;
+import com.example.bankcards.dto.transaction.TransactionRequestDto;
+import com.example.bankcards.entities.Card;
+import com.example.bankcards.entities.CardLimit;
+import com.example.bankcards.entities.User;
+import com.example.bankcards.entities.enums.CardStatus;
+import com.example.bankcards.entities.enums.TransactionType;
+import com.example.bankcards.repository.CardLimitRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.CardCryptoService;
+import com.example.bankcards.service.ConcurrencyMode;
+import com.example.bankcards.service.TransactionService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Same operations as {@link TransactionServiceBenchmark}, but through the real
+ * Spring context against an embedded PostgreSQL with the Liquibase schema, so
+ * JPA, the version checks and the spend aggregate upserts are included.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EmbeddedDatabaseTransactionBenchmark {
+    private static final BigDecimal LARGE_AMOUNT = new BigDecimal("1000000000");
+
+    @State(Scope.Benchmark)
+    public static class Database {
+        @Param({"OPTIMISTIC", "PESSIMISTIC"})
+        private ConcurrencyMode concurrencyMode;
+
+        private EmbeddedPostgres postgres;
+        private ConfigurableApplicationContext context;
+
+        @Setup(Level.Trial)
+        public void start() throws IOException {
+            postgres = EmbeddedPostgres.builder().start();
+            context = new SpringApplicationBuilder(BankCardsApplication.class)
+                    .web(WebApplicationType.NONE)
+                    // command-line arguments, unlike default properties, take precedence over application.yaml
+                    .run(
+                            "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                            "--spring.datasource.username=postgres",
+                            "--spring.datasource.password=",
+                            "--spring.application.transaction.concurrency.mode=" + concurrencyMode,
+                            "--logging.level.root=WARN");
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() throws IOException {
+            if (context != null) {
+                context.close();
+            }
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    /**
+     * Every benchmark thread works on its own pair of cards, so the numbers show
+     * the per-operation database cost rather than contention on a single row.
+     */
+    @State(Scope.Thread)
+    public static class Cards {
+        private TransactionService transactionService;
+        private TransactionRequestDto request;
+        private UUID userId;
+        private UUID fromCardId;
+        private UUID toCardId;
+
+        @Setup(Level.Trial)
+        public void create(Database database) {
+            ConfigurableApplicationContext context = database.context;
+            UserRepository userRepository = context.getBean(UserRepository.class);
+            CardRepository cardRepository = context.getBean(CardRepository.class);
+            CardLimitRepository cardLimitRepository = context.getBean(CardLimitRepository.class);
+            CardCryptoService cardCryptoService = context.getBean(CardCryptoService.class);
+            TransactionTemplate transactionTemplate =
+                    new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+            transactionTemplate.executeWithoutResult(status -> {
+                User user = userRepository.save(User.builder()
+                        .email("benchmark-" + UUID.randomUUID() + "@example.com")
+                        .password("benchmark")
+                        .fullName("Benchmark User")
+                        .roles(new HashSet<>())
+                        .deleted(false)
+                        .build());
+                Card from = createCard(cardRepository, cardLimitRepository, cardCryptoService, user,
+                        "4000" + randomDigits());
+                Card to = createCard(cardRepository, cardLimitRepository, cardCryptoService, user,
+                        "4000" + randomDigits());
+
+                userId = user.getId();
+                fromCardId = from.getId();
+                toCardId = to.getId();
+            });
+
+            transactionService = context.getBean(TransactionService.class);
+            request = TransactionRequestDto.builder()
+                    .amount(new BigDecimal("1.00"))
+                    .description("Coffee")
+                    .build();
+        }
+
+        private static Card createCard(CardRepository cardRepository, CardLimitRepository cardLimitRepository,
+                                       CardCryptoService cardCryptoService, User user, String cardNumber) {
+            Card card = cardRepository.save(Card.builder()
+                    .user(user)
+                    .cardNumberEncrypted(cardCryptoService.encryptCardNumber(cardNumber))
+                    .cardNumberLast4(cardCryptoService.lastFourDigits(cardNumber))
+                    .cardNumberFingerprint(cardCryptoService.fingerprintCardNumber(cardNumber))
+                    .expirationDate(LocalDate.now().plusYears(3))
+                    .status(CardStatus.ACTIVE)
+                    .balance(LARGE_AMOUNT)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            cardLimitRepository.saveAll(Arrays.stream(TransactionType.values())
+                    .map(type -> CardLimit.builder()
+                            .card(card)
+                            .transactionType(type)
+                            .dailyLimit(LARGE_AMOUNT)
+                            .monthlyLimit(LARGE_AMOUNT)
+                            .build())
+                    .toList());
+            return card;
+        }
+
+        private static String randomDigits() {
+            return String.format("%012d", Math.floorMod(UUID.randomUUID().getLeastSignificantBits(), 1_000_000_000_000L));
+        }
+    }
+
+    @Benchmark
+    public void withdraw(Cards cards) {
+        cards.transactionService.withdraw(cards.fromCardId, cards.request, cards.userId);
+    }
+
+    @Benchmark
+    public void deposit(Cards cards) {
+        cards.transactionService.deposit(cards.fromCardId, cards.request, cards.userId);
+    }
+
+    @Benchmark
+    public void transfer(Cards cards) {
+        cards.transactionService.transfer(cards.fromCardId, cards.toCardId, cards.request, cards.userId);
+    }
+}
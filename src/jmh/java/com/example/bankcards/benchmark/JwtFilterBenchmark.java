@@ -0,0 +1,101 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.benchmark.support.BenchmarkFixtures;
+import com.example.bankcards.benchmark.support.InMemoryRepositories;
+import com.example.bankcards.entities.Role;
+import com.example.bankcards.entities.User;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.AuthenticationMode;
+import com.example.bankcards.security.UserDetailsServiceImpl;
+import com.example.bankcards.security.UserPrincipalCache;
+import com.example.bankcards.security.jwt.filter.JwtFilter;
+import com.example.bankcards.security.jwt.impl.JwtTokenProviderService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of turning a bearer token into an authenticated security
+ * context. "legacyFilter" replays the previous flow: a fresh parser to validate,
+ * another fresh parser to read the subject, then a user lookup by email.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtFilterBenchmark {
+    private static final String ACCESS_SECRET =
+            "2cKYszGG9GYs8vT6zAlXMGxgUG+Evf7G3MTk5Q0TSjte42vX02+VwVtb+/rzkjydspol09wEc+jusPnvgy//qw==";
+    private static final String REFRESH_SECRET =
+            "cH79ZXZg3R4/7Ln44kwdM4HENomxpjFAQW6qszDRKbKf9wGhMYDC1JbRNMzbA7GWJFkww/F4mNYH39rqd75A4Q==";
+
+    @Param({"CLAIMS", "DATABASE"})
+    private AuthenticationMode authenticationMode;
+
+    private JwtFilter jwtFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    private SecretKey accessKey;
+    private UserDetailsServiceImpl userDetailsService;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        User user = BenchmarkFixtures.user();
+        user.setRoles(Set.of(new Role(UUID.randomUUID(), "USER")));
+        UserRepository userRepository = InMemoryRepositories.proxy(UserRepository.class, Map.of(
+                "findById", args -> Optional.of(user),
+                "findByEmail", args -> Optional.of(user),
+                "existsByIdAndDeletedFalse", args -> true));
+
+        JwtTokenProviderService provider = new JwtTokenProviderService(ACCESS_SECRET, REFRESH_SECRET,
+                userRepository, new UserPrincipalCache(Duration.ofMinutes(15), 10_000), authenticationMode);
+        jwtFilter = new JwtFilter(provider);
+        token = provider.generateAccessToken(user);
+
+        request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+        chain = (servletRequest, servletResponse) -> {
+        };
+
+        accessKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(ACCESS_SECRET));
+        userDetailsService = new UserDetailsServiceImpl(userRepository);
+    }
+
+    @Benchmark
+    public Authentication filter() throws Exception {
+        jwtFilter.doFilter(request, response, chain);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Benchmark
+    public Authentication legacyFilter() {
+        Jwts.parserBuilder().setSigningKey(accessKey).build().parseClaimsJws(token);
+        String email = Jwts.parserBuilder().setSigningKey(accessKey).build().parseClaimsJws(token).getBody().getSubject();
+        UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.benchmark.support.BenchmarkFixtures;
+import com.example.bankcards.dto.card.CardResponseDto;
+import com.example.bankcards.dto.transaction.TransactionRequestDto;
+import com.example.bankcards.dto.transaction.TransactionResponseDto;
+import com.example.bankcards.dto.user.UserResponseDto;
+import com.example.bankcards.entities.Card;
+import com.example.bankcards.entities.Transaction;
+import com.example.bankcards.entities.User;
+import com.example.bankcards.entities.enums.TransactionType;
+import com.example.bankcards.factory.TransactionFactory;
+import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.mapper.CardMapperImpl;
+import com.example.bankcards.mapper.TransactionMapper;
+import com.example.bankcards.mapper.TransactionMapperImpl;
+import com.example.bankcards.mapper.UserMapper;
+import com.example.bankcards.mapper.UserMapperImpl;
+import com.example.bankcards.service.CardCryptoService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionFactory and the MapStruct mappers that run on every request.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MappingBenchmark {
+
+    private TransactionFactory transactionFactory;
+    private TransactionMapper transactionMapper;
+    private CardMapper cardMapper;
+    private UserMapper userMapper;
+
+    private TransactionRequestDto defaultDescriptionRequest;
+    private TransactionRequestDto customDescriptionRequest;
+    private Card card;
+    private User user;
+    private Transaction transaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CardCryptoService cardCryptoService = BenchmarkFixtures.cardCryptoService();
+        transactionFactory = new TransactionFactory(cardCryptoService);
+        transactionMapper = new TransactionMapperImpl();
+        cardMapper = new CardMapperImpl();
+        userMapper = new UserMapperImpl();
+
+        user = BenchmarkFixtures.user();
+        card = BenchmarkFixtures.card(user, cardCryptoService.encryptCardNumber("4000123412341234"), "1234");
+        defaultDescriptionRequest = TransactionRequestDto.builder()
+                .amount(new BigDecimal("10.00"))
+                .description("transaction")
+                .build();
+        customDescriptionRequest = TransactionRequestDto.builder()
+                .amount(new BigDecimal("10.00"))
+                .description("Coffee")
+                .build();
+        transaction = transactionFactory.create(customDescriptionRequest, card, TransactionType.WITHDRAWAL);
+    }
+
+    @Benchmark
+    public Transaction createTransactionWithDefaultDescription() {
+        return transactionFactory.create(defaultDescriptionRequest, card, TransactionType.WITHDRAWAL);
+    }
+
+    @Benchmark
+    public Transaction createTransactionWithCustomDescription() {
+        return transactionFactory.create(customDescriptionRequest, card, TransactionType.WITHDRAWAL);
+    }
+
+    @Benchmark
+    public TransactionResponseDto convertToTransactionResponseDto() {
+        return transactionMapper.convertToTransactionResponseDto(transaction);
+    }
+
+    @Benchmark
+    public CardResponseDto convertToCardResponseDto() {
+        return cardMapper.convertToCardResponseDto(card);
+    }
+
+    @Benchmark
+    public UserResponseDto convertToUserResponse() {
+        return userMapper.convertToUserResponse(user);
+    }
+}
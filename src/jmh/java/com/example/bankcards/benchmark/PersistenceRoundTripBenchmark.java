@@ -0,0 +1,193 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.BankCardsApplication;
+import com.example.bankcards.dto.card.CardRequestDto;
+import com.example.bankcards.dto.transaction.TransactionRequestDto;
+import com.example.bankcards.entities.CardLimit;
+import com.example.bankcards.entities.User;
+import com.example.bankcards.entities.enums.CardStatus;
+import com.example.bankcards.repository.CardLimitRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.TransactionService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts JDBC round trips (statement executions, batches and commits) per
+ * {@code createCard} (one card plus three limits) and {@code transfer}
+ * (two balance updates plus two transactions) with JDBC batching on and off.
+ * The {@code roundTrips} secondary result divided by the primary score is the
+ * number of round trips per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class PersistenceRoundTripBenchmark {
+    private static final BigDecimal LARGE_AMOUNT = new BigDecimal("1000000000");
+    private static final Set<String> ROUND_TRIP_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate",
+            "executeBatch", "executeLargeBatch", "commit", "rollback");
+    private static final LongAdder ROUND_TRIPS = new LongAdder();
+
+    @State(Scope.Benchmark)
+    public static class Database {
+        @Param({"true", "false"})
+        private boolean batching;
+
+        private EmbeddedPostgres postgres;
+        private ConfigurableApplicationContext context;
+
+        @Setup(Level.Trial)
+        public void start() throws IOException {
+            postgres = EmbeddedPostgres.builder().start();
+            context = new SpringApplicationBuilder(BankCardsApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .initializers(applicationContext -> applicationContext.getBeanFactory()
+                            .addBeanPostProcessor(new BeanPostProcessor() {
+                                @Override
+                                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                                    return bean instanceof DataSource dataSource ? countingDataSource(dataSource) : bean;
+                                }
+                            }))
+                    // command-line arguments, unlike default properties, take precedence over application.yaml
+                    .run(
+                            "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                            "--spring.datasource.username=postgres",
+                            "--spring.datasource.password=",
+                            "--spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=" + batching,
+                            "--spring.jpa.properties.hibernate.jdbc.batch_size=" + (batching ? 100 : 1),
+                            "--spring.jpa.properties.hibernate.order_inserts=" + batching,
+                            "--spring.jpa.properties.hibernate.order_updates=" + batching,
+                            "--logging.level.root=WARN");
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() throws IOException {
+            if (context != null) {
+                context.close();
+            }
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Fixture {
+        private CardService cardService;
+        private TransactionService transactionService;
+        private TransactionRequestDto transfer;
+        private UUID userId;
+        private UUID fromCardId;
+        private UUID toCardId;
+
+        @Setup(Level.Trial)
+        public void create(Database database) {
+            ConfigurableApplicationContext context = database.context;
+            cardService = context.getBean(CardService.class);
+            transactionService = context.getBean(TransactionService.class);
+
+            userId = context.getBean(UserRepository.class).save(User.builder()
+                    .email("benchmark-" + UUID.randomUUID() + "@example.com")
+                    .password("benchmark")
+                    .fullName("Benchmark User")
+                    .roles(new HashSet<>())
+                    .deleted(false)
+                    .build()).getId();
+            fromCardId = cardService.createCard(cardRequest(), userId).getId();
+            toCardId = cardService.createCard(cardRequest(), userId).getId();
+
+            CardLimitRepository cardLimitRepository = context.getBean(CardLimitRepository.class);
+            List<CardLimit> limits = cardLimitRepository.findAllByCardIdIn(List.of(fromCardId, toCardId));
+            limits.forEach(limit -> {
+                limit.setDailyLimit(LARGE_AMOUNT);
+                limit.setMonthlyLimit(LARGE_AMOUNT);
+            });
+            cardLimitRepository.saveAll(limits);
+
+            transfer = TransactionRequestDto.builder()
+                    .amount(new BigDecimal("1.00"))
+                    .description("Coffee")
+                    .build();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long roundTrips;
+    }
+
+    @Benchmark
+    public void createCard(Fixture fixture, Counters counters) {
+        long before = ROUND_TRIPS.sum();
+        fixture.cardService.createCard(cardRequest(), fixture.userId);
+        counters.roundTrips += ROUND_TRIPS.sum() - before;
+    }
+
+    @Benchmark
+    public void transfer(Fixture fixture, Counters counters) {
+        long before = ROUND_TRIPS.sum();
+        fixture.transactionService.transfer(fixture.fromCardId, fixture.toCardId, fixture.transfer, fixture.userId);
+        counters.roundTrips += ROUND_TRIPS.sum() - before;
+    }
+
+    private static CardRequestDto cardRequest() {
+        String cardNumber = "4000" + String.format("%012d",
+                Math.floorMod(UUID.randomUUID().getLeastSignificantBits(), 1_000_000_000_000L));
+        return CardRequestDto.builder()
+                .cardNumberEncrypted(cardNumber)
+                .expirationDate(LocalDateTime.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .balance(LARGE_AMOUNT)
+                .build();
+    }
+
+    private static DataSource countingDataSource(DataSource dataSource) {
+        return counting(DataSource.class, dataSource);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T counting(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (ROUND_TRIP_METHODS.contains(method.getName())) {
+                ROUND_TRIPS.increment();
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Connection connection && method.getReturnType() == Connection.class) {
+                return counting(Connection.class, connection);
+            }
+            if (result != null && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return counting((Class<Statement>) method.getReturnType(), (Statement) result);
+            }
+            return result;
+        });
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.benchmark.support.BenchmarkFixtures;
+import com.example.bankcards.benchmark.support.InMemoryRepositories;
+import com.example.bankcards.dto.transaction.TransactionRequestDto;
+import com.example.bankcards.entities.Card;
+import com.example.bankcards.entities.CardLimit;
+import com.example.bankcards.entities.User;
+import com.example.bankcards.factory.LedgerEntryFactory;
+import com.example.bankcards.factory.TransactionFactory;
+import com.example.bankcards.mapper.TransactionMapperImpl;
+import com.example.bankcards.service.CardCryptoService;
+import com.example.bankcards.service.ConcurrencyMode;
+import com.example.bankcards.service.TransactionService;
+import com.example.bankcards.service.impl.CardLockingServiceImpl;
+import com.example.bankcards.service.impl.CardShardExecutorImpl;
+import com.example.bankcards.service.impl.TransactionServiceImpl;
+import com.example.bankcards.repository.CardRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service-level cost of withdraw/deposit/transfer with the database replaced by
+ * in-memory repositories, i.e. validation, limit checks, crypto for masking,
+ * transaction construction and the locking wrapper.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TransactionServiceBenchmark {
+
+    /**
+     * "transaction" is the placeholder description that makes the factory build
+     * a description with the masked card number; a custom description skips that.
+     */
+    @Param({"transaction", "Coffee"})
+    private String description;
+
+    @Param({"OPTIMISTIC", "PESSIMISTIC"})
+    private ConcurrencyMode concurrencyMode;
+
+    private TransactionService transactionService;
+    private TransactionRequestDto request;
+    private UUID userId;
+    private UUID fromCardId;
+    private UUID toCardId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CardCryptoService cardCryptoService = BenchmarkFixtures.cardCryptoService();
+        User user = BenchmarkFixtures.user();
+        Card from = BenchmarkFixtures.card(user, cardCryptoService.encryptCardNumber("4000123412341234"), "1234");
+        Card to = BenchmarkFixtures.card(user, cardCryptoService.encryptCardNumber("4000567856785678"), "5678");
+
+        Map<UUID, Card> cards = new ConcurrentHashMap<>(Map.of(from.getId(), from, to.getId(), to));
+        Map<UUID, List<CardLimit>> limits = Map.of(
+                from.getId(), BenchmarkFixtures.unlimited(from),
+                to.getId(), BenchmarkFixtures.unlimited(to));
+        CardRepository cardRepository = InMemoryRepositories.cards(cards);
+
+        transactionService = new TransactionServiceImpl(
+                InMemoryRepositories.transactions(new AtomicLong()),
+                cardRepository,
+                InMemoryRepositories.cardLimits(limits),
+                new TransactionMapperImpl(),
+                cardCryptoService,
+                new TransactionFactory(cardCryptoService),
+                BenchmarkFixtures.inMemorySpend(),
+                new CardLockingServiceImpl(cardRepository, BenchmarkFixtures.noOpTransactionManager(),
+                        BenchmarkFixtures.directCommit(),
+                        concurrencyMode, 1),
+                BenchmarkFixtures.emptyArchive(),
+                BenchmarkFixtures.inMemoryLedger(),
+                new LedgerEntryFactory(),
+                new CardShardExecutorImpl(false, 1, 1),
+                BenchmarkFixtures.noIdempotency());
+
+        request = TransactionRequestDto.builder()
+                .amount(new BigDecimal("1.00"))
+                .description(description)
+                .build();
+        userId = user.getId();
+        fromCardId = from.getId();
+        toCardId = to.getId();
+    }
+
+    @Benchmark
+    public void withdraw() {
+        transactionService.withdraw(fromCardId, request, userId);
+    }
+
+    @Benchmark
+    public void deposit() {
+        transactionService.deposit(fromCardId, request, userId);
+    }
+
+    @Benchmark
+    public void transfer() {
+        transactionService.transfer(fromCardId, toCardId, request, userId);
+    }
+}
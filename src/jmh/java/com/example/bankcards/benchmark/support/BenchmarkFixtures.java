@@ -0,0 +1,242 @@
+package com.example.bankcards.benchmark.support;
+
+import com.example.bankcards.dto.transaction.ArchivedTransactionRow;
+import com.example.bankcards.dto.transaction.ArchivedTransactionSlice;
+import com.example.bankcards.dto.transaction.CardSpendKey;
+import com.example.bankcards.dto.transaction.SpendTotalsDto;
+import com.example.bankcards.dto.transaction.TransactionCursor;
+import com.example.bankcards.dto.transaction.TransactionFilterDto;
+import com.example.bankcards.entities.Card;
+import com.example.bankcards.entities.CardLimit;
+import com.example.bankcards.entities.LedgerEntry;
+import com.example.bankcards.entities.LedgerPosting;
+import com.example.bankcards.entities.Transaction;
+import com.example.bankcards.entities.User;
+import com.example.bankcards.entities.enums.CardStatus;
+import com.example.bankcards.entities.enums.TransactionType;
+import com.example.bankcards.service.CardSpendService;
+import com.example.bankcards.service.GroupCommitExecutor;
+import com.example.bankcards.service.IdempotencyService;
+import com.example.bankcards.service.LedgerService;
+import com.example.bankcards.service.TransactionArchiveService;
+import com.example.bankcards.service.impl.CardCryptoServiceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+public final class BenchmarkFixtures {
+    public static final String CRYPTO_SECRET = "26C7mFn/ZOTMq1+caJYNDw==";
+    public static final String FINGERPRINT_SECRET = "9pQ2xVh7LbW4sTn1ZkRy6cMf3GdJ8aEu5HoPiK0wBqU=";
+    public static final BigDecimal LARGE_AMOUNT = new BigDecimal("1000000000000");
+
+    private BenchmarkFixtures() {
+    }
+
+    public static CardCryptoServiceImpl cardCryptoService() {
+        CardCryptoServiceImpl cardCryptoService = new CardCryptoServiceImpl();
+        ReflectionTestUtils.setField(cardCryptoService, "secretKey", CRYPTO_SECRET);
+        ReflectionTestUtils.setField(cardCryptoService, "fingerprintSecret", FINGERPRINT_SECRET);
+        cardCryptoService.init();
+        return cardCryptoService;
+    }
+
+    public static User user() {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .email("benchmark-" + UUID.randomUUID() + "@example.com")
+                .password("benchmark")
+                .fullName("Benchmark User")
+                .roles(new HashSet<>())
+                .deleted(false)
+                .build();
+    }
+
+    public static Card card(User user, String encryptedNumber, String last4) {
+        return Card.builder()
+                .id(UUID.randomUUID())
+                .user(user)
+                .cardNumberEncrypted(encryptedNumber)
+                .cardNumberLast4(last4)
+                .expirationDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .balance(LARGE_AMOUNT)
+                .createdAt(LocalDateTime.now())
+                .isDeleted(false)
+                .requestedForBlocking(false)
+                .version(0L)
+                .build();
+    }
+
+    public static List<CardLimit> unlimited(Card card) {
+        List<CardLimit> limits = new ArrayList<>();
+        for (TransactionType type : TransactionType.values()) {
+            limits.add(CardLimit.builder()
+                    .id(UUID.randomUUID())
+                    .card(card)
+                    .transactionType(type)
+                    .dailyLimit(LARGE_AMOUNT)
+                    .monthlyLimit(LARGE_AMOUNT)
+                    .build());
+        }
+        return limits;
+    }
+
+    /**
+     * Stand-in for the aggregate table: one running total per card and type,
+     * reported as both the daily and the monthly figure.
+     */
+    public static CardSpendService inMemorySpend() {
+        Map<String, BigDecimal> totals = new ConcurrentHashMap<>();
+        return new CardSpendService() {
+            @Override
+            public SpendTotalsDto getSpent(UUID cardId, TransactionType type, LocalDate date) {
+                BigDecimal spent = totals.getOrDefault(cardId + ":" + type, BigDecimal.ZERO);
+                return new SpendTotalsDto(spent, spent);
+            }
+
+            @Override
+            public Map<CardSpendKey, SpendTotalsDto> getSpent(Collection<UUID> cardIds, LocalDate date) {
+                Map<CardSpendKey, SpendTotalsDto> result = new HashMap<>();
+                for (UUID cardId : cardIds) {
+                    for (TransactionType type : TransactionType.values()) {
+                        result.put(new CardSpendKey(cardId, type), getSpent(cardId, type, date));
+                    }
+                }
+                return result;
+            }
+
+            @Override
+            public void recordSpend(Transaction transaction) {
+                totals.merge(transaction.getCard().getId() + ":" + transaction.getType(),
+                        transaction.getAmount(), BigDecimal::add);
+            }
+
+            @Override
+            public void recordSpend(List<Transaction> transactions) {
+                transactions.forEach(this::recordSpend);
+            }
+
+            @Override
+            public int rebuildFrom(LocalDate from) {
+                return 0;
+            }
+
+            @Override
+            public int rebuildClosedMonth(LocalDate month) {
+                return 0;
+            }
+        };
+    }
+
+    public static TransactionArchiveService emptyArchive() {
+        return new TransactionArchiveService() {
+            @Override
+            public long archiveExpiredTransactions() {
+                return 0;
+            }
+
+            @Override
+            public ArchivedTransactionSlice findTop(TransactionFilterDto filter,
+                                                    Comparator<ArchivedTransactionRow> order, int limit) {
+                return ArchivedTransactionSlice.empty();
+            }
+
+            @Override
+            public List<ArchivedTransactionRow> findAfter(TransactionFilterDto filter, TransactionCursor cursor, int limit) {
+                return List.of();
+            }
+
+            @Override
+            public long forEachNewestFirst(TransactionFilterDto filter, Consumer<ArchivedTransactionRow> consumer) {
+                return 0;
+            }
+        };
+    }
+
+    public static LedgerService inMemoryLedger() {
+        Map<UUID, BigDecimal> balances = new ConcurrentHashMap<>();
+        return new LedgerService() {
+            @Override
+            public void append(List<LedgerEntry> entries) {
+                for (LedgerEntry entry : entries) {
+                    for (LedgerPosting posting : entry.getPostings()) {
+                        balances.merge(posting.getAccountId(), posting.signedAmount(), BigDecimal::add);
+                    }
+                }
+            }
+
+            @Override
+            public BigDecimal getBalance(UUID accountId) {
+                return balances.getOrDefault(accountId, BigDecimal.ZERO);
+            }
+        };
+    }
+
+    public static PlatformTransactionManager noOpTransactionManager() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+    }
+
+    /**
+     * Group commit switched off: every operation commits through the transaction manager.
+     */
+    public static GroupCommitExecutor directCommit() {
+        return new GroupCommitExecutor() {
+            @Override
+            public void execute(Collection<UUID> cardIds, Runnable work) {
+                work.run();
+            }
+
+            @Override
+            public boolean isEnabled() {
+                return false;
+            }
+        };
+    }
+
+    /**
+     * No Idempotency-Key handling: every operation runs.
+     */
+    public static IdempotencyService noIdempotency() {
+        return new IdempotencyService() {
+            @Override
+            public void execute(UUID userId, String key, String request, Consumer<Runnable> operation) {
+                operation.accept(() -> {
+                });
+            }
+
+            @Override
+            public int purgeExpiredKeys() {
+                return 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.bankcards.benchmark.support;
+
+import com.example.bankcards.entities.Card;
+import com.example.bankcards.entities.CardLimit;
+import com.example.bankcards.entities.Transaction;
+import com.example.bankcards.repository.CardLimitRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransactionRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Map-backed stand-ins for the Spring Data repositories used on the transaction
+ * hot path. Only the methods the services actually call are implemented, anything
+ * else fails fast so a benchmark never silently measures a no-op.
+ */
+public final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    public static CardRepository cards(Map<UUID, Card> cards) {
+        return proxy(CardRepository.class, Map.of(
+                "findById", args -> Optional.ofNullable(cards.get((UUID) args[0])),
+                "findByIdForUpdate", args -> Optional.ofNullable(cards.get((UUID) args[0])),
+                "save", args -> {
+                    Card card = (Card) args[0];
+                    cards.put(card.getId(), card);
+                    return card;
+                },
+                "saveAll", args -> {
+                    @SuppressWarnings("unchecked")
+                    List<Card> saved = (List<Card>) args[0];
+                    saved.forEach(card -> cards.put(card.getId(), card));
+                    return saved;
+                }));
+    }
+
+    public static CardLimitRepository cardLimits(Map<UUID, List<CardLimit>> limitsByCard) {
+        return proxy(CardLimitRepository.class, Map.of(
+                "findByCardIdAndTransactionType", args -> limitsByCard.getOrDefault((UUID) args[0], List.of()).stream()
+                        .filter(limit -> limit.getTransactionType() == args[1])
+                        .findFirst()));
+    }
+
+    /**
+     * Keeps only a counter: retaining every saved transaction would turn the
+     * benchmark into a measurement of heap growth.
+     */
+    public static TransactionRepository transactions(AtomicLong saved) {
+        return proxy(TransactionRepository.class, Map.of(
+                "save", args -> {
+                    Transaction transaction = (Transaction) args[0];
+                    if (transaction.getId() == null) {
+                        transaction.setId(UUID.randomUUID());
+                    }
+                    saved.incrementAndGet();
+                    return transaction;
+                }));
+    }
+
+    public static <T> T proxy(Class<T> type, Map<String, Function<Object[], Object>> handlers) {
+        Map<String, Function<Object[], Object>> methods = new ConcurrentHashMap<>(handlers);
+        Object instance = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            Function<Object[], Object> handler = methods.get(method.getName());
+            if (handler != null) {
+                return handler.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> "InMemory" + type.getSimpleName();
+                case "hashCode" -> System.identityHashCode(self);
+                case "equals" -> self == args[0];
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            };
+        });
+        return type.cast(instance);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.bankcards.benchmark.support;
+
+import com.example.bankcards.entities.Card;
+import com.example.bankcards.service.CardCryptoService;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+
+/**
+ * The pre-pooling implementation (Cipher.getInstance + init on every call),
+ * kept as a baseline for {@code CardCryptoBenchmark}.
+ */
+public class LegacyCardCryptoService implements CardCryptoService {
+    private final SecretKeySpec secretKeySpec;
+
+    public LegacyCardCryptoService(String secretKey) {
+        this.secretKeySpec = new SecretKeySpec(secretKey.substring(0, 16).getBytes(), "AES");
+    }
+
+    @Override
+    public String encryptCardNumber(String cardNumber) {
+        try {
+            Cipher cipher = Cipher.getInstance("AES");
+            cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec);
+            return Base64.getEncoder().encodeToString(cipher.doFinal(cardNumber.getBytes()));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String decryptCardNumber(String encryptedCardNumber) {
+        try {
+            Cipher cipher = Cipher.getInstance("AES");
+            cipher.init(Cipher.DECRYPT_MODE, secretKeySpec);
+            return new String(cipher.doFinal(Base64.getDecoder().decode(encryptedCardNumber)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String maskCardNumberDecrypted(String fullCardNumber) {
+        String decrypted = decryptCardNumber(fullCardNumber);
+        return "**** **** **** " + decrypted.substring(decrypted.length() - 4);
+    }
+
+    @Override
+    public String maskCard(Card card) {
+        return maskCardNumberDecrypted(card.getCardNumberEncrypted());
+    }
+
+    @Override
+    public String fingerprintCardNumber(String cardNumber) {
+        throw new UnsupportedOperationException("Fingerprints did not exist before pooling");
+    }
+
+    @Override
+    public String lastFourDigits(String cardNumber) {
+        return cardNumber.substring(cardNumber.length() - 4);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.bankcards.configuration.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Periodically measures how far the replica lags behind the primary. The replica only
+ * serves reads while the last measurement succeeded and stayed within {@code maxLag}.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    // an idle primary sends no WAL, so a fully replayed replica counts as not lagging
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END
+            """;
+
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag) {
+        this.replica = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${spring.application.datasource.replica.lag-check-interval:PT5S}")
+    public void refresh() {
+        try {
+            Number lagMillis = replica.queryForObject(LAG_QUERY, Number.class);
+            Duration lag = Duration.ofMillis(lagMillis == null ? 0 : lagMillis.longValue());
+            boolean withinLimit = lag.compareTo(maxLag) <= 0;
+            if (withinLimit != usable) {
+                log.warn("Replica lag is {}, reads {} the replica", lag, withinLimit ? "return to" : "leave");
+            }
+            usable = withinLimit;
+        } catch (RuntimeException e) {
+            markUnavailable(e);
+        }
+    }
+
+    /**
+     * Sends reads to the primary until the next successful lag check.
+     */
+    public void markUnavailable(Exception cause) {
+        if (usable) {
+            log.warn("Replica unavailable, reads fall back to the primary: {}", cause.getMessage());
+        }
+        usable = false;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.bankcards.controller;
+
+import com.example.bankcards.dto.transaction.CardStatementDto;
+import com.example.bankcards.entities.enums.SpendPeriod;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.CardStatementService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/statements")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "Bearer Authentication")
+@Slf4j
+public class StatementController {
+
+    private final CardStatementService cardStatementService;
+
+    @GetMapping("/{cardId}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    @Operation(summary = "Get the statement of a card",
+            description = "Count, sum, minimum and maximum of the card's transactions per day or month and transaction " +
+                    "type between two dates inclusive, plus totals over the whole range. Monthly statements cover the " +
+                    "months of the given dates. Accessible by the card owner and by users with the 'ADMIN' role.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully fetched the statement"),
+            @ApiResponse(responseCode = "400", description = "Bad request, the range is reversed or too long"),
+            @ApiResponse(responseCode = "403", description = "Forbidden, the card belongs to another user"),
+            @ApiResponse(responseCode = "404", description = "Card not found")
+    })
+    public ResponseEntity<CardStatementDto> getStatement(
+            @PathVariable UUID cardId,
+            @RequestParam(defaultValue = "MONTH") SpendPeriod period,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal UserPrincipal user) {
+
+        CardStatementDto statement = cardStatementService.getStatement(
+                cardId, period, from, to, user.getId(), user.getRoles()
+        );
+        return ResponseEntity.ok(statement);
+    }
+
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild statement data",
+            description = "Recompute the per-day and per-month statement data of all cards from the given date on out " +
+                    "of the stored transactions. Accessible only by users with the 'ADMIN' role.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Number of day and month entries written")
+    })
+    public ResponseEntity<Integer> rebuild(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @AuthenticationPrincipal UserPrincipal user) {
+
+        log.info("Admin {} requested a statement rebuild from {}", user.getId(), from);
+        return ResponseEntity.ok(cardStatementService.rebuildFrom(from));
+    }
+}
@@ -1,25 +1,38 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.transaction.BatchTransactionRequestDto;
+import com.example.bankcards.dto.transaction.BatchTransactionResponseDto;
 import com.example.bankcards.dto.transaction.TransactionFilterDto;
 import com.example.bankcards.dto.transaction.TransactionRequestDto;
 import com.example.bankcards.dto.transaction.TransactionResponseDto;
+import com.example.bankcards.dto.transaction.TransactionSliceDto;
 import com.example.bankcards.entities.enums.TransactionType;
 import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.ExportFormat;
+import com.example.bankcards.service.TransactionBatchService;
+import com.example.bankcards.service.TransactionExportService;
 import com.example.bankcards.service.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -32,67 +45,101 @@ import java.util.UUID;
 @RequiredArgsConstructor
 @SecurityRequirement(name = "Bearer Authentication")
 public class TransactionController {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
 
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final TransactionBatchService transactionBatchService;
 
     @PostMapping("/{cardId}/withdraw")
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Withdraw funds from a card",
-            description = "Allows a user to withdraw funds from their card. Accessible only by users with the 'USER' role.")
+            description = "Allows a user to withdraw funds from their card. A repeated request with the same Idempotency-Key " +
+                    "header is not applied again. Accessible only by users with the 'USER' role.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully withdrawn funds"),
             @ApiResponse(responseCode = "400", description = "Bad request, invalid input"),
             @ApiResponse(responseCode = "401", description = "Unauthorized, authentication required"),
-            @ApiResponse(responseCode = "403", description = "Forbidden, you do not have permission to perform this action")
+            @ApiResponse(responseCode = "403", description = "Forbidden, you do not have permission to perform this action"),
+            @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still being processed"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key was already used for a different request")
     })
     public ResponseEntity<Void> withdraw(@PathVariable UUID cardId,
                                          @RequestBody @Valid TransactionRequestDto dto,
+                                         @RequestHeader(name = IDEMPOTENCY_KEY, required = false) @Size(max = 255) String idempotencyKey,
                                          @AuthenticationPrincipal UserPrincipal user) {
-        transactionService.withdraw(cardId, dto, user.getId());
+        transactionService.withdraw(cardId, dto, user.getId(), idempotencyKey);
         return ResponseEntity.ok().build();
     }
 
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     @PostMapping("/{fromCardId}/transfer/{toCardId}")
     @Operation(summary = "Transfer funds between cards",
-            description = "Transfer funds from one card to another. Accessible by users with 'USER' or 'ADMIN' role.")
+            description = "Transfer funds from one card to another. A repeated request with the same Idempotency-Key " +
+                    "header is not applied again. Accessible by users with 'USER' or 'ADMIN' role.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully transferred funds"),
             @ApiResponse(responseCode = "400", description = "Bad request, invalid input"),
             @ApiResponse(responseCode = "401", description = "Unauthorized, authentication required"),
-            @ApiResponse(responseCode = "403", description = "Forbidden, you do not have permission to perform this action")
+            @ApiResponse(responseCode = "403", description = "Forbidden, you do not have permission to perform this action"),
+            @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still being processed"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key was already used for a different request")
     })
     public ResponseEntity<Void> transfer(@PathVariable UUID fromCardId,
                                          @PathVariable UUID toCardId,
                                          @RequestBody @Valid TransactionRequestDto dto,
+                                         @RequestHeader(name = IDEMPOTENCY_KEY, required = false) @Size(max = 255) String idempotencyKey,
                                          @AuthenticationPrincipal UserPrincipal user) {
-        transactionService.transfer(fromCardId, toCardId, dto, user.getId());
+        transactionService.transfer(fromCardId, toCardId, dto, user.getId(), idempotencyKey);
         return ResponseEntity.ok().build();
     }
 
     @PostMapping("/{cardId}/deposit")
     @PreAuthorize("hasRole('USER')")
     @Operation(summary = "Deposit funds into a card",
-            description = "Allows a user to deposit funds into their card. Accessible only by users with the 'USER' role.")
+            description = "Allows a user to deposit funds into their card. A repeated request with the same Idempotency-Key " +
+                    "header is not applied again. Accessible only by users with the 'USER' role.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully deposited funds"),
             @ApiResponse(responseCode = "400", description = "Bad request, invalid input"),
             @ApiResponse(responseCode = "401", description = "Unauthorized, authentication required"),
-            @ApiResponse(responseCode = "403", description = "Forbidden, you do not have permission to perform this action")
+            @ApiResponse(responseCode = "403", description = "Forbidden, you do not have permission to perform this action"),
+            @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still being processed"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key was already used for a different request")
     })
     public ResponseEntity<Void> deposit(@PathVariable UUID cardId,
                                         @RequestBody @Valid TransactionRequestDto dto,
+                                        @RequestHeader(name = IDEMPOTENCY_KEY, required = false) @Size(max = 255) String idempotencyKey,
                                         @AuthenticationPrincipal UserPrincipal user) {
-        transactionService.deposit(cardId, dto, user.getId());
+        transactionService.deposit(cardId, dto, user.getId(), idempotencyKey);
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "Submit a batch of transactions",
+            description = "Applies up to 5000 deposit, withdrawal and transfer instructions in order and reports the " +
+                    "outcome of every item. Rejected items do not affect the others. Accessible only by users with the 'USER' role.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results"),
+            @ApiResponse(responseCode = "400", description = "Bad request, invalid input"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized, authentication required"),
+            @ApiResponse(responseCode = "403", description = "Forbidden, you do not have permission to perform this action")
+    })
+    public BatchTransactionResponseDto submitBatch(@RequestBody @Valid BatchTransactionRequestDto dto,
+                                                   @AuthenticationPrincipal UserPrincipal user) {
+        return transactionBatchService.submit(dto, user.getId());
+    }
+
     @GetMapping("/transactions")
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @Operation(summary = "Get transactions for a user",
-            description = "Fetch a list of transactions for a user. Accessible by users with 'USER' or 'ADMIN' role.")
+            description = "Fetch a list of transactions for a user, including archived ones. Accessible by users with " +
+                    "'USER' or 'ADMIN' role.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved transactions")
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved transactions"),
+            @ApiResponse(responseCode = "400", description = "Bad request, page too deep while archived transactions match; " +
+                    "use the cursor endpoint")
     })
     public Page<TransactionResponseDto> getTransactions(
             @RequestParam(required = false) @Valid LocalDateTime startDate,
@@ -116,4 +163,74 @@ public class TransactionController {
         PageRequest pageRequest = PageRequest.of(page, size);
         return transactionService.getAllTransactions(filter, pageRequest, user);
     }
+
+    @GetMapping("/transactions/cursor")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Get transactions for a user using a cursor",
+            description = "Fetch transactions newest first without counting the total, continuing into archived ones. " +
+                    "Pass nextCursor from the previous response to get the following page. Accessible by users with " +
+                    "'USER' or 'ADMIN' role.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved transactions"),
+            @ApiResponse(responseCode = "400", description = "Bad request, invalid cursor or page size")
+    })
+    public TransactionSliceDto getTransactionsByCursor(
+            @RequestParam(required = false) LocalDateTime startDate,
+            @RequestParam(required = false) LocalDateTime endDate,
+            @RequestParam(required = false) TransactionType transactionType,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) UUID cardId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size,
+            @AuthenticationPrincipal UserPrincipal user) {
+
+        TransactionFilterDto filter = new TransactionFilterDto();
+        filter.setStartDate(startDate);
+        filter.setEndDate(endDate);
+        filter.setTransactionType(transactionType);
+        filter.setMinAmount(minAmount);
+        filter.setMaxAmount(maxAmount);
+        filter.setCardId(cardId);
+
+        return transactionService.getTransactionsAfter(filter, cursor, size, user);
+    }
+
+    @GetMapping("/transactions/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Export transactions",
+            description = "Stream all transactions matching the filter, archived ones included, as CSV or NDJSON, newest first. " +
+                    "Accessible by users with 'USER' or 'ADMIN' role; users only get their own transactions.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transactions are being streamed"),
+            @ApiResponse(responseCode = "403", description = "Forbidden, the card belongs to another user"),
+            @ApiResponse(responseCode = "404", description = "Card not found")
+    })
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(required = false) LocalDateTime startDate,
+            @RequestParam(required = false) LocalDateTime endDate,
+            @RequestParam(required = false) TransactionType transactionType,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) UUID cardId,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @AuthenticationPrincipal UserPrincipal user) {
+
+        TransactionFilterDto filter = new TransactionFilterDto();
+        filter.setStartDate(startDate);
+        filter.setEndDate(endDate);
+        filter.setTransactionType(transactionType);
+        filter.setMinAmount(minAmount);
+        filter.setMaxAmount(maxAmount);
+        filter.setCardId(cardId);
+
+        StreamingResponseBody body = transactionExportService.exportTransactions(filter, format, user);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions." + format.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
 }
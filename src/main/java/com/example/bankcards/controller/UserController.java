@@ -1,7 +1,10 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.user.UserFilterDto;
 import com.example.bankcards.dto.user.UserRequestDto;
 import com.example.bankcards.dto.user.UserResponseDto;
+import com.example.bankcards.service.ExportFormat;
+import com.example.bankcards.service.UserExportService;
 import com.example.bankcards.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,13 +12,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -25,16 +37,48 @@ import java.util.UUID;
 public class UserController {
 
     private final UserService userService;
+    private final UserExportService userExportService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     @SecurityRequirement(name = "Bearer Authentication")
-    @Operation(summary = "Get all users", description = "Retrieve a list of all users. Accessible only by users with 'ADMIN' role.")
+    @Operation(summary = "Get users", description = "Retrieve a page of users ordered by email with optional filters. Accessible only by users with 'ADMIN' role.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved users")
     })
-    public List<UserResponseDto> getAllUsers() {
-        return userService.viewAllUsers();
+    public Page<UserResponseDto> getAllUsers(
+            @RequestParam(required = false) String emailPrefix,
+            @RequestParam(required = false) Boolean deleted,
+            @RequestParam(required = false) String role,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size) {
+
+        UserFilterDto filter = filter(emailPrefix, deleted, role);
+
+        return userService.getUsers(filter, PageRequest.of(page, size, Sort.by("email")));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @Operation(summary = "Export users", description = "Stream all users matching the filter as CSV or NDJSON, ordered by email. Accessible only by users with 'ADMIN' role.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users are being streamed")
+    })
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(required = false) String emailPrefix,
+            @RequestParam(required = false) Boolean deleted,
+            @RequestParam(required = false) String role,
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+
+        StreamingResponseBody body = userExportService.exportUsers(filter(emailPrefix, deleted, role), format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("users." + format.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
     }
 
     @PostMapping("/registration")
@@ -83,4 +127,12 @@ public class UserController {
     public void restoreUser(@PathVariable UUID id) {
         userService.restoreUser(id);
     }
-}
\ No newline at end of file
+
+    private static UserFilterDto filter(String emailPrefix, Boolean deleted, String role) {
+        UserFilterDto filter = new UserFilterDto();
+        filter.setEmailPrefix(emailPrefix);
+        filter.setDeleted(deleted);
+        filter.setRole(role);
+        return filter;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.bankcards.dto.ledger;
+
+import com.example.bankcards.entities.enums.PostingDirection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record LedgerPostingRow(
+        UUID accountId,
+        PostingDirection direction,
+        BigDecimal amount,
+        LocalDateTime recordedAt) {
+
+    public BigDecimal signedAmount() {
+        return direction == PostingDirection.CREDIT ? amount : amount.negate();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.bankcards.dto.ledger;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record LedgerSnapshotRow(
+        UUID id,
+        UUID accountId,
+        BigDecimal balance,
+        LocalDateTime coveredUntil) {
+}
@@ -0,0 +1,20 @@
+package com.example.bankcards.dto.ledger;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a journal replay: entries whose postings do not balance, snapshots that
+ * differ from the replayed balance and cards whose balance column differs from the ledger.
+ */
+public record LedgerVerificationReport(
+        long postingsReplayed,
+        long snapshotsChecked,
+        List<UUID> unbalancedEntries,
+        List<UUID> mismatchedSnapshots,
+        List<UUID> cardsOutOfBalance) {
+
+    public boolean isConsistent() {
+        return unbalancedEntries.isEmpty() && mismatchedSnapshots.isEmpty() && cardsOutOfBalance.isEmpty();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.bankcards.dto.transaction;
+
+import com.example.bankcards.entities.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A transaction as stored in an archive segment. The owning user is denormalised
+ * into the row because the card may be gone by the time the archive is read.
+ */
+public record ArchivedTransactionRow(
+        UUID id,
+        UUID cardId,
+        UUID userId,
+        TransactionType type,
+        BigDecimal amount,
+        String description,
+        LocalDateTime timestamp) {
+}
@@ -0,0 +1,14 @@
+package com.example.bankcards.dto.transaction;
+
+import java.util.List;
+
+/**
+ * The first {@code rows} of the archived transactions matching a filter in the
+ * requested order, and how many matched in total.
+ */
+public record ArchivedTransactionSlice(long total, List<ArchivedTransactionRow> rows) {
+
+    public static ArchivedTransactionSlice empty() {
+        return new ArchivedTransactionSlice(0, List.of());
+    }
+}
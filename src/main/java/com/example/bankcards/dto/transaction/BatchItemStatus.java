@@ -0,0 +1,6 @@
+package com.example.bankcards.dto.transaction;
+
+public enum BatchItemStatus {
+    APPLIED,
+    REJECTED
+}
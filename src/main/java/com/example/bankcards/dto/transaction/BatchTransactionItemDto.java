@@ -0,0 +1,40 @@
+package com.example.bankcards.dto.transaction;
+
+import com.example.bankcards.entities.enums.TransactionType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchTransactionItemDto {
+    @NotNull(message = "Transaction type is required")
+    @Schema(description = "DEPOSIT, WITHDRAWAL or TRANSFER", example = "DEPOSIT")
+    private TransactionType type;
+
+    @NotNull(message = "Card id is required")
+    @Schema(description = "Card to deposit to, withdraw from or transfer from")
+    private UUID cardId;
+
+    @Schema(description = "Receiving card, required for TRANSFER")
+    private UUID toCardId;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    @Digits(integer = 12, fraction = 2, message = "Invalid amount format (maximum 2 decimal places)")
+    @Schema(description = "Transaction amount", example = "1000.00")
+    private BigDecimal amount;
+
+    @Schema(description = "Transaction description", example = "Salary")
+    private String description;
+}
@@ -0,0 +1,21 @@
+package com.example.bankcards.dto.transaction;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchTransactionItemResultDto {
+    @Schema(description = "Position of the item in the request")
+    private int index;
+
+    private BatchItemStatus status;
+
+    @Schema(description = "Reason the item was rejected, null when applied")
+    private String error;
+}
@@ -0,0 +1,22 @@
+package com.example.bankcards.dto.transaction;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchTransactionRequestDto {
+    @NotEmpty(message = "Batch must contain at least one item")
+    @Size(max = 5000, message = "Batch must not contain more than 5000 items")
+    private List<@Valid @NotNull BatchTransactionItemDto> items;
+}
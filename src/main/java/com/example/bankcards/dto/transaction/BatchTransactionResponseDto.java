@@ -0,0 +1,18 @@
+package com.example.bankcards.dto.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchTransactionResponseDto {
+    private int applied;
+    private int rejected;
+    private List<BatchTransactionItemResultDto> results;
+}
@@ -0,0 +1,8 @@
+package com.example.bankcards.dto.transaction;
+
+import com.example.bankcards.entities.enums.TransactionType;
+
+import java.util.UUID;
+
+public record CardSpendKey(UUID cardId, TransactionType type) {
+}
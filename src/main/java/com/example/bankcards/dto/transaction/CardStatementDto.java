@@ -0,0 +1,29 @@
+package com.example.bankcards.dto.transaction;
+
+import com.example.bankcards.entities.enums.SpendPeriod;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CardStatementDto {
+    private UUID cardId;
+    private SpendPeriod period;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Schema(description = "One line per day or month and transaction type that has transactions, oldest first")
+    private List<StatementLineDto> lines;
+
+    @Schema(description = "The lines summed up per transaction type over the whole range")
+    private List<StatementTotalsDto> totals;
+}
@@ -0,0 +1,17 @@
+package com.example.bankcards.dto.transaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SpendTotalsDto {
+    private BigDecimal dailySpent;
+    private BigDecimal monthlySpent;
+}
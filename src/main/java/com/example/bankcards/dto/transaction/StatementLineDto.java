@@ -0,0 +1,25 @@
+package com.example.bankcards.dto.transaction;
+
+import com.example.bankcards.entities.enums.TransactionType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StatementLineDto {
+    @Schema(description = "First day of the day or month the line covers")
+    private LocalDate periodStart;
+    private TransactionType transactionType;
+    private long count;
+    private BigDecimal amount;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+}
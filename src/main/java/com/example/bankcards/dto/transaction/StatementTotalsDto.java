@@ -0,0 +1,21 @@
+package com.example.bankcards.dto.transaction;
+
+import com.example.bankcards.entities.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StatementTotalsDto {
+    private TransactionType transactionType;
+    private long count;
+    private BigDecimal amount;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+}
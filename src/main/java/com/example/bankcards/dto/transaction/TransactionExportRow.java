@@ -0,0 +1,16 @@
+package com.example.bankcards.dto.transaction;
+
+import com.example.bankcards.entities.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record TransactionExportRow(
+        UUID id,
+        UUID cardId,
+        TransactionType type,
+        BigDecimal amount,
+        String description,
+        LocalDateTime timestamp) {
+}
@@ -0,0 +1,20 @@
+package com.example.bankcards.dto.transaction;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TransactionSliceDto {
+    private List<TransactionResponseDto> content;
+
+    @Schema(description = "Cursor for the next page, null when there are no more transactions")
+    private String nextCursor;
+}
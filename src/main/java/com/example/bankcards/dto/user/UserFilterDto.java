@@ -0,0 +1,10 @@
+package com.example.bankcards.dto.user;
+
+import lombok.Data;
+
+@Data
+public class UserFilterDto {
+    private String emailPrefix;
+    private Boolean deleted;
+    private String role;
+}
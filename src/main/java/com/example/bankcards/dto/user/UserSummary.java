@@ -0,0 +1,19 @@
+package com.example.bankcards.dto.user;
+
+import java.util.UUID;
+
+/**
+ * Row of the admin user listing, read without the password hash or {@code Role}
+ * entities. Role names come back as one comma-separated string.
+ */
+public interface UserSummary {
+    UUID getId();
+
+    String getEmail();
+
+    String getFullName();
+
+    boolean isDeleted();
+
+    String getRoles();
+}
@@ -1,11 +1,15 @@
 package com.example.bankcards.entities;
 
 import com.example.bankcards.entities.enums.CardStatus;
+import com.example.bankcards.entities.id.UuidV7Generator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.UuidGenerator;
 import org.hibernate.annotations.Where;
 
 import java.math.BigDecimal;
@@ -21,16 +25,24 @@ import java.util.UUID;
 @Table(name = "cards")
 public class Card {
     @Id
-    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
     @Column(name = "card_number_encrypted", nullable = false)
     private String cardNumberEncrypted;
 
+    @Column(name = "card_number_last4", length = 4)
+    private String cardNumberLast4;
+
+    @Column(name = "card_number_fingerprint", length = 64)
+    private String cardNumberFingerprint;
+
     private LocalDate expirationDate;
 
     @Enumerated(EnumType.STRING)
@@ -45,4 +57,7 @@ public class Card {
 
     @Column(name = "requested_for_blocking")
     private boolean requestedForBlocking = false;
+
+    @Version
+    private Long version;
 }
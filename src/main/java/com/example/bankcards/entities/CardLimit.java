@@ -1,11 +1,17 @@
 package com.example.bankcards.entities;
 
 import com.example.bankcards.entities.enums.TransactionType;
+import com.example.bankcards.entities.id.UuidV7Generator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -16,13 +22,19 @@ import java.util.UUID;
 @NoArgsConstructor
 @Builder
 @Table(name = "card_limits")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CardLimit.CACHE_REGION)
 public class CardLimit {
+    public static final String CACHE_REGION = "card-limits";
+    public static final String QUERY_CACHE_REGION = "card-limit-queries";
+
     @Id
-    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
-    @OneToOne(cascade = CascadeType.ALL)
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "card_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Card card;
 
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,42 @@
+package com.example.bankcards.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A money movement submitted with an {@code Idempotency-Key} header. The row is claimed
+ * before the operation runs and marked completed in the operation's own transaction.
+ * {@code claimedAt} identifies the current claim: a claim left uncompleted by a crashed
+ * instance is taken over once its lease has expired.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "idempotency_keys")
+public class IdempotencyKey {
+    @EmbeddedId
+    private IdempotencyKeyId id;
+
+    @Column(name = "request_hash", nullable = false)
+    private String requestHash;
+
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public boolean isCompleted() {
+        return completedAt != null;
+    }
+}
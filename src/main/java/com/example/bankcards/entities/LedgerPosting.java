@@ -0,0 +1,68 @@
+package com.example.bankcards.entities;
+
+import com.example.bankcards.entities.enums.PostingDirection;
+import com.example.bankcards.entities.id.UuidV7Generator;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One leg of a journal entry. Card accounts use the card id; the other side of deposits
+ * and withdrawals is {@link #EXTERNAL_ACCOUNT_ID}. A credit increases an account's balance.
+ */
+@Entity
+@Immutable
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "ledger_postings")
+public class LedgerPosting {
+    public static final UUID EXTERNAL_ACCOUNT_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Id
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "entry_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private LedgerEntry entry;
+
+    @Column(name = "account_id", nullable = false)
+    private UUID accountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PostingDirection direction;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    /**
+     * The transactions row this leg belongs to; empty for the external side.
+     */
+    @Column(name = "transaction_id")
+    private UUID transactionId;
+
+    /**
+     * Set by the database clock on insert.
+     */
+    @Column(name = "recorded_at", insertable = false, updatable = false)
+    private LocalDateTime recordedAt;
+
+    public BigDecimal signedAmount() {
+        return direction == PostingDirection.CREDIT ? amount : amount.negate();
+    }
+}
@@ -1,11 +1,15 @@
 package com.example.bankcards.entities;
 
 import com.example.bankcards.entities.enums.TransactionType;
+import com.example.bankcards.entities.id.UuidV7Generator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -20,11 +24,13 @@ import java.util.UUID;
 public class Transaction {
 
     @Id
-    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "card_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Card card;
 
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,44 @@
+package com.example.bankcards.entities;
+
+import com.example.bankcards.entities.id.UuidV7Generator;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UuidGenerator;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A published archive segment file. The row is written in the same database transaction
+ * that deletes the archived transactions, so a segment is visible to readers exactly
+ * when its rows are gone from the transactions table.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "transaction_archive_segments")
+public class TransactionArchiveSegment {
+    @Id
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    private UUID id;
+
+    @Column(name = "file_name", nullable = false, unique = true)
+    private String fileName;
+
+    @Column(name = "min_timestamp", nullable = false)
+    private LocalDateTime minTimestamp;
+
+    @Column(name = "max_timestamp", nullable = false)
+    private LocalDateTime maxTimestamp;
+
+    @Column(name = "row_count", nullable = false)
+    private long rowCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
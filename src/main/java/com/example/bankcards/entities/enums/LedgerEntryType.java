@@ -0,0 +1,8 @@
+package com.example.bankcards.entities.enums;
+
+public enum LedgerEntryType {
+    OPENING_BALANCE,
+    DEPOSIT,
+    WITHDRAWAL,
+    TRANSFER
+}
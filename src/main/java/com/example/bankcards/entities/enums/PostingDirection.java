@@ -0,0 +1,6 @@
+package com.example.bankcards.entities.enums;
+
+public enum PostingDirection {
+    DEBIT,
+    CREDIT
+}
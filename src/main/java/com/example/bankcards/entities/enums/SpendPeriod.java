@@ -0,0 +1,6 @@
+package com.example.bankcards.entities.enums;
+
+public enum SpendPeriod {
+    DAY,
+    MONTH
+}
@@ -15,10 +15,13 @@ import java.util.List;
 
 @Component
 public class CardFactory {
-    public Card createCard(CardRequestDto request, User user, String encryptedCardNumber) {
+    public Card createCard(CardRequestDto request, User user, String encryptedCardNumber,
+                           String last4, String fingerprint) {
         return Card.builder()
                 .user(user)
                 .cardNumberEncrypted(encryptedCardNumber)
+                .cardNumberLast4(last4)
+                .cardNumberFingerprint(fingerprint)
                 .expirationDate(request.getExpirationDate().toLocalDate())
                 .status(CardStatus.ACTIVE)
                 .balance(request.getBalance())
@@ -0,0 +1,68 @@
+package com.example.bankcards.factory;
+
+import com.example.bankcards.entities.Card;
+import com.example.bankcards.entities.LedgerEntry;
+import com.example.bankcards.entities.LedgerPosting;
+import com.example.bankcards.entities.Transaction;
+import com.example.bankcards.entities.enums.LedgerEntryType;
+import com.example.bankcards.entities.enums.PostingDirection;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.UUID;
+
+/**
+ * Builds journal entries for saved transactions; each card leg links to its transactions row.
+ * Opening balances have no transactions row, so their card leg links to none.
+ */
+@Component
+public class LedgerEntryFactory {
+
+    public LedgerEntry deposit(Transaction deposit) {
+        LedgerEntry entry = entry(LedgerEntryType.DEPOSIT, deposit.getDescription());
+        post(entry, LedgerPosting.EXTERNAL_ACCOUNT_ID, PostingDirection.DEBIT, deposit.getAmount(), null);
+        post(entry, deposit.getCard().getId(), PostingDirection.CREDIT, deposit.getAmount(), deposit.getId());
+        return entry;
+    }
+
+    public LedgerEntry withdrawal(Transaction withdrawal) {
+        LedgerEntry entry = entry(LedgerEntryType.WITHDRAWAL, withdrawal.getDescription());
+        post(entry, withdrawal.getCard().getId(), PostingDirection.DEBIT, withdrawal.getAmount(), withdrawal.getId());
+        post(entry, LedgerPosting.EXTERNAL_ACCOUNT_ID, PostingDirection.CREDIT, withdrawal.getAmount(), null);
+        return entry;
+    }
+
+    public LedgerEntry transfer(Transaction outgoing, Transaction incoming) {
+        LedgerEntry entry = entry(LedgerEntryType.TRANSFER, outgoing.getDescription());
+        post(entry, outgoing.getCard().getId(), PostingDirection.DEBIT, outgoing.getAmount(), outgoing.getId());
+        post(entry, incoming.getCard().getId(), PostingDirection.CREDIT, incoming.getAmount(), incoming.getId());
+        return entry;
+    }
+
+    public LedgerEntry openingBalance(Card card) {
+        LedgerEntry entry = entry(LedgerEntryType.OPENING_BALANCE, "Opening balance");
+        post(entry, LedgerPosting.EXTERNAL_ACCOUNT_ID, PostingDirection.DEBIT, card.getBalance(), null);
+        post(entry, card.getId(), PostingDirection.CREDIT, card.getBalance(), null);
+        return entry;
+    }
+
+    private static LedgerEntry entry(LedgerEntryType type, String description) {
+        return LedgerEntry.builder()
+                .entryType(type)
+                .description(description)
+                .postings(new ArrayList<>(2))
+                .build();
+    }
+
+    private static void post(LedgerEntry entry, UUID accountId, PostingDirection direction, BigDecimal amount,
+                             UUID transactionId) {
+        entry.getPostings().add(LedgerPosting.builder()
+                .entry(entry)
+                .accountId(accountId)
+                .direction(direction)
+                .amount(amount)
+                .transactionId(transactionId)
+                .build());
+    }
+}
@@ -20,7 +20,7 @@ public class TransactionFactory {
         String description = dto.getDescription();
 
         if (description == null || description.trim().isEmpty() || description.equals("transaction")) {
-            String cardNumberMasked = cardCryptoService.maskCardNumberDecrypted(card.getCardNumberEncrypted());
+            String cardNumberMasked = cardCryptoService.maskCard(card);
 
             switch (type) {
                 case DEPOSIT ->
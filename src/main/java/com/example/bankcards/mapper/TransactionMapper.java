@@ -1,5 +1,6 @@
 package com.example.bankcards.mapper;
 
+import com.example.bankcards.dto.transaction.ArchivedTransactionRow;
 import com.example.bankcards.dto.transaction.TransactionRequestDto;
 import com.example.bankcards.dto.transaction.TransactionResponseDto;
 import com.example.bankcards.entities.Transaction;
@@ -13,4 +14,6 @@ public interface TransactionMapper {
     Transaction convertToTransaction(TransactionRequestDto transactionRequestDto);
 
     TransactionResponseDto convertToTransactionResponseDto(Transaction transaction);
+
+    TransactionResponseDto convertToTransactionResponseDto(ArchivedTransactionRow row);
 }
@@ -2,6 +2,7 @@ package com.example.bankcards.mapper;
 
 import com.example.bankcards.dto.user.UserRequestDto;
 import com.example.bankcards.dto.user.UserResponseDto;
+import com.example.bankcards.dto.user.UserSummary;
 import com.example.bankcards.entities.Role;
 import com.example.bankcards.entities.User;
 import org.mapstruct.Builder;
@@ -9,6 +10,7 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
 
+import java.util.Arrays;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -22,6 +24,13 @@ public interface UserMapper {
 
     UserResponseDto convertToUserResponse(User user);
 
+    default UserResponseDto convertToUserResponse(UserSummary summary) {
+        Set<String> roles = summary.getRoles() == null
+                ? Set.of()
+                : Arrays.stream(summary.getRoles().split(",")).collect(Collectors.toSet());
+        return new UserResponseDto(summary.getId(), summary.getEmail(), summary.getFullName(), roles, summary.isDeleted());
+    }
+
     default Set<Role> map(Set<String> roleNames) {
         if (roleNames == null) {
             return null;
@@ -2,10 +2,14 @@ package com.example.bankcards.repository;
 
 import com.example.bankcards.entities.CardLimit;
 import com.example.bankcards.entities.enums.TransactionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,6 +17,18 @@ import java.util.UUID;
 @Repository
 public interface CardLimitRepository extends JpaRepository<CardLimit, UUID>, JpaSpecificationExecutor<CardLimit> {
     Optional<CardLimit> findByCardId(UUID cardId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CardLimit.QUERY_CACHE_REGION)
+    })
     List<CardLimit> findAllByCardId(UUID cardId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CardLimit.QUERY_CACHE_REGION)
+    })
     Optional<CardLimit> findByCardIdAndTransactionType(UUID cardId, TransactionType type);
+
+    List<CardLimit> findAllByCardIdIn(Collection<UUID> cardIds);
 }
@@ -2,13 +2,21 @@ package com.example.bankcards.repository;
 
 import com.example.bankcards.entities.Card;
 import com.example.bankcards.entities.enums.CardStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -20,4 +28,38 @@ public interface CardRepository extends JpaRepository<Card, UUID>, JpaSpecificat
     List<Card> findAllByUserId(UUID userId);
 
     boolean existsByCardNumberEncrypted(String cardNumberEncrypted);
+
+    boolean existsByCardNumberFingerprint(String cardNumberFingerprint);
+
+    boolean existsByCardNumberEncryptedAndCardNumberFingerprintIsNull(String cardNumberEncrypted);
+
+    List<Card> findTop500ByCardNumberFingerprintIsNullAndIdGreaterThanOrderByIdAsc(UUID id);
+
+    @Modifying
+    @Query("UPDATE Card c SET c.cardNumberLast4 = :last4, c.cardNumberFingerprint = :fingerprint WHERE c.id = :id")
+    int updateCardNumberDigest(@Param("id") UUID id,
+                               @Param("last4") String last4,
+                               @Param("fingerprint") String fingerprint);
+
+    /**
+     * Expires up to {@code limit} overdue active cards and returns their ids. The outer status check is
+     * re-evaluated on concurrently updated rows, so a card blocked in the meantime is left alone.
+     */
+    @Query(value = """
+            UPDATE cards SET status = 'EXPIRED', version = version + 1
+            WHERE status = 'ACTIVE'
+              AND id IN (SELECT id FROM cards
+                         WHERE status = 'ACTIVE' AND is_deleted = false AND expiration_date < :today
+                         LIMIT :limit)
+            RETURNING id
+            """, nativeQuery = true)
+    List<UUID> expireActiveCards(@Param("today") LocalDate today, @Param("limit") int limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Card c WHERE c.id = :id")
+    Optional<Card> findByIdForUpdate(@Param("id") UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Card c WHERE c.id IN :ids ORDER BY c.id")
+    List<Card> findAllByIdInForUpdate(@Param("ids") Collection<UUID> ids);
 }
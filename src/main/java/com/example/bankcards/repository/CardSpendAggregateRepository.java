@@ -0,0 +1,112 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entities.CardSpendAggregate;
+import com.example.bankcards.entities.enums.SpendPeriod;
+import com.example.bankcards.entities.enums.TransactionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CardSpendAggregateRepository extends JpaRepository<CardSpendAggregate, UUID> {
+
+    @Query("""
+                SELECT a
+                FROM CardSpendAggregate a
+                WHERE a.cardId = :cardId
+                  AND a.transactionType = :type
+                  AND ((a.period = :dayPeriod AND a.periodStart = :day)
+                    OR (a.period = :monthPeriod AND a.periodStart = :month))
+            """)
+    List<CardSpendAggregate> findDayAndMonthBuckets(
+            @Param("cardId") UUID cardId,
+            @Param("type") TransactionType type,
+            @Param("dayPeriod") SpendPeriod dayPeriod,
+            @Param("day") LocalDate day,
+            @Param("monthPeriod") SpendPeriod monthPeriod,
+            @Param("month") LocalDate month);
+
+    @Query("""
+                SELECT a
+                FROM CardSpendAggregate a
+                WHERE a.cardId IN :cardIds
+                  AND ((a.period = :dayPeriod AND a.periodStart = :day)
+                    OR (a.period = :monthPeriod AND a.periodStart = :month))
+            """)
+    List<CardSpendAggregate> findDayAndMonthBucketsForCards(
+            @Param("cardIds") Collection<UUID> cardIds,
+            @Param("dayPeriod") SpendPeriod dayPeriod,
+            @Param("day") LocalDate day,
+            @Param("monthPeriod") SpendPeriod monthPeriod,
+            @Param("month") LocalDate month);
+
+    List<CardSpendAggregate> findAllByCardIdAndPeriodAndPeriodStartBetweenOrderByPeriodStartAscTransactionTypeAsc(
+            UUID cardId, SpendPeriod period, LocalDate from, LocalDate to);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "card_spend_aggregates"))
+    @Query(value = """
+                INSERT INTO card_spend_aggregates (id, card_id, transaction_type, period, period_start, amount,
+                                                   transaction_count, min_amount, max_amount)
+                VALUES (uuid_generate_v4(), :cardId, :type, 'DAY', :day, :amount, :count, :minAmount, :maxAmount),
+                       (uuid_generate_v4(), :cardId, :type, 'MONTH', :month, :amount, :count, :minAmount, :maxAmount)
+                ON CONFLICT (card_id, transaction_type, period, period_start)
+                DO UPDATE SET amount = card_spend_aggregates.amount + EXCLUDED.amount,
+                              transaction_count = card_spend_aggregates.transaction_count + EXCLUDED.transaction_count,
+                              min_amount = LEAST(card_spend_aggregates.min_amount, EXCLUDED.min_amount),
+                              max_amount = GREATEST(card_spend_aggregates.max_amount, EXCLUDED.max_amount)
+            """, nativeQuery = true)
+    void addToDayAndMonthBuckets(
+            @Param("cardId") UUID cardId,
+            @Param("type") String type,
+            @Param("day") LocalDate day,
+            @Param("month") LocalDate month,
+            @Param("amount") BigDecimal amount,
+            @Param("count") long count,
+            @Param("minAmount") BigDecimal minAmount,
+            @Param("maxAmount") BigDecimal maxAmount);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "card_spend_aggregates"))
+    @Query(value = "LOCK TABLE card_spend_aggregates IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    /**
+     * Removes the day and month buckets starting in {@code [from, to)}; both bounds must be
+     * the first day of a month.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "card_spend_aggregates"))
+    @Query(value = "DELETE FROM card_spend_aggregates WHERE period_start >= :from AND period_start < :to", nativeQuery = true)
+    int deleteBuckets(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "card_spend_aggregates"))
+    @Query(value = """
+                INSERT INTO card_spend_aggregates (id, card_id, transaction_type, period, period_start, amount,
+                                                   transaction_count, min_amount, max_amount)
+                SELECT uuid_generate_v4(), t.card_id, t.type, 'DAY', CAST(t.timestamp AS DATE), SUM(t.amount),
+                       COUNT(*), MIN(t.amount), MAX(t.amount)
+                FROM transactions t
+                WHERE t.timestamp >= :from AND t.timestamp < :to
+                GROUP BY t.card_id, t.type, CAST(t.timestamp AS DATE)
+                UNION ALL
+                SELECT uuid_generate_v4(), t.card_id, t.type, 'MONTH', CAST(date_trunc('month', t.timestamp) AS DATE), SUM(t.amount),
+                       COUNT(*), MIN(t.amount), MAX(t.amount)
+                FROM transactions t
+                WHERE t.timestamp >= :from AND t.timestamp < :to
+                GROUP BY t.card_id, t.type, CAST(date_trunc('month', t.timestamp) AS DATE)
+            """, nativeQuery = true)
+    int insertBucketsFromTransactions(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
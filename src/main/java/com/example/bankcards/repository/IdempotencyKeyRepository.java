@@ -0,0 +1,71 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entities.IdempotencyKey;
+import com.example.bankcards.entities.IdempotencyKeyId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, IdempotencyKeyId> {
+
+    /**
+     * Inserts the key, or takes over an uncompleted claim of the same request whose lease
+     * started before {@code expiredBefore}, and commits right away; returns 0 when another
+     * request holds the key or has completed it. {@code claimedAt} identifies the new claim.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = """
+                INSERT INTO idempotency_keys (user_id, idempotency_key, request_hash, claimed_at)
+                VALUES (:userId, :key, :requestHash, :claimedAt)
+                ON CONFLICT (user_id, idempotency_key) DO UPDATE SET claimed_at = EXCLUDED.claimed_at
+                WHERE idempotency_keys.completed_at IS NULL
+                  AND idempotency_keys.claimed_at < :expiredBefore
+                  AND idempotency_keys.request_hash = EXCLUDED.request_hash
+            """, nativeQuery = true)
+    int claim(@Param("userId") UUID userId, @Param("key") String key, @Param("requestHash") String requestHash,
+              @Param("claimedAt") LocalDateTime claimedAt, @Param("expiredBefore") LocalDateTime expiredBefore);
+
+    /**
+     * Must run in the transaction that applies the operation, so the key is completed
+     * exactly when the operation commits. Returns 0 when the claim was taken over.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = """
+                UPDATE idempotency_keys SET completed_at = now()
+                WHERE user_id = :userId AND idempotency_key = :key
+                  AND claimed_at = :claimedAt AND completed_at IS NULL
+            """, nativeQuery = true)
+    int complete(@Param("userId") UUID userId, @Param("key") String key, @Param("claimedAt") LocalDateTime claimedAt);
+
+    /**
+     * Frees a key whose operation failed, so the client may retry with it, unless the
+     * claim was taken over meanwhile.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = """
+                DELETE FROM idempotency_keys
+                WHERE user_id = :userId AND idempotency_key = :key
+                  AND claimed_at = :claimedAt AND completed_at IS NULL
+            """, nativeQuery = true)
+    int release(@Param("userId") UUID userId, @Param("key") String key, @Param("claimedAt") LocalDateTime claimedAt);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "DELETE FROM idempotency_keys WHERE created_at < :before", nativeQuery = true)
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,23 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entities.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, UUID> {
+
+    @Query(value = """
+            SELECT e.id
+            FROM ledger_entries e
+            LEFT JOIN ledger_postings p ON p.entry_id = e.id
+            GROUP BY e.id
+            HAVING COUNT(p.id) < 2
+                OR SUM(CASE WHEN p.direction = 'CREDIT' THEN p.amount ELSE -p.amount END) <> 0
+            """, nativeQuery = true)
+    List<UUID> findUnbalancedEntryIds();
+}
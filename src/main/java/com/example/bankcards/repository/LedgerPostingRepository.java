@@ -0,0 +1,71 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.ledger.LedgerPostingRow;
+import com.example.bankcards.entities.LedgerPosting;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface LedgerPostingRepository extends JpaRepository<LedgerPosting, UUID> {
+
+    /**
+     * Latest snapshot plus the postings recorded since it.
+     */
+    @Query(value = """
+            WITH latest AS (
+                SELECT balance, covered_until
+                FROM ledger_snapshots
+                WHERE account_id = :accountId
+                ORDER BY covered_until DESC
+                LIMIT 1
+            )
+            SELECT COALESCE((SELECT balance FROM latest), 0)
+                 + COALESCE((SELECT SUM(CASE WHEN p.direction = 'CREDIT' THEN p.amount ELSE -p.amount END)
+                             FROM ledger_postings p
+                             WHERE p.account_id = :accountId
+                               AND p.recorded_at >= COALESCE((SELECT covered_until FROM latest), '-infinity')), 0)
+            """, nativeQuery = true)
+    BigDecimal findBalance(@Param("accountId") UUID accountId);
+
+    /**
+     * Streams every posting ordered by account and time through a forward-only cursor.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            SELECT new com.example.bankcards.dto.ledger.LedgerPostingRow(p.accountId, p.direction, p.amount, p.recordedAt)
+            FROM LedgerPosting p
+            ORDER BY p.accountId, p.recordedAt
+            """)
+    Stream<LedgerPostingRow> streamAllForReplay();
+
+    @Query(value = """
+            SELECT c.id
+            FROM cards c
+            LEFT JOIN LATERAL (
+                SELECT s.balance, s.covered_until
+                FROM ledger_snapshots s
+                WHERE s.account_id = c.id
+                ORDER BY s.covered_until DESC
+                LIMIT 1
+            ) latest ON true
+            LEFT JOIN LATERAL (
+                SELECT SUM(CASE WHEN p.direction = 'CREDIT' THEN p.amount ELSE -p.amount END) AS amount
+                FROM ledger_postings p
+                WHERE p.account_id = c.id
+                  AND p.recorded_at >= COALESCE(latest.covered_until, '-infinity')
+            ) tail ON true
+            WHERE c.balance <> COALESCE(latest.balance, 0) + COALESCE(tail.amount, 0)
+            """, nativeQuery = true)
+    List<UUID> findCardsOutOfBalance();
+}
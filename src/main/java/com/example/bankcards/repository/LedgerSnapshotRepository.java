@@ -0,0 +1,64 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.ledger.LedgerSnapshotRow;
+import com.example.bankcards.entities.LedgerSnapshot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface LedgerSnapshotRepository extends JpaRepository<LedgerSnapshot, UUID> {
+
+    @Query(value = "SELECT CAST(clock_timestamp() AS TIMESTAMP)", nativeQuery = true)
+    LocalDateTime currentDatabaseTime();
+
+    /**
+     * Adds a snapshot at {@code coveredUntil} for every account with postings since the
+     * previous run. Accounts without new postings keep their latest snapshot, so only
+     * postings after the newest cutoff need to be read.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "ledger_snapshots"))
+    @Query(value = """
+            WITH previous AS (
+                SELECT COALESCE(MAX(covered_until), '-infinity') AS covered_until FROM ledger_snapshots
+            ), recent AS (
+                SELECT p.account_id, SUM(CASE WHEN p.direction = 'CREDIT' THEN p.amount ELSE -p.amount END) AS amount
+                FROM ledger_postings p, previous
+                WHERE p.recorded_at >= previous.covered_until AND p.recorded_at < :coveredUntil
+                GROUP BY p.account_id
+            )
+            INSERT INTO ledger_snapshots (id, account_id, balance, covered_until)
+            SELECT uuid_generate_v4(), r.account_id, COALESCE(latest.balance, 0) + r.amount, :coveredUntil
+            FROM recent r
+            LEFT JOIN LATERAL (
+                SELECT s.balance
+                FROM ledger_snapshots s
+                WHERE s.account_id = r.account_id
+                ORDER BY s.covered_until DESC
+                LIMIT 1
+            ) latest ON true
+            """, nativeQuery = true)
+    int insertSnapshots(@Param("coveredUntil") LocalDateTime coveredUntil);
+
+    /**
+     * Streams every snapshot ordered by account and cutoff, in the same account order as
+     * {@link LedgerPostingRepository#streamAllForReplay()}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            SELECT new com.example.bankcards.dto.ledger.LedgerSnapshotRow(s.id, s.accountId, s.balance, s.coveredUntil)
+            FROM LedgerSnapshot s
+            ORDER BY s.accountId, s.coveredUntil
+            """)
+    Stream<LedgerSnapshotRow> streamAllForReplay();
+}
@@ -0,0 +1,32 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entities.TransactionArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Repository
+public interface TransactionArchiveSegmentRepository extends JpaRepository<TransactionArchiveSegment, UUID> {
+
+    @Query("""
+                SELECT s
+                FROM TransactionArchiveSegment s
+                WHERE s.minTimestamp <= :to
+                  AND s.maxTimestamp >= :from
+                ORDER BY s.minTimestamp
+            """)
+    List<TransactionArchiveSegment> findOverlapping(@Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+
+    @Query("SELECT MAX(s.maxTimestamp) FROM TransactionArchiveSegment s")
+    LocalDateTime findLatestArchivedTimestamp();
+
+    @Query("SELECT s.fileName FROM TransactionArchiveSegment s")
+    Set<String> findAllFileNames();
+}
@@ -0,0 +1,24 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.transaction.ArchivedTransactionRow;
+import com.example.bankcards.dto.transaction.TransactionExportRow;
+import com.example.bankcards.entities.Transaction;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public interface TransactionExportRepository {
+
+    /**
+     * Streams matching rows newest first through a forward-only cursor. Must be
+     * consumed inside a transaction and closed afterwards.
+     */
+    Stream<TransactionExportRow> streamForExport(Specification<Transaction> specification);
+
+    /**
+     * Streams rows with {@code from <= timestamp < to} ordered by user, card and time, with the
+     * owning user resolved even for soft-deleted cards. Same cursor rules as above.
+     */
+    Stream<ArchivedTransactionRow> streamForArchive(LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,82 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.transaction.ArchivedTransactionRow;
+import com.example.bankcards.dto.transaction.TransactionExportRow;
+import com.example.bankcards.entities.Transaction;
+import com.example.bankcards.entities.enums.TransactionType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+class TransactionExportRepositoryImpl implements TransactionExportRepository {
+    private static final int FETCH_SIZE = 1000;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Stream<TransactionExportRow> streamForExport(Specification<Transaction> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionExportRow> query = criteriaBuilder.createQuery(TransactionExportRow.class);
+        Root<Transaction> root = query.from(Transaction.class);
+
+        query.select(criteriaBuilder.construct(TransactionExportRow.class,
+                        root.get("id"),
+                        root.get("card").get("id"),
+                        root.get("type"),
+                        root.get("amount"),
+                        root.get("description"),
+                        root.get("timestamp")))
+                .where(specification.toPredicate(root, query, criteriaBuilder))
+                .orderBy(criteriaBuilder.desc(root.get("timestamp")), criteriaBuilder.desc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<ArchivedTransactionRow> streamForArchive(LocalDateTime from, LocalDateTime to) {
+        // native so that the soft-delete restriction on Card does not drop rows of deleted cards
+        NativeQuery<Object[]> query = entityManager.createNativeQuery("""
+                        SELECT t.id, t.card_id, c.user_id, t.type, t.amount, t.description, t.timestamp
+                        FROM transactions t
+                        JOIN cards c ON c.id = t.card_id
+                        WHERE t.timestamp >= :from AND t.timestamp < :to
+                        ORDER BY c.user_id, t.card_id, t.timestamp, t.id
+                        """)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", UUID.class)
+                .addScalar("card_id", UUID.class)
+                .addScalar("user_id", UUID.class)
+                .addScalar("type", String.class)
+                .addScalar("amount", BigDecimal.class)
+                .addScalar("description", String.class)
+                .addScalar("timestamp", LocalDateTime.class);
+
+        return query.setParameter("from", from)
+                .setParameter("to", to)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream()
+                .map(row -> new ArchivedTransactionRow(
+                        (UUID) row[0],
+                        (UUID) row[1],
+                        (UUID) row[2],
+                        row[3] == null ? null : TransactionType.valueOf((String) row[3]),
+                        (BigDecimal) row[4],
+                        (String) row[5],
+                        (LocalDateTime) row[6]));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.bankcards.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Partition DDL for the monthly range-partitioned transactions table. Spring Data has
+ * no notion of partitions, so this talks to the PostgreSQL catalog directly.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionPartitionRepository {
+    public static final String ARCHIVE_SCHEMA = "archive";
+
+    private static final Pattern RANGE_BOUND = Pattern.compile("FOR VALUES FROM \\((.+)\\) TO \\((.+)\\)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A partition and its [from, to) range; {@code null} bounds stand for MINVALUE / MAXVALUE.
+     */
+    public record Partition(String name, LocalDateTime from, LocalDateTime to) {
+
+        public boolean overlaps(LocalDateTime rangeFrom, LocalDateTime rangeTo) {
+            return (from == null || from.isBefore(rangeTo)) && (to == null || to.isAfter(rangeFrom));
+        }
+    }
+
+    public List<Partition> findAll() {
+        return jdbcTemplate.query("""
+                        SELECT c.relname, pg_get_expr(c.relpartbound, c.oid)
+                        FROM pg_inherits i
+                        JOIN pg_class c ON c.oid = i.inhrelid
+                        WHERE i.inhparent = 'transactions'::regclass
+                        ORDER BY c.relname
+                        """,
+                (rs, rowNum) -> toPartition(rs.getString(1), rs.getString(2)));
+    }
+
+    /**
+     * Creates the partition as a plain table and attaches it afterwards: ATTACH only needs
+     * SHARE UPDATE EXCLUSIVE on the parent, while CREATE TABLE ... PARTITION OF would block
+     * every reader and writer of transactions for the duration.
+     */
+    @Transactional
+    public void createPartition(String name, LocalDateTime from, LocalDateTime to) {
+        jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', '10s', true)", String.class);
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE transactions INCLUDING DEFAULTS)");
+        jdbcTemplate.execute("ALTER TABLE transactions ATTACH PARTITION " + name
+                + " FOR VALUES FROM ('" + Timestamp.valueOf(from) + "') TO ('" + Timestamp.valueOf(to) + "')");
+    }
+
+    /**
+     * DETACH ... CONCURRENTLY cannot run inside a transaction block, so this must be
+     * called without a surrounding transaction.
+     */
+    public void detachAndArchive(String name) {
+        jdbcTemplate.execute("ALTER TABLE transactions DETACH PARTITION " + name + " CONCURRENTLY");
+        jdbcTemplate.execute("ALTER TABLE " + name + " SET SCHEMA " + ARCHIVE_SCHEMA);
+    }
+
+    private static Partition toPartition(String name, String bound) {
+        Matcher matcher = RANGE_BOUND.matcher(bound);
+        if (!matcher.matches()) {
+            throw new IllegalStateException("Unexpected partition bound for " + name + ": " + bound);
+        }
+        return new Partition(name, toBoundValue(matcher.group(1)), toBoundValue(matcher.group(2)));
+    }
+
+    private static LocalDateTime toBoundValue(String value) {
+        if ("MINVALUE".equals(value) || "MAXVALUE".equals(value)) {
+            return null;
+        }
+        return Timestamp.valueOf(value.substring(1, value.length() - 1)).toLocalDateTime();
+    }
+}
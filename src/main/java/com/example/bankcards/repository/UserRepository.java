@@ -1,14 +1,88 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.dto.user.UserFilterDto;
+import com.example.bankcards.dto.user.UserSummary;
 import com.example.bankcards.entities.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+/**
+ * Users are loaded together with their roles: every caller builds a principal or a
+ * response that needs them, and the authentication paths run outside a transaction.
+ * Listings go through {@link UserSummary} projections instead.
+ */
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User> {
+    String SUMMARY_FILTER = """
+            WHERE (:emailPattern IS NULL OR u.email LIKE :emailPattern ESCAPE '!')
+              AND (:deleted IS NULL OR u.deleted = :deleted)
+              AND (:role IS NULL OR EXISTS (
+                    SELECT 1 FROM User fu JOIN fu.roles fr WHERE fu.id = u.id AND fr.name = :role))
+            """;
+
+    String SUMMARY_QUERY = """
+            SELECT u.id AS id, u.email AS email, u.fullName AS fullName, u.deleted AS deleted,
+                   listagg(r.name, ',') WITHIN GROUP (ORDER BY r.name) AS roles
+            FROM User u LEFT JOIN u.roles r
+            """ + SUMMARY_FILTER + " GROUP BY u.id";
+
+    @EntityGraph(attributePaths = "roles")
     Optional<User> findByEmail(String username);
+
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findById(UUID id);
+
+    /**
+     * Primary-key lookup without the roles join, for principals built from token claims.
+     */
+    boolean existsByIdAndDeletedFalse(UUID id);
+
+    @Query(value = SUMMARY_QUERY, countQuery = "SELECT COUNT(u) FROM User u " + SUMMARY_FILTER)
+    Page<UserSummary> findSummaries(@Param("emailPattern") String emailPattern,
+                                    @Param("deleted") Boolean deleted,
+                                    @Param("role") String role,
+                                    Pageable pageable);
+
+    /**
+     * Streams matching users ordered by email through a forward-only cursor. Must be
+     * consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SUMMARY_QUERY + " ORDER BY u.email")
+    Stream<UserSummary> streamSummaries(@Param("emailPattern") String emailPattern,
+                                        @Param("deleted") Boolean deleted,
+                                        @Param("role") String role);
+
+    default Page<UserSummary> findSummaries(UserFilterDto filter, Pageable pageable) {
+        return findSummaries(emailPattern(filter.getEmailPrefix()), filter.getDeleted(), filter.getRole(), pageable);
+    }
+
+    default Stream<UserSummary> streamSummaries(UserFilterDto filter) {
+        return streamSummaries(emailPattern(filter.getEmailPrefix()), filter.getDeleted(), filter.getRole());
+    }
+
+    /**
+     * A prefix LIKE pattern with wildcards in the prefix escaped, so the
+     * {@code varchar_pattern_ops} index on email can serve it.
+     */
+    private static String emailPattern(String emailPrefix) {
+        if (emailPrefix == null || emailPrefix.isBlank()) {
+            return null;
+        }
+        return emailPrefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
 }
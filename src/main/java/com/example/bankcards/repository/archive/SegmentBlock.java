@@ -0,0 +1,38 @@
+package com.example.bankcards.repository.archive;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Footer entry of a segment file: where a compressed block lives and the user id, card id
+ * and timestamp ranges of its rows, so readers can skip blocks without inflating them.
+ * Segments written before the user range existed leave it {@code null}.
+ */
+public record SegmentBlock(
+        long offset,
+        int length,
+        int rowCount,
+        UUID minUserId,
+        UUID maxUserId,
+        UUID minCardId,
+        UUID maxCardId,
+        LocalDateTime minTimestamp,
+        LocalDateTime maxTimestamp) {
+
+    /**
+     * {@code null} arguments do not restrict the match; the timestamp range is inclusive.
+     */
+    public boolean mayContain(UUID userId, UUID cardId, LocalDateTime from, LocalDateTime to) {
+        if (userId != null && minUserId != null
+                && (userId.compareTo(minUserId) < 0 || userId.compareTo(maxUserId) > 0)) {
+            return false;
+        }
+        if (cardId != null && (cardId.compareTo(minCardId) < 0 || cardId.compareTo(maxCardId) > 0)) {
+            return false;
+        }
+        if (from != null && maxTimestamp.isBefore(from)) {
+            return false;
+        }
+        return to == null || !minTimestamp.isAfter(to);
+    }
+}
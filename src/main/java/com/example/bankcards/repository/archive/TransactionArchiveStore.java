@@ -0,0 +1,124 @@
+package com.example.bankcards.repository.archive;
+
+import com.example.bankcards.dto.transaction.ArchivedTransactionRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Segment files on local disk. Files are written under a temporary name and renamed
+ * once complete; segments are immutable afterwards, so their block index is cached.
+ */
+@Repository
+@Slf4j
+public class TransactionArchiveStore {
+    public static final String SEGMENT_SUFFIX = ".seg";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final Map<String, List<SegmentBlock>> blockIndex = new ConcurrentHashMap<>();
+
+    public TransactionArchiveStore(
+            @Value("${spring.application.transaction.archive.directory:./data/transaction-archive}") String directory) {
+        this.directory = Path.of(directory);
+    }
+
+    public TransactionSegmentWriter create(String fileName) throws IOException {
+        Files.createDirectories(directory);
+        return new TransactionSegmentWriter(directory.resolve(fileName + TEMP_SUFFIX));
+    }
+
+    /**
+     * Atomically renames a completed segment into place and syncs the directory entry.
+     */
+    public void publish(String fileName) throws IOException {
+        Files.move(directory.resolve(fileName + TEMP_SUFFIX), directory.resolve(fileName), StandardCopyOption.ATOMIC_MOVE);
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            log.debug("Directory sync is not supported for {}", directory, e);
+        }
+    }
+
+    public void delete(String fileName) {
+        try {
+            Files.deleteIfExists(directory.resolve(fileName));
+            Files.deleteIfExists(directory.resolve(fileName + TEMP_SUFFIX));
+        } catch (IOException e) {
+            log.warn("Failed to delete archive segment {}", fileName, e);
+        }
+        blockIndex.remove(fileName);
+    }
+
+    /**
+     * Passes every row of the segment that may match to {@code consumer}; blocks whose user
+     * id, card id or timestamp range cannot match are skipped. Rows still need to be filtered.
+     */
+    public void scan(String fileName, UUID userId, UUID cardId, LocalDateTime from, LocalDateTime to,
+                     Consumer<ArchivedTransactionRow> consumer) {
+        Path path = directory.resolve(fileName);
+        try {
+            for (SegmentBlock block : blocks(fileName, path)) {
+                if (block.mayContain(userId, cardId, from, to)) {
+                    TransactionSegmentReader.readBlock(path, block).forEach(consumer);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive segment " + fileName, e);
+        }
+    }
+
+    /**
+     * Removes segment and temporary files not referenced by any published segment, left
+     * behind by runs that failed before their database transaction committed.
+     */
+    public int deleteUnreferenced(Set<String> referenced, Duration minAge) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        Instant cutoff = Instant.now().minus(minAge);
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                boolean archiveFile = name.endsWith(SEGMENT_SUFFIX) || name.endsWith(TEMP_SUFFIX);
+                if (!archiveFile || referenced.contains(name)
+                        || Files.getLastModifiedTime(file).toInstant().isAfter(cutoff)) {
+                    continue;
+                }
+                Files.deleteIfExists(file);
+                deleted++;
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clean up archive directory {}", directory, e);
+        }
+        return deleted;
+    }
+
+    private List<SegmentBlock> blocks(String fileName, Path path) throws IOException {
+        List<SegmentBlock> blocks = blockIndex.get(fileName);
+        if (blocks == null) {
+            blocks = TransactionSegmentReader.readBlocks(path);
+            blockIndex.putIfAbsent(fileName, blocks);
+        }
+        return blocks;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.bankcards.repository.archive;
+
+import com.example.bankcards.dto.transaction.ArchivedTransactionRow;
+import com.example.bankcards.entities.enums.TransactionType;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads segment files produced by {@link TransactionSegmentWriter}.
+ */
+public final class TransactionSegmentReader {
+    private static final int TRAILER_BYTES = Long.BYTES + Integer.BYTES;
+
+    private TransactionSegmentReader() {
+    }
+
+    public static List<SegmentBlock> readBlocks(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer trailer = read(channel, size - TRAILER_BYTES, TRAILER_BYTES);
+            long footerOffset = trailer.getLong();
+            if (trailer.getInt() != TransactionSegmentWriter.MAGIC) {
+                throw new IOException("Not a transaction segment: " + path);
+            }
+
+            ByteBuffer header = read(channel, 0, Integer.BYTES * 2);
+            header.getInt();
+            int version = header.getInt();
+            if (version < 1 || version > TransactionSegmentWriter.VERSION) {
+                throw new IOException("Unsupported segment version " + version + ": " + path);
+            }
+
+            DataInputStream footer = new DataInputStream(new ByteArrayInputStream(
+                    read(channel, footerOffset, (int) (size - TRAILER_BYTES - footerOffset)).array()));
+            int blockCount = footer.readInt();
+            List<SegmentBlock> blocks = new ArrayList<>(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                long offset = footer.readLong();
+                int length = footer.readInt();
+                int rows = footer.readInt();
+                UUID minUserId = version == 1 ? null : readUuid(footer);
+                UUID maxUserId = version == 1 ? null : readUuid(footer);
+                blocks.add(new SegmentBlock(offset, length, rows, minUserId, maxUserId,
+                        readUuid(footer), readUuid(footer), readTimestamp(footer), readTimestamp(footer)));
+            }
+            return blocks;
+        }
+    }
+
+    public static List<ArchivedTransactionRow> readBlock(Path path, SegmentBlock block) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             DataInputStream in = new DataInputStream(new InflaterInputStream(
+                     new ByteArrayInputStream(read(channel, block.offset(), block.length()).array())))) {
+            int n = in.readInt();
+            UUID[] ids = new UUID[n];
+            UUID[] cardIds = new UUID[n];
+            UUID[] userIds = new UUID[n];
+            TransactionType[] types = new TransactionType[n];
+            BigDecimal[] amounts = new BigDecimal[n];
+            String[] descriptions = new String[n];
+            for (int i = 0; i < n; i++) {
+                ids[i] = readUuid(in);
+            }
+            for (int i = 0; i < n; i++) {
+                cardIds[i] = readUuid(in);
+            }
+            for (int i = 0; i < n; i++) {
+                userIds[i] = readUuid(in);
+            }
+            for (int i = 0; i < n; i++) {
+                String type = readNullableString(in);
+                types[i] = type == null ? null : TransactionType.valueOf(type);
+            }
+            for (int i = 0; i < n; i++) {
+                amounts[i] = readAmount(in);
+            }
+            for (int i = 0; i < n; i++) {
+                descriptions[i] = readNullableString(in);
+            }
+
+            List<ArchivedTransactionRow> rows = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                rows.add(new ArchivedTransactionRow(ids[i], cardIds[i], userIds[i], types[i], amounts[i],
+                        descriptions[i], readTimestamp(in)));
+            }
+            return rows;
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of segment file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static LocalDateTime readTimestamp(DataInputStream in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static BigDecimal readAmount(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        int scale = in.readInt();
+        byte[] unscaled = new byte[in.readUnsignedByte()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.bankcards.repository.archive;
+
+import com.example.bankcards.dto.transaction.ArchivedTransactionRow;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes a segment file: a header, deflate-compressed blocks of up to {@link #BLOCK_ROWS}
+ * rows laid out column by column, and a footer with the per-block user id, card id and
+ * timestamp ranges followed by the footer offset. Rows are expected grouped by user, so a
+ * user's transactions fill few blocks and a user-scoped read skips the rest.
+ *
+ * <pre>
+ * header : int MAGIC, int VERSION
+ * block* : deflate(int n, ids, card ids, user ids, types, amounts, descriptions, timestamps)
+ * footer : int blockCount, blockCount x (long offset, int length, int rows,
+ *          uuid minUser, uuid maxUser, uuid minCard, uuid maxCard, timestamp min, timestamp max)
+ *          version 1 footers have no user range
+ * trailer: long footerOffset, int MAGIC
+ * </pre>
+ */
+public final class TransactionSegmentWriter implements Closeable {
+    static final int MAGIC = 0x54585347;
+    static final int VERSION = 2;
+    static final int BLOCK_ROWS = 4096;
+
+    private final FileChannel channel;
+    private final DataOutputStream out;
+    private final List<ArchivedTransactionRow> buffer = new ArrayList<>(BLOCK_ROWS);
+    private final List<SegmentBlock> blocks = new ArrayList<>();
+    private long position;
+    private long rowCount;
+    private LocalDateTime minTimestamp;
+    private LocalDateTime maxTimestamp;
+
+    public TransactionSegmentWriter(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        position = Integer.BYTES * 2;
+    }
+
+    public void append(ArchivedTransactionRow row) throws IOException {
+        buffer.add(row);
+        rowCount++;
+        if (minTimestamp == null || row.timestamp().isBefore(minTimestamp)) {
+            minTimestamp = row.timestamp();
+        }
+        if (maxTimestamp == null || row.timestamp().isAfter(maxTimestamp)) {
+            maxTimestamp = row.timestamp();
+        }
+        if (buffer.size() == BLOCK_ROWS) {
+            flushBlock();
+        }
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public LocalDateTime getMinTimestamp() {
+        return minTimestamp;
+    }
+
+    public LocalDateTime getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    /**
+     * Writes the footer and forces the file to disk.
+     */
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            flushBlock();
+            long footerOffset = position;
+            out.writeInt(blocks.size());
+            for (SegmentBlock block : blocks) {
+                out.writeLong(block.offset());
+                out.writeInt(block.length());
+                out.writeInt(block.rowCount());
+                writeUuid(out, block.minUserId());
+                writeUuid(out, block.maxUserId());
+                writeUuid(out, block.minCardId());
+                writeUuid(out, block.maxCardId());
+                writeTimestamp(out, block.minTimestamp());
+                writeTimestamp(out, block.maxTimestamp());
+            }
+            out.writeLong(footerOffset);
+            out.writeInt(MAGIC);
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DataOutputStream block = new DataOutputStream(new DeflaterOutputStream(compressed, deflater))) {
+            writeColumns(block, buffer);
+        } finally {
+            deflater.end();
+        }
+
+        UUID minUserId = buffer.get(0).userId();
+        UUID maxUserId = minUserId;
+        UUID minCardId = buffer.get(0).cardId();
+        UUID maxCardId = minCardId;
+        LocalDateTime blockMin = buffer.get(0).timestamp();
+        LocalDateTime blockMax = blockMin;
+        for (ArchivedTransactionRow row : buffer) {
+            minUserId = row.userId().compareTo(minUserId) < 0 ? row.userId() : minUserId;
+            maxUserId = row.userId().compareTo(maxUserId) > 0 ? row.userId() : maxUserId;
+            minCardId = row.cardId().compareTo(minCardId) < 0 ? row.cardId() : minCardId;
+            maxCardId = row.cardId().compareTo(maxCardId) > 0 ? row.cardId() : maxCardId;
+            blockMin = row.timestamp().isBefore(blockMin) ? row.timestamp() : blockMin;
+            blockMax = row.timestamp().isAfter(blockMax) ? row.timestamp() : blockMax;
+        }
+
+        compressed.writeTo(out);
+        blocks.add(new SegmentBlock(position, compressed.size(), buffer.size(),
+                minUserId, maxUserId, minCardId, maxCardId, blockMin, blockMax));
+        position += compressed.size();
+        buffer.clear();
+    }
+
+    // Column-wise so that repeated card/user ids, types and close timestamps compress well.
+    private static void writeColumns(DataOutputStream out, List<ArchivedTransactionRow> rows) throws IOException {
+        out.writeInt(rows.size());
+        for (ArchivedTransactionRow row : rows) {
+            writeUuid(out, row.id());
+        }
+        for (ArchivedTransactionRow row : rows) {
+            writeUuid(out, row.cardId());
+        }
+        for (ArchivedTransactionRow row : rows) {
+            writeUuid(out, row.userId());
+        }
+        for (ArchivedTransactionRow row : rows) {
+            writeNullableString(out, row.type() == null ? null : row.type().name());
+        }
+        for (ArchivedTransactionRow row : rows) {
+            writeAmount(out, row.amount());
+        }
+        for (ArchivedTransactionRow row : rows) {
+            writeNullableString(out, row.description());
+        }
+        for (ArchivedTransactionRow row : rows) {
+            writeTimestamp(out, row.timestamp());
+        }
+    }
+
+    static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    static void writeTimestamp(DataOutputStream out, LocalDateTime timestamp) throws IOException {
+        out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(timestamp.getNano());
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static void writeAmount(DataOutputStream out, BigDecimal amount) throws IOException {
+        out.writeBoolean(amount != null);
+        if (amount != null) {
+            byte[] unscaled = amount.unscaledValue().toByteArray();
+            out.writeInt(amount.scale());
+            out.writeByte(unscaled.length);
+            out.write(unscaled);
+        }
+    }
+}
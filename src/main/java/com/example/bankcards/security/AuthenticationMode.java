@@ -0,0 +1,6 @@
+package com.example.bankcards.security;
+
+public enum AuthenticationMode {
+    CLAIMS,
+    DATABASE
+}
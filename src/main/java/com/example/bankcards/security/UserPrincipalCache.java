@@ -0,0 +1,83 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entities.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Principals of recently authenticated users, keyed by user id. Deleted users
+ * are kept as revoked entries, so their still-valid access tokens are rejected
+ * without a database lookup. Entries live at least as long as an access token.
+ * A revoked entry is only a shortcut: loaders must check the database on a miss,
+ * since the entry is lost on eviction or restart and other instances never see it.
+ */
+@Component
+@Slf4j
+public class UserPrincipalCache {
+    private static final CachedPrincipal REVOKED = new CachedPrincipal(null);
+
+    private final Cache<UUID, CachedPrincipal> cache;
+
+    public UserPrincipalCache(@Value("${spring.application.security.authentication.cache.ttl:PT15M}") Duration ttl,
+                              @Value("${spring.application.security.authentication.cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Returns the cached principal or loads it; a loader returning {@code null}
+     * marks the user as revoked. Empty result means the user must not be
+     * authenticated. The loader runs outside the cache's map lock, so a database
+     * lookup never pins a virtual thread's carrier.
+     */
+    public Optional<UserPrincipal> get(UUID userId, Function<UUID, UserPrincipal> loader) {
+        CachedPrincipal cached = cache.getIfPresent(userId);
+        if (cached == null) {
+            UserPrincipal principal = loader.apply(userId);
+            CachedPrincipal loaded = principal == null ? REVOKED : new CachedPrincipal(principal);
+            CachedPrincipal existing = cache.asMap().putIfAbsent(userId, loaded);
+            cached = existing == null ? loaded : existing;
+        }
+        return Optional.ofNullable(cached.principal());
+    }
+
+    public void refresh(User user) {
+        afterCommit(() -> {
+            if (user.isDeleted()) {
+                cache.put(user.getId(), REVOKED);
+                log.info("Principal of user {} revoked", user.getId());
+            } else {
+                cache.put(user.getId(), new CachedPrincipal(UserPrincipal.of(user)));
+                log.info("Principal of user {} refreshed", user.getId());
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record CachedPrincipal(UserPrincipal principal) {
+    }
+}
@@ -5,25 +5,22 @@ import io.jsonwebtoken.Claims;
 import org.springframework.security.core.Authentication;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 public interface JwtTokenProvider {
     String generateAccessToken(User user);
 
     String generateRefreshToken(User user);
 
-    boolean validateAccessToken(String token);
+    Optional<Claims> parseAccessToken(String token);
 
-    boolean validateRefreshToken(String token);
+    Optional<Claims> parseRefreshToken(String token);
 
     Claims getAccessClaims(String token);
 
     Claims getRefreshClaims(String token);
 
-    Authentication getAuthentication(String token);
-
-    String getLoginFromAccessToken(String token);
-
-    String getLoginFromRefreshToken(String token);
+    Optional<Authentication> getAuthentication(Claims accessClaims);
 
     LocalDateTime getExpirationDate(String token);
 }
@@ -8,7 +8,6 @@ import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -31,10 +30,9 @@ public class JwtFilter extends GenericFilterBean {
             throws IOException, ServletException {
         try {
             Optional<String> token = getTokenFromRequest((HttpServletRequest) servletRequest);
-            if (token.isPresent() && jwtTokenProvider.validateAccessToken(token.get())) {
-                Authentication authentication = jwtTokenProvider.getAuthentication(token.get());
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-            }
+            token.flatMap(jwtTokenProvider::parseAccessToken)
+                    .flatMap(jwtTokenProvider::getAuthentication)
+                    .ifPresent(authentication -> SecurityContextHolder.getContext().setAuthentication(authentication));
         } catch (Exception e) {
             SecurityContextHolder.clearContext();
             throw new EOFException("JWT token is expired or invalid");
@@ -1,28 +1,37 @@
 package com.example.bankcards.security.jwt.impl;
 
 import com.example.bankcards.entities.User;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.AuthenticationMode;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.security.UserPrincipalCache;
 import com.example.bankcards.security.jwt.JwtTokenProvider;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 @Slf4j
@@ -30,14 +39,25 @@ public class JwtTokenProviderService implements JwtTokenProvider {
 
     private final SecretKey jwtAccessSecret;
     private final SecretKey jwtRefreshSecret;
-    private final UserDetailsService userDetailsService;
+    private final JwtParser accessParser;
+    private final JwtParser refreshParser;
+    private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
+    private final AuthenticationMode authenticationMode;
 
     public JwtTokenProviderService(@Value("${spring.application.security.jwt.secret.access}") String jwtAccessSecret,
                                    @Value("${spring.application.security.jwt.secret.refresh}") String jwtRefreshSecret,
-                                   @Qualifier("userDetailsServiceImpl") UserDetailsService userDetailsService) {
+                                   UserRepository userRepository,
+                                   UserPrincipalCache userPrincipalCache,
+                                   @Value("${spring.application.security.authentication.mode:DATABASE}") AuthenticationMode authenticationMode) {
         this.jwtAccessSecret = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtAccessSecret));
         this.jwtRefreshSecret = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtRefreshSecret));
-        this.userDetailsService = userDetailsService;
+        this.accessParser = Jwts.parserBuilder().setSigningKey(this.jwtAccessSecret).build();
+        this.refreshParser = Jwts.parserBuilder().setSigningKey(this.jwtRefreshSecret).build();
+        this.userRepository = userRepository;
+        this.userPrincipalCache = userPrincipalCache;
+        this.authenticationMode = authenticationMode;
+        log.info("JWT authentication resolves principals from {}", authenticationMode);
     }
 
     @Override
@@ -79,39 +99,36 @@ public class JwtTokenProviderService implements JwtTokenProvider {
     }
 
     @Override
-    public boolean validateAccessToken(String token) {
-        return validateToken(token, jwtAccessSecret);
+    public Optional<Claims> parseAccessToken(String token) {
+        return parseToken(token, accessParser);
     }
 
     @Override
-    public boolean validateRefreshToken(String token) {
-        return validateToken(token, jwtRefreshSecret);
+    public Optional<Claims> parseRefreshToken(String token) {
+        return parseToken(token, refreshParser);
     }
 
     @Override
     public Claims getAccessClaims(String token) {
-        return getClaimsFromToken(token, jwtAccessSecret);
+        return accessParser.parseClaimsJws(token).getBody();
     }
 
     @Override
     public Claims getRefreshClaims(String token) {
-        return getClaimsFromToken(token, jwtRefreshSecret);
+        return refreshParser.parseClaimsJws(token).getBody();
     }
 
     @Override
-    public Authentication getAuthentication(String token) {
-        UserDetails userDetails = userDetailsService.loadUserByUsername(getLoginFromAccessToken(token));
-        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-    }
-
-    @Override
-    public String getLoginFromAccessToken(String token) {
-        return getAccessClaims(token).getSubject();
-    }
-
-    @Override
-    public String getLoginFromRefreshToken(String token) {
-        return getRefreshClaims(token).getSubject();
+    public Optional<Authentication> getAuthentication(Claims claims) {
+        UUID userId = UUID.fromString(claims.get("id", String.class));
+
+        Optional<UserPrincipal> principal = userPrincipalCache.get(userId, id -> authenticationMode == AuthenticationMode.CLAIMS
+                ? principalFromClaims(id, claims)
+                : loadPrincipal(id));
+        if (principal.isEmpty()) {
+            log.warn("Rejected access token of revoked user {}", userId);
+        }
+        return principal.map(p -> new UsernamePasswordAuthenticationToken(p, null, p.getAuthorities()));
     }
 
     @Override
@@ -119,17 +136,48 @@ public class JwtTokenProviderService implements JwtTokenProvider {
         return toLocalDateTime(getRefreshClaims(token).getExpiration());
     }
 
-    private boolean validateToken(@NonNull String token, @NonNull Key secret) {
+    private Optional<Claims> parseToken(@NonNull String token, @NonNull JwtParser parser) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(secret)
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (JwtException e) {
+            return Optional.of(parser.parseClaimsJws(token).getBody());
+        } catch (JwtException | IllegalArgumentException e) {
             log.warn("JWT validation failed: {}", e.getMessage());
+            return Optional.empty();
         }
-        return false;
+    }
+
+    private UserPrincipal loadPrincipal(UUID userId) {
+        return userRepository.findById(userId)
+                .filter(user -> !user.isDeleted())
+                .map(UserPrincipal::of)
+                .orElse(null);
+    }
+
+    /**
+     * Roles and email come from the claims, but whether the user was deleted is still
+     * read from the database: a revoked entry in the cache does not survive eviction,
+     * a restart or a request served by another instance.
+     */
+    private UserPrincipal principalFromClaims(UUID userId, Claims claims) {
+        if (!userRepository.existsByIdAndDeletedFalse(userId)) {
+            return null;
+        }
+        return new UserPrincipal(userId, claims.get("email", String.class), null, rolesFromClaims(claims));
+    }
+
+    /**
+     * The role claim holds the serialized {@code Role} entities, i.e. a list of
+     * objects with a {@code name} field.
+     */
+    private Collection<? extends GrantedAuthority> rolesFromClaims(Claims claims) {
+        Object roles = claims.get("role");
+        if (!(roles instanceof Collection<?> values)) {
+            return List.of();
+        }
+        return values.stream()
+                .map(value -> value instanceof Map<?, ?> role ? role.get("name") : value)
+                .filter(Objects::nonNull)
+                .map(name -> new SimpleGrantedAuthority("ROLE_" + name))
+                .toList();
     }
 
     private LocalDateTime toLocalDateTime(Date date) {
@@ -137,12 +185,4 @@ public class JwtTokenProviderService implements JwtTokenProvider {
                 .atZone(ZoneId.systemDefault())
                 .toLocalDateTime();
     }
-
-    private Claims getClaimsFromToken(@NonNull String token, @NonNull Key secret) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secret)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
 }
@@ -1,9 +1,17 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.entities.Card;
+
 public interface CardCryptoService {
     String encryptCardNumber(String cardNumber);
 
     String decryptCardNumber(String encryptedCardNumber);
 
     String maskCardNumberDecrypted(String fullCardNumber);
+
+    String maskCard(Card card);
+
+    String fingerprintCardNumber(String cardNumber);
+
+    String lastFourDigits(String cardNumber);
 }
@@ -0,0 +1,12 @@
+package com.example.bankcards.service;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface CardLockingService {
+    void execute(Collection<UUID> cardIds, Runnable work);
+
+    void lockInOrder(UUID... cardIds);
+
+    ConcurrencyMode getMode();
+}
@@ -0,0 +1,21 @@
+package com.example.bankcards.service;
+
+import java.util.UUID;
+
+public interface CardShardExecutor {
+
+    /**
+     * Runs {@code work} on the single thread that owns {@code cardId} and waits for it, so
+     * operations on one card never race each other inside this instance. Runs it on the
+     * calling thread when sharding is disabled.
+     */
+    void execute(UUID cardId, Runnable work);
+
+    /**
+     * Reserves the shards of both cards, lower shard first, then runs {@code work} while
+     * neither shard processes anything else.
+     */
+    void execute(UUID firstCardId, UUID secondCardId, Runnable work);
+
+    boolean isEnabled();
+}
@@ -0,0 +1,30 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.transaction.CardSpendKey;
+import com.example.bankcards.dto.transaction.SpendTotalsDto;
+import com.example.bankcards.entities.Transaction;
+import com.example.bankcards.entities.enums.TransactionType;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface CardSpendService {
+    SpendTotalsDto getSpent(UUID cardId, TransactionType type, LocalDate date);
+
+    Map<CardSpendKey, SpendTotalsDto> getSpent(Collection<UUID> cardIds, LocalDate date);
+
+    void recordSpend(Transaction transaction);
+
+    void recordSpend(List<Transaction> transactions);
+
+    int rebuildFrom(LocalDate from);
+
+    /**
+     * Rebuilds the buckets of one month that no longer receives transactions, without
+     * blocking writers; rebuilds of different months may run in parallel.
+     */
+    int rebuildClosedMonth(LocalDate month);
+}
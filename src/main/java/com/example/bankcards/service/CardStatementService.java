@@ -0,0 +1,23 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.transaction.CardStatementDto;
+import com.example.bankcards.entities.enums.SpendPeriod;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface CardStatementService {
+    /**
+     * Per-day or per-month totals of a card between {@code from} and {@code to} inclusive,
+     * read from the spend buckets instead of the transactions.
+     */
+    CardStatementDto getStatement(UUID cardId, SpendPeriod period, LocalDate from, LocalDate to,
+                                  UUID userId, List<String> roles);
+
+    /**
+     * Recomputes the buckets of every month from {@code from} on out of the transactions
+     * table and returns the number of buckets written.
+     */
+    int rebuildFrom(LocalDate from);
+}
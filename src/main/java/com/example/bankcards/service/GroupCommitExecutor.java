@@ -0,0 +1,17 @@
+package com.example.bankcards.service;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface GroupCommitExecutor {
+
+    /**
+     * Runs {@code work} in a database transaction shared with other operations submitted
+     * at about the same time and returns once that transaction has committed. Exceptions
+     * thrown by {@code work} are rethrown to the caller and do not affect the others.
+     * {@code cardIds} are the cards {@code work} updates.
+     */
+    void execute(Collection<UUID> cardIds, Runnable work);
+
+    boolean isEnabled();
+}
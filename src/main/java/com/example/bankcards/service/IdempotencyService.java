@@ -0,0 +1,20 @@
+package com.example.bankcards.service;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface IdempotencyService {
+
+    /**
+     * Runs {@code operation} at most once per user and key. {@code operation} receives a
+     * callback it must run inside the transaction that applies it. A repeated key with the
+     * same {@code request} returns without running anything; a request with the same key
+     * still running in this instance is waited for. Without a key the operation just runs.
+     */
+    void execute(UUID userId, String key, String request, Consumer<Runnable> operation);
+
+    /**
+     * Deletes keys older than the configured retention and returns how many were removed.
+     */
+    int purgeExpiredKeys();
+}
@@ -0,0 +1,13 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entities.LedgerEntry;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public interface LedgerService {
+    void append(List<LedgerEntry> entries);
+
+    BigDecimal getBalance(UUID accountId);
+}
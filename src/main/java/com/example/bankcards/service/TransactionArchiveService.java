@@ -0,0 +1,37 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.transaction.ArchivedTransactionRow;
+import com.example.bankcards.dto.transaction.ArchivedTransactionSlice;
+import com.example.bankcards.dto.transaction.TransactionCursor;
+import com.example.bankcards.dto.transaction.TransactionFilterDto;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface TransactionArchiveService {
+
+    /**
+     * Moves transactions older than the configured horizon from the database into
+     * segment files and returns the number of rows moved.
+     */
+    long archiveExpiredTransactions();
+
+    /**
+     * The first {@code limit} archived rows matching {@code filter} in {@code order}, plus
+     * the total number of archived matches. The filter must already be scoped to the caller.
+     */
+    ArchivedTransactionSlice findTop(TransactionFilterDto filter, Comparator<ArchivedTransactionRow> order, int limit);
+
+    /**
+     * Up to {@code limit} archived rows matching {@code filter} that follow {@code cursor}
+     * (from the newest when it is {@code null}) in (timestamp, id) descending order.
+     */
+    List<ArchivedTransactionRow> findAfter(TransactionFilterDto filter, TransactionCursor cursor, int limit);
+
+    /**
+     * Passes every archived row matching {@code filter} to {@code consumer} newest first and
+     * returns how many there were.
+     */
+    long forEachNewestFirst(TransactionFilterDto filter, Consumer<ArchivedTransactionRow> consumer);
+}
@@ -0,0 +1,10 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.transaction.BatchTransactionRequestDto;
+import com.example.bankcards.dto.transaction.BatchTransactionResponseDto;
+
+import java.util.UUID;
+
+public interface TransactionBatchService {
+    BatchTransactionResponseDto submit(BatchTransactionRequestDto request, UUID userId);
+}
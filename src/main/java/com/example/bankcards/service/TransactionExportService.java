@@ -0,0 +1,9 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.transaction.TransactionFilterDto;
+import com.example.bankcards.security.UserPrincipal;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface TransactionExportService {
+    StreamingResponseBody exportTransactions(TransactionFilterDto filter, ExportFormat format, UserPrincipal user);
+}
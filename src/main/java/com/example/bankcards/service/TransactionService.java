@@ -3,6 +3,7 @@ package com.example.bankcards.service;
 import com.example.bankcards.dto.transaction.TransactionFilterDto;
 import com.example.bankcards.dto.transaction.TransactionRequestDto;
 import com.example.bankcards.dto.transaction.TransactionResponseDto;
+import com.example.bankcards.dto.transaction.TransactionSliceDto;
 import com.example.bankcards.security.UserPrincipal;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,12 +12,30 @@ import java.util.List;
 import java.util.UUID;
 
 public interface TransactionService {
-    void withdraw(UUID cardId, TransactionRequestDto dto, UUID userId);
+    /**
+     * Money movements with a non-null {@code idempotencyKey} are applied at most once per
+     * user and key; a repeated submission returns without applying anything.
+     */
+    void withdraw(UUID cardId, TransactionRequestDto dto, UUID userId, String idempotencyKey);
 
-    void transfer(UUID fromCardId, UUID toCardId, TransactionRequestDto dto, UUID userId);
+    void transfer(UUID fromCardId, UUID toCardId, TransactionRequestDto dto, UUID userId, String idempotencyKey);
 
-    void deposit(UUID cardId, TransactionRequestDto dto, UUID userId);
+    void deposit(UUID cardId, TransactionRequestDto dto, UUID userId, String idempotencyKey);
+
+    default void withdraw(UUID cardId, TransactionRequestDto dto, UUID userId) {
+        withdraw(cardId, dto, userId, null);
+    }
+
+    default void transfer(UUID fromCardId, UUID toCardId, TransactionRequestDto dto, UUID userId) {
+        transfer(fromCardId, toCardId, dto, userId, null);
+    }
+
+    default void deposit(UUID cardId, TransactionRequestDto dto, UUID userId) {
+        deposit(cardId, dto, userId, null);
+    }
 
     Page<TransactionResponseDto> getAllTransactions(TransactionFilterDto filter, Pageable pageable, UserPrincipal user);
+
+    TransactionSliceDto getTransactionsAfter(TransactionFilterDto filter, String cursor, int size, UserPrincipal user);
 }
 
@@ -0,0 +1,8 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.user.UserFilterDto;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface UserExportService {
+    StreamingResponseBody exportUsers(UserFilterDto filter, ExportFormat format);
+}
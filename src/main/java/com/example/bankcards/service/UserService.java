@@ -1,14 +1,16 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.user.UserFilterDto;
 import com.example.bankcards.dto.user.UserRequestDto;
 import com.example.bankcards.dto.user.UserResponseDto;
 import com.example.bankcards.entities.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
-import java.util.List;
 import java.util.UUID;
 
 public interface UserService {
-    List<UserResponseDto> viewAllUsers();
+    Page<UserResponseDto> getUsers(UserFilterDto filter, Pageable pageable);
 
     User getUserByEmail(String email);
 
@@ -0,0 +1,7 @@
+package com.example.bankcards.service.exception.transaction;
+
+public class ConcurrentCardUpdateException extends RuntimeException {
+    public ConcurrentCardUpdateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.service.exception.transaction;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+    public IdempotencyKeyInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.service.exception.transaction;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.service.exception.transaction;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.service.exception.transaction;
+
+public class InvalidStatementPeriodException extends RuntimeException {
+    public InvalidStatementPeriodException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.service.exception.transaction;
+
+public class TransactionPageTooDeepException extends RuntimeException {
+    public TransactionPageTooDeepException(String message) {
+        super(message);
+    }
+}
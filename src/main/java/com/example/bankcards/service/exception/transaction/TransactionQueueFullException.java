@@ -0,0 +1,7 @@
+package com.example.bankcards.service.exception.transaction;
+
+public class TransactionQueueFullException extends RuntimeException {
+    public TransactionQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -12,6 +12,7 @@ import com.example.bankcards.service.RefreshTokenService;
 import com.example.bankcards.service.UserService;
 import com.example.bankcards.service.exception.auth.InvalidJwtTokenException;
 import com.example.bankcards.service.exception.user.UserAuthenticationProcessingException;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +27,7 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.util.Objects;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -81,8 +83,9 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         String requestToken = refreshJwtRequestDto.getRefreshToken();
         log.info("Attempting to recreate token using refresh token");
 
-        if (jwtTokenProvider.validateRefreshToken(requestToken)) {
-            String email = jwtTokenProvider.getLoginFromRefreshToken(requestToken);
+        Optional<Claims> claims = jwtTokenProvider.parseRefreshToken(requestToken);
+        if (claims.isPresent()) {
+            String email = claims.get().getSubject();
             String ip = getUserIp();
             User user = userService.getUserByEmail(email);
             RefreshToken refreshToken = refreshTokenService.findByUserAndIp(user, ip);
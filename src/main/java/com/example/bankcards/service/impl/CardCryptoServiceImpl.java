@@ -1,5 +1,6 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.entities.Card;
 import com.example.bankcards.service.CardCryptoService;
 import com.example.bankcards.service.exception.card.CardCryptoException;
 import jakarta.annotation.PostConstruct;
@@ -9,24 +10,44 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.HexFormat;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CardCryptoServiceImpl implements CardCryptoService {
+    private static final String TRANSFORMATION = "AES";
+    private static final int DEFAULT_POOL_SIZE = 64;
+    private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+    private static final String MASK_PREFIX = "**** **** **** ";
 
     @Value("${spring.application.security.crypto.secret}")
     private String secretKey;
 
+    @Value("${spring.application.security.crypto.fingerprint-secret}")
+    private String fingerprintSecret;
+
+    @Value("${spring.application.security.crypto.cipher-pool-size:64}")
+    private int cipherPoolSize;
+
     private SecretKeySpec secretKeySpec;
+    private SecretKeySpec fingerprintKeySpec;
+    private CipherPool encryptCiphers;
+    private CipherPool decryptCiphers;
 
     @PostConstruct
     public void init() {
         try {
             byte[] key = secretKey.substring(0, 16).getBytes();
-            secretKeySpec = new SecretKeySpec(key, "AES");
+            secretKeySpec = new SecretKeySpec(key, TRANSFORMATION);
+            fingerprintKeySpec = new SecretKeySpec(fingerprintSecret.getBytes(StandardCharsets.UTF_8), FINGERPRINT_ALGORITHM);
+            int poolSize = cipherPoolSize > 0 ? cipherPoolSize : DEFAULT_POOL_SIZE;
+            encryptCiphers = new CipherPool(TRANSFORMATION, Cipher.ENCRYPT_MODE, secretKeySpec, poolSize);
+            decryptCiphers = new CipherPool(TRANSFORMATION, Cipher.DECRYPT_MODE, secretKeySpec, poolSize);
         } catch (Exception e) {
             log.error("Failed to initialize crypto key");
             throw new CardCryptoException("Error initializing crypto key", e);
@@ -36,9 +57,9 @@ public class CardCryptoServiceImpl implements CardCryptoService {
     @Override
     public String encryptCardNumber(String cardNumber) {
         try {
-            Cipher cipher = Cipher.getInstance("AES");
-            cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec);
-            byte[] encrypted = cipher.doFinal(cardNumber.getBytes());
+            Cipher cipher = encryptCiphers.borrow();
+            byte[] encrypted = cipher.doFinal(cardNumber.getBytes(StandardCharsets.UTF_8));
+            encryptCiphers.release(cipher);
             String encoded = Base64.getEncoder().encodeToString(encrypted);
             log.info("Card number encrypted successfully.");
             return encoded;
@@ -50,35 +71,82 @@ public class CardCryptoServiceImpl implements CardCryptoService {
 
     @Override
     public String decryptCardNumber(String encryptedCardNumber) {
-        try {
-            Cipher cipher = Cipher.getInstance("AES");
-            cipher.init(Cipher.DECRYPT_MODE, secretKeySpec);
-            byte[] decrypted = cipher.doFinal(Base64.getDecoder().decode(encryptedCardNumber));
-            String result = new String(decrypted);
-            log.info("Card number decrypted successfully.");
-            return result;
-        } catch (Exception e) {
-            log.error("Error while decrypting card number -> " + encryptedCardNumber);
-            throw new CardCryptoException("Error while decrypting card number", e);
-        }
+        Plaintext plaintext = decrypt(encryptedCardNumber);
+        String result = new String(plaintext.buffer(), 0, plaintext.length(), StandardCharsets.UTF_8);
+        log.info("Card number decrypted successfully.");
+        return result;
     }
 
     @Override
     public String maskCardNumberDecrypted(String fullCardNumber) {
-        String decrypted = decryptCardNumber(fullCardNumber);
-        String masked = maskCardNumber(decrypted);
+        Plaintext plaintext = decrypt(fullCardNumber);
+        if (plaintext.length() < 4) {
+            log.warn("Card number too short to mask, returning ****.");
+            return "****";
+        }
+        String last4 = new String(plaintext.buffer(), plaintext.length() - 4, 4, StandardCharsets.UTF_8);
+        String masked = MASK_PREFIX + last4;
         log.info("Card number masked successfully after decryption.");
         return masked;
     }
 
+    @Override
+    public String maskCard(Card card) {
+        if (card.getCardNumberLast4() != null) {
+            return MASK_PREFIX + card.getCardNumberLast4();
+        }
+        log.debug("Card {} has no stored last digits, decrypting card number", card.getId());
+        return maskCardNumberDecrypted(card.getCardNumberEncrypted());
+    }
+
+    @Override
+    public String fingerprintCardNumber(String cardNumber) {
+        try {
+            Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+            mac.init(fingerprintKeySpec);
+            return HexFormat.of().formatHex(mac.doFinal(cardNumber.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            log.error("Error while computing card number fingerprint", e);
+            throw new CardCryptoException("Error while computing card number fingerprint", e);
+        }
+    }
+
+    @Override
+    public String lastFourDigits(String cardNumber) {
+        if (cardNumber == null || cardNumber.length() < 4) {
+            return null;
+        }
+        return cardNumber.substring(cardNumber.length() - 4);
+    }
+
     public static String maskCardNumber(String fullCardNumber) {
         if (fullCardNumber.length() < 4) {
             log.warn("Card number too short to mask, returning ****.");
             return "****";
         }
         String last4 = fullCardNumber.substring(fullCardNumber.length() - 4);
-        String masked = "**** **** **** " + last4;
+        String masked = MASK_PREFIX + last4;
         log.debug("Card number masked successfully.");
         return masked;
     }
+
+    /**
+     * Decrypts in place into the Base64-decoded array, so masking can read the
+     * last four digits without building the full card number string.
+     */
+    private Plaintext decrypt(String encryptedCardNumber) {
+        try {
+            byte[] buffer = Base64.getDecoder().decode(encryptedCardNumber);
+            Cipher cipher = decryptCiphers.borrow();
+            int length = cipher.doFinal(buffer, 0, buffer.length, buffer, 0);
+            decryptCiphers.release(cipher);
+            return new Plaintext(buffer, length);
+        } catch (Exception e) {
+            log.error("Error while decrypting card number -> " + encryptedCardNumber);
+            throw new CardCryptoException("Error while decrypting card number", e);
+        }
+    }
+
+    private record Plaintext(byte[] buffer, int length) {
+    }
 }
@@ -13,10 +13,15 @@ import com.example.bankcards.service.exception.auth.AccessDeniedException;
 import com.example.bankcards.service.exception.card.CardLimitNotFoundException;
 import com.example.bankcards.service.exception.card.CardNotActiveException;
 import com.example.bankcards.service.exception.card.CardNotFoundException;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.UUID;
@@ -30,9 +35,10 @@ public class CardLimitServiceImpl implements CardLimitService {
     private final CardRepository cardRepository;
     private final CardLimitRepository cardLimitRepository;
     private final CardLimitMapper cardLimitMapper;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public List<CardLimitResponseDto> getCardLimit(UUID cardId, UUID userId, List<String> roles) {
         log.info("Getting card limit for cardId={} and userId={}", cardId, userId);
 
@@ -80,12 +86,36 @@ public class CardLimitServiceImpl implements CardLimitService {
         cardLimit.setMonthlyLimit(cardLimitRequestDto.getMonthlyLimit());
 
         cardLimit = cardLimitRepository.save(cardLimit);
+        evictCachedLimitsAfterCommit(cardLimit.getId());
         log.info("Card limit saved for cardId={} with new limits: daily={}, monthly={}",
                 cardId, cardLimit.getDailyLimit(), cardLimit.getMonthlyLimit());
 
         return cardLimitMapper.convertToCardLimitDto(cardLimit);
     }
 
+    /**
+     * Hibernate refreshes the cached entity itself; evicting after commit also drops entries
+     * a concurrent read cached from a replica that had not yet applied the update.
+     */
+    private void evictCachedLimitsAfterCommit(UUID cardLimitId) {
+        Runnable evict = () -> {
+            Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+            cache.evictEntityData(CardLimit.class, cardLimitId);
+            cache.evictQueryRegion(CardLimit.QUERY_CACHE_REGION);
+            log.info("Evicted cached limits after update of card limit {}", cardLimitId);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+
     private void validateAccess(Card card, UUID userId, List<String> roles) {
         if (!card.getUser().getId().equals(userId) && !roles.contains("ADMIN")) {
             log.warn("Access denied: userId={} does not own cardId={} and is not ADMIN", userId, card.getId());
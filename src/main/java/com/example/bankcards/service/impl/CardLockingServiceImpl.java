@@ -0,0 +1,104 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.CardLockingService;
+import com.example.bankcards.service.ConcurrencyMode;
+import com.example.bankcards.service.GroupCommitExecutor;
+import com.example.bankcards.service.exception.transaction.ConcurrentCardUpdateException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class CardLockingServiceImpl implements CardLockingService {
+
+    private final CardRepository cardRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final GroupCommitExecutor groupCommitExecutor;
+    private final ConcurrencyMode mode;
+    private final int maxAttempts;
+
+    public CardLockingServiceImpl(CardRepository cardRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  GroupCommitExecutor groupCommitExecutor,
+                                  @Value("${spring.application.transaction.concurrency.mode:OPTIMISTIC}") ConcurrencyMode mode,
+                                  @Value("${spring.application.transaction.concurrency.max-attempts:3}") int maxAttempts) {
+        this.cardRepository = cardRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.groupCommitExecutor = groupCommitExecutor;
+        this.mode = mode;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        log.info("Card balance updates use {} concurrency control", mode);
+    }
+
+    @Override
+    public void execute(Collection<UUID> cardIds, Runnable work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            work.run();
+            return;
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (groupCommitExecutor.isEnabled()) {
+                    groupCommitExecutor.execute(cardIds, work);
+                } else {
+                    transactionTemplate.executeWithoutResult(status -> work.run());
+                }
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                if (mode != ConcurrencyMode.OPTIMISTIC || attempt >= maxAttempts) {
+                    log.warn("Card update conflict not resolved after {} attempt(s)", attempt);
+                    throw new ConcurrentCardUpdateException("Card was modified concurrently, please retry", e);
+                }
+                log.info("Optimistic lock conflict on card update, retrying ({}/{})", attempt, maxAttempts);
+                backOff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Locks in PostgreSQL's uuid order (by bytes, the same as the canonical hex string),
+     * which is the order {@code findAllByIdInForUpdate} locks a batch chunk in.
+     * {@link UUID#compareTo} compares signed longs and would disagree with it.
+     */
+    @Override
+    public void lockInOrder(UUID... cardIds) {
+        if (mode != ConcurrencyMode.PESSIMISTIC) {
+            return;
+        }
+        Arrays.stream(cardIds)
+                .distinct()
+                .sorted(Comparator.comparing(UUID::toString))
+                .forEach(cardId -> {
+                    log.info("Locking card {} for update", cardId);
+                    cardRepository.findByIdForUpdate(cardId);
+                });
+    }
+
+    @Override
+    public ConcurrencyMode getMode() {
+        return mode;
+    }
+
+    private void backOff(int attempt) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(1, 5L * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentCardUpdateException("Interrupted while retrying card update", e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.entities.Card;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.CardCryptoService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fills card_number_last4 and card_number_fingerprint for cards created before
+ * those columns existed. Runs shortly after startup and then periodically, so
+ * rows written by instances still on the old version are picked up as well.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CardNumberDigestBackfillService {
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final CardRepository cardRepository;
+    private final CardCryptoService cardCryptoService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(initialDelayString = "${spring.application.security.crypto.digest-backfill.initial-delay:PT10S}",
+            fixedDelayString = "${spring.application.security.crypto.digest-backfill.fixed-delay:PT1H}")
+    public int backfill() {
+        int updated = 0;
+        UUID lastId = FIRST_ID;
+
+        while (true) {
+            List<Card> batch = cardRepository.findTop500ByCardNumberFingerprintIsNullAndIdGreaterThanOrderByIdAsc(lastId);
+            if (batch.isEmpty()) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+            try {
+                Integer batchUpdated = transactionTemplate.execute(status -> updateBatch(batch));
+                updated += batchUpdated == null ? 0 : batchUpdated;
+            } catch (RuntimeException e) {
+                log.error("Card number digest backfill failed for batch ending at card {}", lastId, e);
+            }
+        }
+
+        if (updated > 0) {
+            log.info("Card number digest backfill finished, {} cards updated", updated);
+        }
+        return updated;
+    }
+
+    private int updateBatch(List<Card> batch) {
+        int updated = 0;
+        for (Card card : batch) {
+            try {
+                String cardNumber = cardCryptoService.decryptCardNumber(card.getCardNumberEncrypted());
+                updated += cardRepository.updateCardNumberDigest(card.getId(),
+                        cardCryptoService.lastFourDigits(cardNumber),
+                        cardCryptoService.fingerprintCardNumber(cardNumber));
+            } catch (RuntimeException e) {
+                log.error("Failed to backfill card number digest for card {}", card.getId(), e);
+            }
+        }
+        return updated;
+    }
+}
@@ -8,6 +8,7 @@ import com.example.bankcards.entities.CardLimit;
 import com.example.bankcards.entities.User;
 import com.example.bankcards.entities.enums.CardStatus;
 import com.example.bankcards.factory.CardFactory;
+import com.example.bankcards.factory.LedgerEntryFactory;
 import com.example.bankcards.mapper.CardMapper;
 import com.example.bankcards.repository.CardLimitRepository;
 import com.example.bankcards.repository.CardRepository;
@@ -15,6 +16,7 @@ import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.security.UserPrincipal;
 import com.example.bankcards.service.CardCryptoService;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.LedgerService;
 import com.example.bankcards.service.exception.auth.AccessDeniedException;
 import com.example.bankcards.service.exception.card.BlockingRequestException;
 import com.example.bankcards.service.exception.card.CardAlreadyExistsException;
@@ -45,6 +47,8 @@ public class CardServiceImpl implements CardService {
     private final CardMapper cardMapper;
     private final CardLimitRepository cardLimitRepository;
     private final CardFactory cardFactory;
+    private final LedgerService ledgerService;
+    private final LedgerEntryFactory ledgerEntryFactory;
 
     @Override
     @Transactional
@@ -57,23 +61,31 @@ public class CardServiceImpl implements CardService {
                     return new UserNotFoundException("User not found: " + userId);
                 });
 
-        String encryptedCardNumber = cardCryptoService.encryptCardNumber(request.getCardNumberEncrypted());
+        String cardNumber = request.getCardNumberEncrypted();
+        String encryptedCardNumber = cardCryptoService.encryptCardNumber(cardNumber);
+        String fingerprint = cardCryptoService.fingerprintCardNumber(cardNumber);
         log.info("Encrypted card number: {}", encryptedCardNumber);
 
-        ensureCardDoesNotExist(encryptedCardNumber);
+        ensureCardDoesNotExist(fingerprint, encryptedCardNumber);
         log.info("Card number uniqueness check passed");
 
-        Card card = cardFactory.createCard(request, user, encryptedCardNumber);
+        Card card = cardFactory.createCard(request, user, encryptedCardNumber,
+                cardCryptoService.lastFourDigits(cardNumber), fingerprint);
 
         Card savedCard = cardRepository.save(card);
         List<CardLimit> defaultLimits = cardFactory.createDefaultLimitsForAllTransactionTypes(savedCard);
         cardLimitRepository.saveAll(defaultLimits);
+        if (savedCard.getBalance().signum() != 0) {
+            // otherwise the nightly reconciliation reports the card as out of balance with its journal
+            ledgerService.append(List.of(ledgerEntryFactory.openingBalance(savedCard)));
+        }
 
         log.info("Card successfully created with ID: {}", savedCard.getId());
         return buildMaskedCardResponse(savedCard);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<CardResponseDto> getAllCards(CardFilterDto filter, PageRequest pageRequest) {
         log.info("Fetching all cards with filter: {}", filter);
         Pageable pageable = PageRequest.of(pageRequest.getPageNumber(), pageRequest.getPageSize());
@@ -82,6 +94,7 @@ public class CardServiceImpl implements CardService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CardResponseDto> getUserCards(UUID userId) {
         log.info("Fetching all cards for user with ID: {}", userId);
         return cardRepository.findAllByUserIdAndIsDeletedFalse(userId)
@@ -155,8 +168,9 @@ public class CardServiceImpl implements CardService {
         log.info("Blocking request for card {} has been rejected", cardId);
     }
 
-    private void ensureCardDoesNotExist(String encryptedCardNumber) {
-        if (cardRepository.existsByCardNumberEncrypted(encryptedCardNumber)) {
+    private void ensureCardDoesNotExist(String fingerprint, String encryptedCardNumber) {
+        if (cardRepository.existsByCardNumberFingerprint(fingerprint)
+                || cardRepository.existsByCardNumberEncryptedAndCardNumberFingerprintIsNull(encryptedCardNumber)) {
             log.warn("Attempt to create a card with existing encrypted number: {}", encryptedCardNumber);
             throw new CardAlreadyExistsException("Card already exists.");
         }
@@ -165,8 +179,7 @@ public class CardServiceImpl implements CardService {
     private CardResponseDto buildMaskedCardResponse(Card card) {
         log.info("Building masked response for card with ID: {}", card.getId());
         CardResponseDto dto = cardMapper.convertToCardResponseDto(card);
-        String decrypted = cardCryptoService.decryptCardNumber(card.getCardNumberEncrypted());
-        dto.setMaskedCardNumber(CardCryptoServiceImpl.maskCardNumber(decrypted));
+        dto.setMaskedCardNumber(cardCryptoService.maskCard(card));
         return dto;
     }
 
@@ -0,0 +1,174 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.service.CardShardExecutor;
+import com.example.bankcards.service.exception.transaction.ConcurrentCardUpdateException;
+import com.example.bankcards.service.exception.transaction.TransactionQueueFullException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashes every card to one of a fixed number of single-threaded shards with a bounded
+ * queue. Money movements on a card are applied one after another by its shard, so hot
+ * cards stop contending for the card row inside this instance; the row version still
+ * guards against other instances and other writers.
+ * <p>
+ * A transfer between two shards first parks the higher shard on a latch, then runs on
+ * the lower one. Shards only ever wait for a higher shard, so reservations cannot
+ * deadlock.
+ */
+@Service
+@Slf4j
+public class CardShardExecutorImpl implements CardShardExecutor {
+
+    private final ThreadLocal<Integer> currentShard = new ThreadLocal<>();
+    private final ThreadPoolExecutor[] shards;
+
+    public CardShardExecutorImpl(@Value("${spring.application.transaction.sharding.enabled:false}") boolean enabled,
+                                 @Value("${spring.application.transaction.sharding.shards:16}") int shardCount,
+                                 @Value("${spring.application.transaction.sharding.queue-capacity:1000}") int queueCapacity) {
+        this.shards = enabled ? new ThreadPoolExecutor[Math.max(1, shardCount)] : new ThreadPoolExecutor[0];
+        for (int i = 0; i < shards.length; i++) {
+            int index = i;
+            shards[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                    runnable -> new Thread(() -> {
+                        currentShard.set(index);
+                        runnable.run();
+                    }, "card-shard-" + index));
+        }
+        if (enabled) {
+            log.info("Money movements run on {} card shards with queues of {}", shards.length, queueCapacity);
+        }
+    }
+
+    @Override
+    public void execute(UUID cardId, Runnable work) {
+        if (!isEnabled()) {
+            work.run();
+            return;
+        }
+        int shard = shardOf(cardId);
+        if (runsOn(shard)) {
+            work.run();
+            return;
+        }
+        await(submit(shard, work));
+    }
+
+    @Override
+    public void execute(UUID firstCardId, UUID secondCardId, Runnable work) {
+        if (!isEnabled()) {
+            work.run();
+            return;
+        }
+        int first = shardOf(firstCardId);
+        int second = shardOf(secondCardId);
+        if (first == second) {
+            execute(firstCardId, work);
+            return;
+        }
+        if (currentShard.get() != null) {
+            throw new IllegalStateException("Card shard " + currentShard.get() + " must not reserve other shards");
+        }
+        int lower = Math.min(first, second);
+        int higher = Math.max(first, second);
+        await(submit(lower, () -> {
+            CountDownLatch reserved = new CountDownLatch(1);
+            CountDownLatch released = new CountDownLatch(1);
+            submit(higher, () -> {
+                reserved.countDown();
+                awaitUninterruptibly(released);
+            });
+            try {
+                awaitUninterruptibly(reserved);
+                work.run();
+            } finally {
+                released.countDown();
+            }
+        }));
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return shards.length > 0;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+        }
+        for (ThreadPoolExecutor shard : shards) {
+            if (!shard.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Card shard did not drain {} queued operations before shutdown", shard.getQueue().size());
+            }
+        }
+    }
+
+    private int shardOf(UUID cardId) {
+        return Math.floorMod(cardId.hashCode(), shards.length);
+    }
+
+    private boolean runsOn(int shard) {
+        Integer current = currentShard.get();
+        if (current == null) {
+            return false;
+        }
+        if (current != shard) {
+            throw new IllegalStateException("Card shard " + current + " must not wait for shard " + shard);
+        }
+        return true;
+    }
+
+    private Future<?> submit(int shard, Runnable work) {
+        try {
+            return shards[shard].submit(work);
+        } catch (RejectedExecutionException e) {
+            log.warn("Card shard {} is full, rejecting operation", shard);
+            throw new TransactionQueueFullException("Too many pending operations for this card, please retry");
+        }
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentCardUpdateException("Interrupted while waiting for the card operation", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
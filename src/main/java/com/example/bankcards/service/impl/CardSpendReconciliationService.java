@@ -0,0 +1,24 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.service.CardSpendService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CardSpendReconciliationService {
+
+    private final CardSpendService cardSpendService;
+
+    @Scheduled(cron = "${spring.application.transaction.spend-reconciliation.cron:0 30 0 * * ?}")
+    public void reconcileCurrentMonth() {
+        LocalDate from = LocalDate.now().minusDays(1).withDayOfMonth(1);
+        int buckets = cardSpendService.rebuildFrom(from);
+        log.info("Card spend reconciliation finished, {} buckets rebuilt", buckets);
+    }
+}
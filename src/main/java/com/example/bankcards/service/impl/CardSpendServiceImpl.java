@@ -0,0 +1,160 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.transaction.CardSpendKey;
+import com.example.bankcards.dto.transaction.SpendTotalsDto;
+import com.example.bankcards.entities.CardSpendAggregate;
+import com.example.bankcards.entities.Transaction;
+import com.example.bankcards.entities.enums.SpendPeriod;
+import com.example.bankcards.entities.enums.TransactionType;
+import com.example.bankcards.repository.CardSpendAggregateRepository;
+import com.example.bankcards.service.CardSpendService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CardSpendServiceImpl implements CardSpendService {
+
+    private final CardSpendAggregateRepository cardSpendAggregateRepository;
+
+    @Override
+    public SpendTotalsDto getSpent(UUID cardId, TransactionType type, LocalDate date) {
+        LocalDate startOfMonth = date.withDayOfMonth(1);
+
+        SpendTotalsDto totals = new SpendTotalsDto(BigDecimal.ZERO, BigDecimal.ZERO);
+        for (CardSpendAggregate bucket : cardSpendAggregateRepository.findDayAndMonthBuckets(
+                cardId, type, SpendPeriod.DAY, date, SpendPeriod.MONTH, startOfMonth)) {
+            if (bucket.getPeriod() == SpendPeriod.DAY) {
+                totals.setDailySpent(bucket.getAmount());
+            } else {
+                totals.setMonthlySpent(bucket.getAmount());
+            }
+        }
+
+        log.info("Card {} spend buckets for {}: daily {}, monthly {}", cardId, type, totals.getDailySpent(), totals.getMonthlySpent());
+        return totals;
+    }
+
+    /**
+     * Day and month totals for every card and type in one query; combinations
+     * without buckets yet are absent from the map.
+     */
+    @Override
+    public Map<CardSpendKey, SpendTotalsDto> getSpent(Collection<UUID> cardIds, LocalDate date) {
+        Map<CardSpendKey, SpendTotalsDto> totals = new HashMap<>();
+        for (CardSpendAggregate bucket : cardSpendAggregateRepository.findDayAndMonthBucketsForCards(
+                cardIds, SpendPeriod.DAY, date, SpendPeriod.MONTH, date.withDayOfMonth(1))) {
+            SpendTotalsDto spent = totals.computeIfAbsent(new CardSpendKey(bucket.getCardId(), bucket.getTransactionType()),
+                    key -> new SpendTotalsDto(BigDecimal.ZERO, BigDecimal.ZERO));
+            if (bucket.getPeriod() == SpendPeriod.DAY) {
+                spent.setDailySpent(bucket.getAmount());
+            } else {
+                spent.setMonthlySpent(bucket.getAmount());
+            }
+        }
+
+        log.info("Loaded spend buckets for {} cards on {}", cardIds.size(), date);
+        return totals;
+    }
+
+    @Override
+    @Transactional
+    public void recordSpend(Transaction transaction) {
+        LocalDate day = transaction.getTimestamp().toLocalDate();
+
+        cardSpendAggregateRepository.addToDayAndMonthBuckets(
+                transaction.getCard().getId(),
+                transaction.getType().name(),
+                day,
+                day.withDayOfMonth(1),
+                transaction.getAmount(),
+                1,
+                transaction.getAmount(),
+                transaction.getAmount());
+
+        log.info("Recorded {} of {} for card {} on {}", transaction.getAmount(), transaction.getType(), transaction.getCard().getId(), day);
+    }
+
+    /**
+     * Folds the transactions per card, type and day first, so a batch costs one
+     * upsert per group instead of one per transaction.
+     */
+    @Override
+    @Transactional
+    public void recordSpend(List<Transaction> transactions) {
+        Map<SpendGroup, SpendStats> groups = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            SpendGroup group = new SpendGroup(transaction.getCard().getId(), transaction.getType(),
+                    transaction.getTimestamp().toLocalDate());
+            groups.merge(group, SpendStats.of(transaction.getAmount()), SpendStats::merge);
+        }
+
+        groups.forEach((group, stats) -> cardSpendAggregateRepository.addToDayAndMonthBuckets(
+                group.cardId(),
+                group.type().name(),
+                group.day(),
+                group.day().withDayOfMonth(1),
+                stats.amount(),
+                stats.count(),
+                stats.minAmount(),
+                stats.maxAmount()));
+
+        log.info("Recorded {} transactions into {} spend buckets", transactions.size(), groups.size());
+    }
+
+    @Override
+    @Transactional
+    public int rebuildFrom(LocalDate from) {
+        LocalDate startOfMonth = from.withDayOfMonth(1);
+        log.info("Rebuilding card spend buckets from {}", startOfMonth);
+
+        // transactions are stamped on write, so nothing lands after the current month
+        LocalDate end = LocalDate.now().plusMonths(1).withDayOfMonth(1);
+
+        cardSpendAggregateRepository.lockForRebuild();
+        int removed = cardSpendAggregateRepository.deleteBuckets(startOfMonth, end);
+        int rebuilt = cardSpendAggregateRepository.insertBucketsFromTransactions(startOfMonth, end);
+
+        log.info("Card spend buckets rebuilt from {}: {} removed, {} inserted", startOfMonth, removed, rebuilt);
+        return rebuilt;
+    }
+
+    @Override
+    @Transactional
+    public int rebuildClosedMonth(LocalDate month) {
+        LocalDate startOfMonth = month.withDayOfMonth(1);
+
+        int removed = cardSpendAggregateRepository.deleteBuckets(startOfMonth, startOfMonth.plusMonths(1));
+        int rebuilt = cardSpendAggregateRepository.insertBucketsFromTransactions(startOfMonth, startOfMonth.plusMonths(1));
+
+        log.info("Card spend buckets of {} rebuilt: {} removed, {} inserted", startOfMonth, removed, rebuilt);
+        return rebuilt;
+    }
+
+    private record SpendGroup(UUID cardId, TransactionType type, LocalDate day) {
+    }
+
+    private record SpendStats(BigDecimal amount, long count, BigDecimal minAmount, BigDecimal maxAmount) {
+
+        private static SpendStats of(BigDecimal amount) {
+            return new SpendStats(amount, 1, amount, amount);
+        }
+
+        private SpendStats merge(SpendStats other) {
+            return new SpendStats(amount.add(other.amount), count + other.count,
+                    minAmount.min(other.minAmount), maxAmount.max(other.maxAmount));
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.transaction.CardStatementDto;
+import com.example.bankcards.dto.transaction.StatementLineDto;
+import com.example.bankcards.dto.transaction.StatementTotalsDto;
+import com.example.bankcards.entities.Card;
+import com.example.bankcards.entities.CardSpendAggregate;
+import com.example.bankcards.entities.enums.SpendPeriod;
+import com.example.bankcards.entities.enums.TransactionType;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardSpendAggregateRepository;
+import com.example.bankcards.repository.TransactionArchiveSegmentRepository;
+import com.example.bankcards.repository.TransactionRepository;
+import com.example.bankcards.service.CardSpendService;
+import com.example.bankcards.service.CardStatementService;
+import com.example.bankcards.service.exception.auth.AccessDeniedException;
+import com.example.bankcards.service.exception.card.CardNotFoundException;
+import com.example.bankcards.service.exception.transaction.InvalidStatementPeriodException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Statements are read from the day and month spend buckets, which are kept up to date as
+ * transactions are written, so a yearly summary costs at most a few dozen rows.
+ * <p>
+ * A rebuild recomputes months that no longer receive transactions in parallel, one
+ * transaction per month, and finishes with the live months under the table lock that
+ * the nightly reconciliation uses. Months with archived transactions are never rebuilt:
+ * their buckets are all that is left of the archived days.
+ */
+@Service
+@Slf4j
+public class CardStatementServiceImpl implements CardStatementService {
+    private static final long MAX_DAYS = 366;
+    private static final long MAX_MONTHS = 120;
+
+    private final CardRepository cardRepository;
+    private final CardSpendAggregateRepository cardSpendAggregateRepository;
+    private final CardSpendService cardSpendService;
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveSegmentRepository transactionArchiveSegmentRepository;
+    private final int rebuildParallelism;
+
+    public CardStatementServiceImpl(CardRepository cardRepository,
+                                    CardSpendAggregateRepository cardSpendAggregateRepository,
+                                    CardSpendService cardSpendService,
+                                    TransactionRepository transactionRepository,
+                                    TransactionArchiveSegmentRepository transactionArchiveSegmentRepository,
+                                    @Value("${spring.application.transaction.statements.rebuild-parallelism:4}") int rebuildParallelism) {
+        this.cardRepository = cardRepository;
+        this.cardSpendAggregateRepository = cardSpendAggregateRepository;
+        this.cardSpendService = cardSpendService;
+        this.transactionRepository = transactionRepository;
+        this.transactionArchiveSegmentRepository = transactionArchiveSegmentRepository;
+        this.rebuildParallelism = Math.max(1, rebuildParallelism);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CardStatementDto getStatement(UUID cardId, SpendPeriod period, LocalDate from, LocalDate to,
+                                         UUID userId, List<String> roles) {
+        LocalDate start = period == SpendPeriod.MONTH ? from.withDayOfMonth(1) : from;
+        LocalDate end = period == SpendPeriod.MONTH ? to.withDayOfMonth(1) : to;
+        validateRange(period, start, end);
+
+        Card card = cardRepository.findById(cardId)
+                .orElseThrow(() -> {
+                    log.warn("Card not found: cardId={}", cardId);
+                    return new CardNotFoundException(cardId);
+                });
+        if (!card.getUser().getId().equals(userId) && !roles.contains("ADMIN")) {
+            log.warn("Access denied: userId={} requested the statement of cardId={}", userId, cardId);
+            throw new AccessDeniedException("Access denied to card statement");
+        }
+
+        List<StatementLineDto> lines = cardSpendAggregateRepository
+                .findAllByCardIdAndPeriodAndPeriodStartBetweenOrderByPeriodStartAscTransactionTypeAsc(cardId, period, start, end)
+                .stream()
+                .map(CardStatementServiceImpl::toLine)
+                .toList();
+
+        log.info("Statement of card {} by {} from {} to {}: {} lines", cardId, period, start, end, lines.size());
+        return new CardStatementDto(cardId, period, start, end, lines, totals(lines));
+    }
+
+    @Override
+    public int rebuildFrom(LocalDate from) {
+        // a transaction stamped late yesterday may still be committing, so its month counts as live
+        LocalDate liveFrom = LocalDate.now().minusDays(1).withDayOfMonth(1);
+        LocalDate first = latest(from.withDayOfMonth(1), firstUnarchivedMonth());
+        LocalDateTime oldest = transactionRepository.findOldestTimestampBefore(liveFrom.atStartOfDay());
+
+        List<LocalDate> closedMonths = new ArrayList<>();
+        if (oldest != null) {
+            // months of detached partitions hold no transactions either
+            first = latest(first, oldest.toLocalDate().withDayOfMonth(1));
+            for (LocalDate month = first; month.isBefore(liveFrom); month = month.plusMonths(1)) {
+                closedMonths.add(month);
+            }
+        }
+        log.info("Rebuilding card spend buckets of {} closed months on {} threads", closedMonths.size(), rebuildParallelism);
+
+        int rebuilt = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(rebuildParallelism);
+        try {
+            List<Future<Integer>> chunks = closedMonths.stream()
+                    .map(month -> executor.submit(() -> cardSpendService.rebuildClosedMonth(month)))
+                    .toList();
+            for (Future<Integer> chunk : chunks) {
+                rebuilt += await(chunk);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        rebuilt += cardSpendService.rebuildFrom(latest(first, liveFrom));
+
+        log.info("Card spend buckets rebuilt from {}: {} buckets", from, rebuilt);
+        return rebuilt;
+    }
+
+    /**
+     * Archival moves transactions out one day at a time and may stop in the middle of a
+     * month, so the month of the latest archived day is skipped as a whole.
+     */
+    private LocalDate firstUnarchivedMonth() {
+        LocalDateTime archivedUntil = transactionArchiveSegmentRepository.findLatestArchivedTimestamp();
+        return archivedUntil == null ? LocalDate.MIN : archivedUntil.toLocalDate().withDayOfMonth(1).plusMonths(1);
+    }
+
+    private static LocalDate latest(LocalDate first, LocalDate second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    private static void validateRange(SpendPeriod period, LocalDate start, LocalDate end) {
+        if (end.isBefore(start)) {
+            throw new InvalidStatementPeriodException("Statement end must not be before its start");
+        }
+        if (period == SpendPeriod.DAY && ChronoUnit.DAYS.between(start, end) >= MAX_DAYS) {
+            throw new InvalidStatementPeriodException("Daily statements cover at most " + MAX_DAYS + " days");
+        }
+        if (period == SpendPeriod.MONTH && ChronoUnit.MONTHS.between(start, end) >= MAX_MONTHS) {
+            throw new InvalidStatementPeriodException("Monthly statements cover at most " + MAX_MONTHS + " months");
+        }
+    }
+
+    private static StatementLineDto toLine(CardSpendAggregate bucket) {
+        return new StatementLineDto(bucket.getPeriodStart(), bucket.getTransactionType(), bucket.getTransactionCount(),
+                bucket.getAmount(), bucket.getMinAmount(), bucket.getMaxAmount());
+    }
+
+    private static List<StatementTotalsDto> totals(List<StatementLineDto> lines) {
+        Map<TransactionType, StatementTotalsDto> totals = new EnumMap<>(TransactionType.class);
+        for (StatementLineDto line : lines) {
+            StatementTotalsDto total = totals.computeIfAbsent(line.getTransactionType(),
+                    type -> new StatementTotalsDto(type, 0, BigDecimal.ZERO, null, null));
+            total.setCount(total.getCount() + line.getCount());
+            total.setAmount(total.getAmount().add(line.getAmount()));
+            total.setMinAmount(min(total.getMinAmount(), line.getMinAmount()));
+            total.setMaxAmount(max(total.getMaxAmount(), line.getMaxAmount()));
+        }
+        return List.copyOf(totals.values());
+    }
+
+    // buckets written before min and max were tracked have neither
+    private static BigDecimal min(BigDecimal current, BigDecimal candidate) {
+        return current == null ? candidate : candidate == null ? current : current.min(candidate);
+    }
+
+    private static BigDecimal max(BigDecimal current, BigDecimal candidate) {
+        return current == null ? candidate : candidate == null ? current : current.max(candidate);
+    }
+
+    private static int await(Future<Integer> chunk) {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding card spend buckets", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
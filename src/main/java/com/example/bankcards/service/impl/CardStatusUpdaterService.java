@@ -1,15 +1,16 @@
 package com.example.bankcards.service.impl;
 
-import com.example.bankcards.entities.Card;
-import com.example.bankcards.entities.enums.CardStatus;
 import com.example.bankcards.repository.CardRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -17,20 +18,36 @@ import java.util.List;
 public class CardStatusUpdaterService {
 
     private final CardRepository cardRepository;
+    private final TransactionTemplate transactionTemplate;
 
-    @Scheduled(cron = "0 0 0 * * ?")
-    public void updateExpiredCardStatuses() {
-        List<Card> activeCards = cardRepository.findAllByStatus(CardStatus.ACTIVE);
+    @Value("${spring.application.card.expiry.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${spring.application.card.expiry.audit:false}")
+    private boolean auditEnabled;
 
+    /**
+     * Expires overdue cards with set-based updates, one short transaction per chunk,
+     * so neither the heap nor row locks grow with the number of cards.
+     */
+    @Scheduled(cron = "0 0 0 * * ?")
+    public int updateExpiredCardStatuses() {
         LocalDate today = LocalDate.now();
+        int limit = Math.max(1, chunkSize);
+        int expired = 0;
 
-        for (Card card : activeCards) {
-            if (card.getExpirationDate().isBefore(today)) {
-                card.setStatus(CardStatus.EXPIRED);
-                log.info("Card {} has expired", card.getId());
+        while (true) {
+            List<UUID> chunk = transactionTemplate.execute(status -> cardRepository.expireActiveCards(today, limit));
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+            if (auditEnabled) {
+                chunk.forEach(cardId -> log.info("Card {} has expired", cardId));
             }
+            expired += chunk.size();
         }
 
-        cardRepository.saveAll(activeCards);
+        log.info("Card expiry finished, {} cards marked as expired", expired);
+        return expired;
     }
 }
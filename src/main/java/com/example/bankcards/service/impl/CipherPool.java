@@ -0,0 +1,58 @@
+package com.example.bankcards.service.impl;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps initialized {@link Cipher} instances for one key and mode. A cipher is
+ * reset to its initialized state after {@code doFinal}, so it can be handed to
+ * the next caller without another {@code getInstance}/{@code init}.
+ * Not thread-local on purpose: with virtual threads a per-thread cache would
+ * never be reused.
+ */
+class CipherPool {
+    private final String transformation;
+    private final int mode;
+    private final SecretKeySpec key;
+    private final int maxIdle;
+    private final Deque<Cipher> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    CipherPool(String transformation, int mode, SecretKeySpec key, int maxIdle) {
+        this.transformation = transformation;
+        this.mode = mode;
+        this.key = key;
+        this.maxIdle = maxIdle;
+    }
+
+    Cipher borrow() throws GeneralSecurityException {
+        Cipher cipher = idle.pollFirst();
+        if (cipher != null) {
+            idleCount.decrementAndGet();
+            return cipher;
+        }
+        cipher = Cipher.getInstance(transformation);
+        cipher.init(mode, key);
+        return cipher;
+    }
+
+    /**
+     * Only ciphers that completed {@code doFinal} normally may be returned;
+     * on failure the instance is simply dropped.
+     */
+    void release(Cipher cipher) {
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offerFirst(cipher);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    int idleSize() {
+        return idleCount.get();
+    }
+}
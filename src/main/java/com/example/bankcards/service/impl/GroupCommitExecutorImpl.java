@@ -0,0 +1,263 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.CardLockingService;
+import com.example.bankcards.service.ConcurrencyMode;
+import com.example.bankcards.service.GroupCommitExecutor;
+import com.example.bankcards.service.exception.transaction.TransactionQueueFullException;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Collects operations for up to {@code window} or {@code max-batch-size} operations and
+ * applies them on a committer thread in one database transaction, so a group pays for a
+ * single commit and its inserts and card updates go out as JDBC batches.
+ * <p>
+ * Every operation runs inside its own JDBC savepoint and is flushed before the next one
+ * starts. An operation that throws is rolled back to its savepoint and the persistence
+ * context is cleared, leaving the rest of the group intact. A persistence error can
+ * leave the transaction itself unusable, so it aborts the group, and every operation
+ * of that group is then applied again in a transaction of its own. A failure of the
+ * commit itself is not replayed, since the group may already be durable; it is thrown
+ * to the callers of every operation that had not already failed on its own.
+ * <p>
+ * In pessimistic mode the cards of the whole group are locked before its first operation
+ * runs, in the order {@link CardLockingService#lockInOrder} uses, so a group cannot
+ * deadlock with another group or a single operation by locking in submission order.
+ */
+@Service
+@Slf4j
+public class GroupCommitExecutorImpl implements GroupCommitExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final CardRepository cardRepository;
+    private final ConcurrencyMode mode;
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingWork> queue;
+    private final List<Thread> committers = new ArrayList<>();
+    private volatile boolean running;
+
+    public GroupCommitExecutorImpl(PlatformTransactionManager transactionManager,
+                                   CardRepository cardRepository,
+                                   @Value("${spring.application.transaction.concurrency.mode:OPTIMISTIC}") ConcurrencyMode mode,
+                                   EntityManager entityManager,
+                                   EntityManagerFactory entityManagerFactory,
+                                   @Value("${spring.application.transaction.group-commit.enabled:false}") boolean enabled,
+                                   @Value("${spring.application.transaction.group-commit.window:PT0.002S}") Duration window,
+                                   @Value("${spring.application.transaction.group-commit.max-batch-size:64}") int maxBatchSize,
+                                   @Value("${spring.application.transaction.group-commit.committers:1}") int committers,
+                                   @Value("${spring.application.transaction.group-commit.queue-capacity:10000}") int queueCapacity) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cardRepository = cardRepository;
+        this.mode = mode;
+        this.entityManager = entityManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.window = window;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.running = enabled;
+        if (enabled) {
+            for (int i = 0; i < Math.max(1, committers); i++) {
+                Thread committer = new Thread(this::run, "group-commit-" + i);
+                committer.start();
+                this.committers.add(committer);
+            }
+            log.info("Money movements are group-committed by {} thread(s): up to {} operations per {}",
+                    this.committers.size(), this.maxBatchSize, window);
+        }
+    }
+
+    @Override
+    public void execute(Collection<UUID> cardIds, Runnable work) {
+        if (!isEnabled()) {
+            transactionTemplate.executeWithoutResult(status -> work.run());
+            return;
+        }
+        PendingWork pending = new PendingWork(cardIds, work);
+        if (!running || !queue.offer(pending)) {
+            log.warn("Group commit queue is full, rejecting operation");
+            throw new TransactionQueueFullException("Too many pending operations, please retry");
+        }
+        pending.await();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return !committers.isEmpty();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Thread committer : committers) {
+            committer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private void run() {
+        List<PendingWork> group = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            collect(group);
+            if (!group.isEmpty()) {
+                commit(group);
+                group.clear();
+            }
+        }
+    }
+
+    /**
+     * Waits for a first operation, then takes whatever else arrives until the window
+     * closes or the group is full.
+     */
+    private void collect(List<PendingWork> group) {
+        try {
+            PendingWork first = queue.poll(100, TimeUnit.MILLISECONDS);
+            if (first == null) {
+                return;
+            }
+            group.add(first);
+            long deadline = System.nanoTime() + window.toNanos();
+            while (group.size() < maxBatchSize) {
+                long remaining = deadline - System.nanoTime();
+                PendingWork next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                if (next == null) {
+                    return;
+                }
+                group.add(next);
+            }
+        } catch (InterruptedException e) {
+            // keep draining: callers of queued operations are still waiting for an outcome
+            running = false;
+        }
+    }
+
+    private void commit(List<PendingWork> group) {
+        AtomicBoolean applied = new AtomicBoolean();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                lockCards(group);
+                for (PendingWork pending : group) {
+                    applyInSavepoint(pending);
+                }
+                applied.set(true);
+            });
+            int failed = (int) group.stream().filter(pending -> pending.failure != null).count();
+            log.info("Group-committed {} operations, {} rolled back to their savepoint", group.size() - failed, failed);
+        } catch (RuntimeException e) {
+            if (applied.get()) {
+                log.error("Commit of a group of {} operations failed, its outcome is unknown", group.size(), e);
+                group.stream()
+                        .filter(pending -> pending.failure == null)
+                        .forEach(pending -> pending.failure = e);
+                return;
+            }
+            log.warn("Group of {} operations aborted ({}), applying them one by one", group.size(), e.getMessage());
+            for (PendingWork pending : group) {
+                pending.failure = null;
+                try {
+                    transactionTemplate.executeWithoutResult(status -> pending.work.run());
+                } catch (RuntimeException failure) {
+                    pending.failure = failure;
+                }
+            }
+        } finally {
+            group.forEach(PendingWork::complete);
+        }
+    }
+
+    private void lockCards(List<PendingWork> group) {
+        if (mode != ConcurrencyMode.PESSIMISTIC) {
+            return;
+        }
+        Set<UUID> cardIds = new HashSet<>();
+        group.forEach(pending -> cardIds.addAll(pending.cardIds));
+        cardRepository.findAllByIdInForUpdate(cardIds);
+    }
+
+    private void applyInSavepoint(PendingWork pending) {
+        Session session = entityManager.unwrap(Session.class);
+        Savepoint savepoint = session.doReturningWork(Connection::setSavepoint);
+        try {
+            pending.work.run();
+            entityManager.flush();
+            session.doWork(connection -> connection.releaseSavepoint(savepoint));
+        } catch (PersistenceException | DataAccessException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            pending.failure = e;
+            session.doWork(connection -> connection.rollback(savepoint));
+            entityManager.clear();
+            // a participating @Transactional method may have marked the shared transaction
+            EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory);
+            if (holder != null) {
+                holder.resetRollbackOnly();
+            }
+        }
+    }
+
+    private static final class PendingWork {
+        private final Collection<UUID> cardIds;
+        private final Runnable work;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile RuntimeException failure;
+
+        private PendingWork(Collection<UUID> cardIds, Runnable work) {
+            this.cardIds = cardIds;
+            this.work = work;
+        }
+
+        private void complete() {
+            done.countDown();
+        }
+
+        /**
+         * Waits even when interrupted: the operation may already be committed.
+         */
+        private void await() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    done.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.entities.IdempotencyKey;
+import com.example.bankcards.entities.IdempotencyKeyId;
+import com.example.bankcards.repository.IdempotencyKeyRepository;
+import com.example.bankcards.service.IdempotencyService;
+import com.example.bankcards.service.exception.transaction.IdempotencyKeyInProgressException;
+import com.example.bankcards.service.exception.transaction.IdempotencyKeyReuseException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * Keys live in the idempotency_keys table: a key is claimed with an insert that commits
+ * before the operation starts and is marked completed by the operation's own transaction.
+ * Recently completed keys are also held in a bounded in-memory cache, so a retried request
+ * is answered without touching the database, and requests for a key that is still running
+ * in this instance wait for it instead of racing it. A key running in another instance is
+ * reported as in progress until its lease expires; after that the next request takes the
+ * claim over, so a key left behind by a crashed instance does not block retries until it
+ * is purged. Completing or releasing a claim only succeeds for its current holder.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final Duration retention;
+    private final Duration lease;
+    // request hashes of completed keys
+    private final Cache<IdempotencyKeyId, String> completed;
+    private final ConcurrentMap<IdempotencyKeyId, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyServiceImpl(IdempotencyKeyRepository idempotencyKeyRepository,
+                                  @Value("${spring.application.transaction.idempotency.retention:P1D}") Duration retention,
+                                  @Value("${spring.application.transaction.idempotency.lease:PT1M}") Duration lease,
+                                  @Value("${spring.application.transaction.idempotency.cache.ttl:PT10M}") Duration cacheTtl,
+                                  @Value("${spring.application.transaction.idempotency.cache.max-size:100000}") long cacheMaxSize) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.retention = retention;
+        this.lease = lease;
+        this.completed = Caffeine.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .maximumSize(cacheMaxSize)
+                .build();
+    }
+
+    @Override
+    public void execute(UUID userId, String key, String request, Consumer<Runnable> operation) {
+        if (key == null || key.isBlank()) {
+            operation.accept(() -> {
+            });
+            return;
+        }
+        IdempotencyKeyId id = new IdempotencyKeyId(userId, key);
+        String requestHash = hash(request);
+
+        while (!isCompleted(id, requestHash)) {
+            CompletableFuture<Void> claim = new CompletableFuture<>();
+            CompletableFuture<Void> running = inFlight.putIfAbsent(id, claim);
+            if (running != null) {
+                log.info("Request with idempotency key {} of user {} is in flight, waiting for it", key, userId);
+                running.join();
+                continue;
+            }
+            try {
+                runOnce(id, requestHash, operation);
+                return;
+            } finally {
+                inFlight.remove(id, claim);
+                claim.complete(null);
+            }
+        }
+        log.info("Replaying completed request with idempotency key {} of user {}", key, userId);
+    }
+
+    @Override
+    @Scheduled(cron = "${spring.application.transaction.idempotency.purge-cron:0 15 * * * ?}")
+    @Transactional
+    public int purgeExpiredKeys() {
+        int removed = idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        log.info("Removed {} idempotency keys older than {}", removed, retention);
+        return removed;
+    }
+
+    private void runOnce(IdempotencyKeyId id, String requestHash, Consumer<Runnable> operation) {
+        UUID userId = id.getUserId();
+        String key = id.getKey();
+
+        // the claim's timestamp doubles as its identity, at the precision PostgreSQL stores
+        LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (idempotencyKeyRepository.claim(userId, key, requestHash, claimedAt, claimedAt.minus(lease)) == 0) {
+            IdempotencyKey existing = idempotencyKeyRepository.findById(id)
+                    .orElseThrow(() -> new IdempotencyKeyInProgressException(
+                            "A request with this Idempotency-Key is still being processed"));
+            requireSameRequest(existing.getRequestHash(), requestHash);
+            if (!existing.isCompleted()) {
+                log.warn("Idempotency key {} of user {} is held by a request in another instance", key, userId);
+                throw new IdempotencyKeyInProgressException("A request with this Idempotency-Key is still being processed");
+            }
+            completed.put(id, requestHash);
+            log.info("Replaying completed request with idempotency key {} of user {}", key, userId);
+            return;
+        }
+
+        try {
+            operation.accept(() -> {
+                if (idempotencyKeyRepository.complete(userId, key, claimedAt) == 0) {
+                    // rolls the operation back: the request that took the claim over applies it
+                    log.warn("Claim on idempotency key {} of user {} expired and was taken over", key, userId);
+                    throw new IdempotencyKeyInProgressException("A request with this Idempotency-Key is still being processed");
+                }
+            });
+        } catch (RuntimeException e) {
+            idempotencyKeyRepository.release(userId, key, claimedAt);
+            throw e;
+        }
+        completed.put(id, requestHash);
+    }
+
+    private boolean isCompleted(IdempotencyKeyId id, String requestHash) {
+        String completedHash = completed.getIfPresent(id);
+        if (completedHash == null) {
+            return false;
+        }
+        requireSameRequest(completedHash, requestHash);
+        return true;
+    }
+
+    private static void requireSameRequest(String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IdempotencyKeyReuseException("Idempotency-Key was already used for a different request");
+        }
+    }
+
+    private static String hash(String request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(request.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.entities.LedgerEntry;
+import com.example.bankcards.entities.LedgerPosting;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import com.example.bankcards.repository.LedgerPostingRepository;
+import com.example.bankcards.service.LedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Appends are plain inserts flushed as JDBC batches with the rest of the caller's
+ * transaction; no account row is read or locked, so a busy account such as the
+ * external one does not serialize writers.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerServiceImpl implements LedgerService {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerPostingRepository ledgerPostingRepository;
+
+    @Override
+    @Transactional
+    public void append(List<LedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        for (LedgerEntry entry : entries) {
+            requireBalanced(entry);
+        }
+        ledgerEntryRepository.saveAll(entries);
+        log.info("Appended {} journal entries", entries.size());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getBalance(UUID accountId) {
+        return ledgerPostingRepository.findBalance(accountId);
+    }
+
+    private static void requireBalanced(LedgerEntry entry) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (LedgerPosting posting : entry.getPostings()) {
+            if (posting.getAmount() == null || posting.getAmount().signum() <= 0) {
+                throw new IllegalArgumentException("Journal entry " + entry.getEntryType() + " has a non-positive posting");
+            }
+            total = total.add(posting.signedAmount());
+        }
+        if (entry.getPostings().size() < 2 || total.signum() != 0) {
+            throw new IllegalArgumentException("Journal entry " + entry.getEntryType() + " does not balance");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.repository.LedgerSnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Periodically folds recent postings into per-account snapshots. The cutoff trails the
+ * database clock by the settle delay, which must exceed the longest transaction, so
+ * no posting still uncommitted at the cutoff is left out of a snapshot.
+ */
+@Service
+@Slf4j
+public class LedgerSnapshotService {
+
+    private final LedgerSnapshotRepository ledgerSnapshotRepository;
+    private final Duration settleDelay;
+
+    public LedgerSnapshotService(LedgerSnapshotRepository ledgerSnapshotRepository,
+                                 @Value("${spring.application.ledger.snapshot.settle-delay:PT5M}") Duration settleDelay) {
+        this.ledgerSnapshotRepository = ledgerSnapshotRepository;
+        this.settleDelay = settleDelay;
+    }
+
+    @Scheduled(initialDelayString = "${spring.application.ledger.snapshot.interval:PT1H}",
+            fixedDelayString = "${spring.application.ledger.snapshot.interval:PT1H}")
+    @Transactional
+    public int takeSnapshots() {
+        LocalDateTime coveredUntil = ledgerSnapshotRepository.currentDatabaseTime().minus(settleDelay);
+        int snapshots = ledgerSnapshotRepository.insertSnapshots(coveredUntil);
+        log.info("Ledger snapshots taken up to {} for {} accounts", coveredUntil, snapshots);
+        return snapshots;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.ledger.LedgerPostingRow;
+import com.example.bankcards.dto.ledger.LedgerSnapshotRow;
+import com.example.bankcards.dto.ledger.LedgerVerificationReport;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import com.example.bankcards.repository.LedgerPostingRepository;
+import com.example.bankcards.repository.LedgerSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Replays the whole journal account by account and checks every snapshot against the
+ * balance of the postings it claims to cover. Postings and snapshots are read through
+ * two cursors in the same order and merged, so memory does not grow with the journal.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerVerificationService {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerPostingRepository ledgerPostingRepository;
+    private final LedgerSnapshotRepository ledgerSnapshotRepository;
+
+    @Scheduled(cron = "${spring.application.ledger.verification.cron:0 0 4 * * ?}")
+    @Transactional(readOnly = true)
+    public LedgerVerificationReport verify() {
+        List<UUID> unbalancedEntries = ledgerEntryRepository.findUnbalancedEntryIds();
+
+        long replayed = 0;
+        long checked = 0;
+        List<UUID> mismatchedSnapshots = new ArrayList<>();
+        try (Stream<LedgerPostingRow> postingStream = ledgerPostingRepository.streamAllForReplay();
+             Stream<LedgerSnapshotRow> snapshotStream = ledgerSnapshotRepository.streamAllForReplay()) {
+            Iterator<LedgerPostingRow> postings = postingStream.iterator();
+            LedgerPostingRow pending = postings.hasNext() ? postings.next() : null;
+            UUID account = null;
+            BigDecimal balance = BigDecimal.ZERO;
+
+            for (Iterator<LedgerSnapshotRow> snapshots = snapshotStream.iterator(); snapshots.hasNext(); ) {
+                LedgerSnapshotRow snapshot = snapshots.next();
+                if (!snapshot.accountId().equals(account)) {
+                    account = snapshot.accountId();
+                    balance = BigDecimal.ZERO;
+                    while (pending != null && compare(pending.accountId(), account) < 0) {
+                        replayed++;
+                        pending = postings.hasNext() ? postings.next() : null;
+                    }
+                }
+                while (pending != null && pending.accountId().equals(account)
+                        && pending.recordedAt().isBefore(snapshot.coveredUntil())) {
+                    balance = balance.add(pending.signedAmount());
+                    replayed++;
+                    pending = postings.hasNext() ? postings.next() : null;
+                }
+
+                checked++;
+                if (balance.compareTo(snapshot.balance()) != 0) {
+                    log.error("Ledger snapshot {} of account {} at {} holds {}, replay gives {}",
+                            snapshot.id(), account, snapshot.coveredUntil(), snapshot.balance(), balance);
+                    mismatchedSnapshots.add(snapshot.id());
+                }
+            }
+            while (pending != null) {
+                replayed++;
+                pending = postings.hasNext() ? postings.next() : null;
+            }
+        }
+
+        List<UUID> cardsOutOfBalance = ledgerPostingRepository.findCardsOutOfBalance();
+        LedgerVerificationReport report = new LedgerVerificationReport(replayed, checked, unbalancedEntries,
+                mismatchedSnapshots, cardsOutOfBalance);
+        if (report.isConsistent()) {
+            log.info("Ledger verified: {} postings replayed, {} snapshots checked", replayed, checked);
+        } else {
+            log.error("Ledger verification failed: {} unbalanced entries {}, {} mismatched snapshots, {} cards out of balance {}",
+                    unbalancedEntries.size(), unbalancedEntries, mismatchedSnapshots.size(),
+                    cardsOutOfBalance.size(), cardsOutOfBalance);
+        }
+        return report;
+    }
+
+    /**
+     * PostgreSQL orders uuid columns by their bytes, which matches the canonical hex string.
+     */
+    private static int compare(UUID left, UUID right) {
+        return left.toString().compareTo(right.toString());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.bankcards.service.impl;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Logs hit rates of the Hibernate second-level and query caches since startup.
+ */
+@Service
+@Slf4j
+public class SecondLevelCacheStatisticsReporter {
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheStatisticsReporter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Scheduled(initialDelayString = "${spring.application.cache.statistics-interval:PT5M}",
+            fixedDelayString = "${spring.application.cache.statistics-interval:PT5M}")
+    public void report() {
+        if (!statistics.isStatisticsEnabled()) {
+            return;
+        }
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                logHitRate(regionName, region.getHitCount(), region.getMissCount());
+            }
+        }
+        logHitRate("query results", statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount());
+    }
+
+    private static void logHitRate(String region, long hits, long misses) {
+        long lookups = hits + misses;
+        if (lookups == 0) {
+            return;
+        }
+        log.info("Cache {}: {} hits, {} misses, hit rate {}%",
+                region, hits, misses, String.format("%.1f", hits * 100.0 / lookups));
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.transaction.ArchivedTransactionRow;
+import com.example.bankcards.dto.transaction.ArchivedTransactionSlice;
+import com.example.bankcards.dto.transaction.TransactionCursor;
+import com.example.bankcards.dto.transaction.TransactionFilterDto;
+import com.example.bankcards.entities.TransactionArchiveSegment;
+import com.example.bankcards.entities.id.UuidV7Generator;
+import com.example.bankcards.repository.TransactionArchiveSegmentRepository;
+import com.example.bankcards.repository.TransactionRepository;
+import com.example.bankcards.repository.archive.TransactionArchiveStore;
+import com.example.bankcards.repository.archive.TransactionSegmentWriter;
+import com.example.bankcards.service.TransactionArchiveService;
+import com.example.bankcards.service.exception.transaction.TransactionPageTooDeepException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class TransactionArchiveServiceImpl implements TransactionArchiveService {
+    private static final LocalDateTime MIN_TIMESTAMP = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final Duration ORPHAN_MIN_AGE = Duration.ofHours(1);
+    private static final Comparator<ArchivedTransactionRow> NEWEST_FIRST = Comparator
+            .comparing(ArchivedTransactionRow::timestamp)
+            .thenComparing(row -> row.id().toString())
+            .reversed();
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveSegmentRepository segmentRepository;
+    private final TransactionArchiveStore archiveStore;
+    private final TransactionTemplate snapshotTransactionTemplate;
+
+    @Value("${spring.application.transaction.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${spring.application.transaction.archive.horizon-months:12}")
+    private int horizonMonths;
+
+    @Value("${spring.application.transaction.archive.max-page-window:10000}")
+    private int maxPageWindow;
+
+    public TransactionArchiveServiceImpl(TransactionRepository transactionRepository,
+                                         TransactionArchiveSegmentRepository segmentRepository,
+                                         TransactionArchiveStore archiveStore,
+                                         PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.segmentRepository = segmentRepository;
+        this.archiveStore = archiveStore;
+        // the delete must see exactly the rows that were written to the segment
+        this.snapshotTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * One segment per day older than the horizon. Each day is read, written, published and
+     * deleted inside a single snapshot transaction that also records the segment, so a
+     * failure at any point leaves the rows in the database and at most an orphaned file.
+     */
+    @Override
+    @Scheduled(cron = "${spring.application.transaction.archive.cron:0 0 3 * * ?}")
+    public long archiveExpiredTransactions() {
+        if (!enabled) {
+            return 0;
+        }
+        LocalDateTime horizon = LocalDate.now().minusMonths(Math.max(1, horizonMonths)).withDayOfMonth(1).atStartOfDay();
+        archiveStore.deleteUnreferenced(segmentRepository.findAllFileNames(), ORPHAN_MIN_AGE);
+
+        LocalDateTime oldest = transactionRepository.findOldestTimestampBefore(horizon);
+        if (oldest == null) {
+            return 0;
+        }
+
+        long archived = 0;
+        for (LocalDate day = oldest.toLocalDate(); day.atStartOfDay().isBefore(horizon); day = day.plusDays(1)) {
+            try {
+                archived += archiveDay(day);
+            } catch (RuntimeException e) {
+                log.error("Archiving transactions of {} failed, stopping until the next run", day, e);
+                break;
+            }
+        }
+        log.info("Transaction archival finished, {} transactions moved to segments", archived);
+        return archived;
+    }
+
+    /**
+     * Every matching row of every overlapping segment is inspected to count the matches, so
+     * the window is capped; deeper pages have to be read with {@link #findAfter}.
+     */
+    @Override
+    public ArchivedTransactionSlice findTop(TransactionFilterDto filter, Comparator<ArchivedTransactionRow> order, int limit) {
+        List<TransactionArchiveSegment> segments = overlapping(filter.getStartDate(), filter.getEndDate());
+        if (segments.isEmpty()) {
+            return ArchivedTransactionSlice.empty();
+        }
+        if (limit > maxPageWindow) {
+            throw new TransactionPageTooDeepException("Only the first " + maxPageWindow
+                    + " transactions can be paged through when archived transactions match, use the cursor instead");
+        }
+
+        // bounded heap whose head is the worst row kept so far
+        PriorityQueue<ArchivedTransactionRow> top = new PriorityQueue<>(order.reversed());
+        AtomicLong total = new AtomicLong();
+        for (TransactionArchiveSegment segment : segments) {
+            scan(segment, filter, filter.getEndDate(), row -> {
+                total.incrementAndGet();
+                top.add(row);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            });
+        }
+
+        List<ArchivedTransactionRow> rows = new ArrayList<>(top);
+        rows.sort(order);
+        log.info("Archive returned {} of {} matching transactions from {} segments", rows.size(), total.get(), segments.size());
+        return new ArchivedTransactionSlice(total.get(), rows);
+    }
+
+    /**
+     * Segments are read newest first; once {@code limit} rows are kept, a segment that ends
+     * before the oldest of them is skipped without being read.
+     */
+    @Override
+    public List<ArchivedTransactionRow> findAfter(TransactionFilterDto filter, TransactionCursor cursor, int limit) {
+        LocalDateTime to = cursor == null ? filter.getEndDate() : earliest(filter.getEndDate(), cursor.timestamp());
+        List<TransactionArchiveSegment> segments = overlapping(filter.getStartDate(), to);
+
+        PriorityQueue<ArchivedTransactionRow> top = new PriorityQueue<>(NEWEST_FIRST.reversed());
+        int read = 0;
+        for (TransactionArchiveSegment segment : segments.reversed()) {
+            if (top.size() == limit && segment.getMaxTimestamp().isBefore(top.peek().timestamp())) {
+                continue;
+            }
+            scan(segment, filter, to, row -> {
+                if (cursor != null && !isAfter(row, cursor)) {
+                    return;
+                }
+                top.add(row);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            });
+            read++;
+        }
+
+        List<ArchivedTransactionRow> rows = new ArrayList<>(top);
+        rows.sort(NEWEST_FIRST);
+        log.info("Archive returned {} transactions after the cursor from {} of {} segments", rows.size(), read, segments.size());
+        return rows;
+    }
+
+    /**
+     * Only one segment's matching rows are held at a time.
+     */
+    @Override
+    public long forEachNewestFirst(TransactionFilterDto filter, Consumer<ArchivedTransactionRow> consumer) {
+        long count = 0;
+        for (TransactionArchiveSegment segment : overlapping(filter.getStartDate(), filter.getEndDate()).reversed()) {
+            List<ArchivedTransactionRow> rows = new ArrayList<>();
+            scan(segment, filter, filter.getEndDate(), rows::add);
+            rows.sort(NEWEST_FIRST);
+            rows.forEach(consumer);
+            count += rows.size();
+        }
+        return count;
+    }
+
+    private List<TransactionArchiveSegment> overlapping(LocalDateTime from, LocalDateTime to) {
+        return segmentRepository.findOverlapping(from == null ? MIN_TIMESTAMP : from, to == null ? MAX_TIMESTAMP : to);
+    }
+
+    private void scan(TransactionArchiveSegment segment, TransactionFilterDto filter, LocalDateTime to,
+                      Consumer<ArchivedTransactionRow> consumer) {
+        archiveStore.scan(segment.getFileName(), filter.getUserId(), filter.getCardId(), filter.getStartDate(), to, row -> {
+            if (matches(filter, row)) {
+                consumer.accept(row);
+            }
+        });
+    }
+
+    private long archiveDay(LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = day.plusDays(1).atStartOfDay();
+        String fileName = "transactions-" + day + "-" + UuidV7Generator.next() + TransactionArchiveStore.SEGMENT_SUFFIX;
+
+        try {
+            Long archived = snapshotTransactionTemplate.execute(status -> archiveRange(fileName, from, to));
+            return archived == null ? 0 : archived;
+        } catch (RuntimeException e) {
+            archiveStore.delete(fileName);
+            throw e;
+        }
+    }
+
+    private long archiveRange(String fileName, LocalDateTime from, LocalDateTime to) {
+        TransactionSegmentWriter writer;
+        try (Stream<ArchivedTransactionRow> rows = transactionRepository.streamForArchive(from, to)) {
+            writer = archiveStore.create(fileName);
+            try (writer) {
+                Iterator<ArchivedTransactionRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    writer.append(iterator.next());
+                }
+            }
+            if (writer.getRowCount() == 0) {
+                archiveStore.delete(fileName);
+                return 0;
+            }
+            archiveStore.publish(fileName);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write archive segment " + fileName, e);
+        }
+
+        int deleted = transactionRepository.deleteByTimestampRange(from, to);
+        if (deleted != writer.getRowCount()) {
+            throw new IllegalStateException("Segment " + fileName + " holds " + writer.getRowCount()
+                    + " transactions but " + deleted + " were deleted");
+        }
+        segmentRepository.save(TransactionArchiveSegment.builder()
+                .fileName(fileName)
+                .minTimestamp(writer.getMinTimestamp())
+                .maxTimestamp(writer.getMaxTimestamp())
+                .rowCount(writer.getRowCount())
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        log.info("Archived {} transactions from [{}, {}) into {}", writer.getRowCount(), from, to, fileName);
+        return writer.getRowCount();
+    }
+
+    // Mirrors TransactionSpecification.after; uuid order is the order of the canonical hex string.
+    private static boolean isAfter(ArchivedTransactionRow row, TransactionCursor cursor) {
+        int byTimestamp = row.timestamp().compareTo(cursor.timestamp());
+        return byTimestamp < 0 || byTimestamp == 0 && row.id().toString().compareTo(cursor.id().toString()) < 0;
+    }
+
+    private static LocalDateTime earliest(LocalDateTime first, LocalDateTime second) {
+        return first == null || second.isBefore(first) ? second : first;
+    }
+
+    // Mirrors TransactionSpecification.withFilters for rows that are no longer in the database.
+    private static boolean matches(TransactionFilterDto filter, ArchivedTransactionRow row) {
+        if (filter.getStartDate() != null && row.timestamp().isBefore(filter.getStartDate())) {
+            return false;
+        }
+        if (filter.getEndDate() != null && row.timestamp().isAfter(filter.getEndDate())) {
+            return false;
+        }
+        if (filter.getTransactionType() != null && filter.getTransactionType() != row.type()) {
+            return false;
+        }
+        if (filter.getMinAmount() != null && (row.amount() == null || row.amount().compareTo(filter.getMinAmount()) < 0)) {
+            return false;
+        }
+        if (filter.getMaxAmount() != null && (row.amount() == null || row.amount().compareTo(filter.getMaxAmount()) > 0)) {
+            return false;
+        }
+        if (filter.getUserId() != null && !filter.getUserId().equals(row.userId())) {
+            return false;
+        }
+        return filter.getCardId() == null || filter.getCardId().equals(row.cardId());
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.transaction.BatchItemStatus;
+import com.example.bankcards.dto.transaction.BatchTransactionItemDto;
+import com.example.bankcards.dto.transaction.BatchTransactionItemResultDto;
+import com.example.bankcards.dto.transaction.BatchTransactionRequestDto;
+import com.example.bankcards.dto.transaction.BatchTransactionResponseDto;
+import com.example.bankcards.dto.transaction.CardSpendKey;
+import com.example.bankcards.dto.transaction.SpendTotalsDto;
+import com.example.bankcards.dto.transaction.TransactionRequestDto;
+import com.example.bankcards.entities.Card;
+import com.example.bankcards.entities.LedgerEntry;
+import com.example.bankcards.entities.CardLimit;
+import com.example.bankcards.entities.Transaction;
+import com.example.bankcards.entities.enums.CardStatus;
+import com.example.bankcards.entities.enums.TransactionType;
+import com.example.bankcards.factory.LedgerEntryFactory;
+import com.example.bankcards.factory.TransactionFactory;
+import com.example.bankcards.repository.CardLimitRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransactionRepository;
+import com.example.bankcards.service.CardLockingService;
+import com.example.bankcards.service.CardSpendService;
+import com.example.bankcards.service.ConcurrencyMode;
+import com.example.bankcards.service.LedgerService;
+import com.example.bankcards.service.TransactionBatchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Applies many deposit, withdrawal and transfer instructions at once. Each chunk
+ * reads its cards, limits and spend buckets with a handful of IN queries, checks
+ * the items in order against running balances and totals, and writes everything
+ * back in one database transaction. Invalid items are rejected individually.
+ */
+@Service
+@Slf4j
+public class TransactionBatchServiceImpl implements TransactionBatchService {
+
+    private final TransactionRepository transactionRepository;
+    private final CardRepository cardRepository;
+    private final CardLimitRepository cardLimitRepository;
+    private final TransactionFactory transactionFactory;
+    private final CardSpendService cardSpendService;
+    private final CardLockingService cardLockingService;
+    private final LedgerService ledgerService;
+    private final LedgerEntryFactory ledgerEntryFactory;
+    private final int chunkSize;
+
+    public TransactionBatchServiceImpl(TransactionRepository transactionRepository,
+                                       CardRepository cardRepository,
+                                       CardLimitRepository cardLimitRepository,
+                                       TransactionFactory transactionFactory,
+                                       CardSpendService cardSpendService,
+                                       CardLockingService cardLockingService,
+                                       LedgerService ledgerService,
+                                       LedgerEntryFactory ledgerEntryFactory,
+                                       @Value("${spring.application.transaction.batch.chunk-size:500}") int chunkSize) {
+        this.transactionRepository = transactionRepository;
+        this.cardRepository = cardRepository;
+        this.cardLimitRepository = cardLimitRepository;
+        this.transactionFactory = transactionFactory;
+        this.cardSpendService = cardSpendService;
+        this.cardLockingService = cardLockingService;
+        this.ledgerService = ledgerService;
+        this.ledgerEntryFactory = ledgerEntryFactory;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    @Override
+    public BatchTransactionResponseDto submit(BatchTransactionRequestDto request, UUID userId) {
+        List<BatchTransactionItemDto> items = request.getItems();
+        log.info("User {} submitted a batch of {} transactions", userId, items.size());
+
+        List<BatchTransactionItemResultDto> results = new ArrayList<>(items.size());
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            int offset = from;
+            List<BatchTransactionItemDto> chunk = items.subList(from, Math.min(items.size(), from + chunkSize));
+            List<BatchTransactionItemResultDto> chunkResults = new ArrayList<>(chunk.size());
+            Set<UUID> cardIds = cardIds(chunk);
+            cardLockingService.execute(cardIds, () -> {
+                chunkResults.clear();
+                chunkResults.addAll(applyChunk(chunk, cardIds, offset, userId));
+            });
+            results.addAll(chunkResults);
+        }
+
+        int applied = (int) results.stream().filter(result -> result.getStatus() == BatchItemStatus.APPLIED).count();
+        log.info("Batch of user {} finished: {} applied, {} rejected", userId, applied, results.size() - applied);
+        return new BatchTransactionResponseDto(applied, results.size() - applied, results);
+    }
+
+    private static Set<UUID> cardIds(List<BatchTransactionItemDto> chunk) {
+        Set<UUID> cardIds = new TreeSet<>();
+        for (BatchTransactionItemDto item : chunk) {
+            cardIds.add(item.getCardId());
+            if (item.getToCardId() != null) {
+                cardIds.add(item.getToCardId());
+            }
+        }
+        return cardIds;
+    }
+
+    private List<BatchTransactionItemResultDto> applyChunk(List<BatchTransactionItemDto> chunk, Set<UUID> cardIds,
+                                                           int offset, UUID userId) {
+
+        List<Card> cards = cardLockingService.getMode() == ConcurrencyMode.PESSIMISTIC
+                ? cardRepository.findAllByIdInForUpdate(cardIds)
+                : cardRepository.findAllById(cardIds);
+        ChunkState state = new ChunkState(
+                cards.stream().collect(Collectors.toMap(Card::getId, Function.identity())),
+                cardLimitRepository.findAllByCardIdIn(cardIds).stream()
+                        .collect(Collectors.toMap(limit -> new CardSpendKey(limit.getCard().getId(), limit.getTransactionType()),
+                                Function.identity())),
+                new HashMap<>(cardSpendService.getSpent(cardIds, LocalDate.now())));
+
+        List<BatchTransactionItemResultDto> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            String error = apply(chunk.get(i), userId, state);
+            results.add(new BatchTransactionItemResultDto(offset + i,
+                    error == null ? BatchItemStatus.APPLIED : BatchItemStatus.REJECTED, error));
+        }
+
+        if (!state.transactions.isEmpty()) {
+            cardRepository.saveAll(state.changedCards.values());
+            transactionRepository.saveAll(state.transactions);
+            cardSpendService.recordSpend(state.transactions);
+            ledgerService.append(state.ledgerEntries.stream().map(Supplier::get).toList());
+        }
+        log.info("Applied {} of {} batch items over {} cards", state.transactions.size(), chunk.size(), cardIds.size());
+        return results;
+    }
+
+    private String apply(BatchTransactionItemDto item, UUID userId, ChunkState state) {
+        Card card = state.cards.get(item.getCardId());
+        String error = validateCard(card, item.getCardId(), userId);
+        if (error != null) {
+            return error;
+        }
+        BigDecimal amount = item.getAmount();
+
+        switch (item.getType()) {
+            case DEPOSIT -> {
+                error = validateLimit(card, amount, TransactionType.DEPOSIT, state);
+                if (error != null) {
+                    return error;
+                }
+                card.setBalance(card.getBalance().add(amount));
+                Transaction deposit = record(card, TransactionType.DEPOSIT, item, state);
+                state.ledgerEntries.add(() -> ledgerEntryFactory.deposit(deposit));
+            }
+            case WITHDRAWAL -> {
+                if (card.getBalance().compareTo(amount) < 0) {
+                    return "Insufficient funds";
+                }
+                error = validateLimit(card, amount, TransactionType.WITHDRAWAL, state);
+                if (error != null) {
+                    return error;
+                }
+                card.setBalance(card.getBalance().subtract(amount));
+                Transaction withdrawal = record(card, TransactionType.WITHDRAWAL, item, state);
+                state.ledgerEntries.add(() -> ledgerEntryFactory.withdrawal(withdrawal));
+            }
+            case TRANSFER -> {
+                if (item.getToCardId() == null) {
+                    return "Receiving card is required for transfer";
+                }
+                if (item.getCardId().equals(item.getToCardId())) {
+                    return "Cannot transfer to the same card";
+                }
+                Card toCard = state.cards.get(item.getToCardId());
+                error = validateCard(toCard, item.getToCardId(), userId);
+                if (error != null) {
+                    return error;
+                }
+                if (card.getBalance().compareTo(amount) < 0) {
+                    return "Insufficient funds on sender card";
+                }
+                error = validateLimit(card, amount, TransactionType.TRANSFER, state);
+                if (error != null) {
+                    return error;
+                }
+                card.setBalance(card.getBalance().subtract(amount));
+                toCard.setBalance(toCard.getBalance().add(amount));
+                Transaction outgoing = record(card, TransactionType.TRANSFER, item, state);
+                Transaction incoming = record(toCard, TransactionType.DEPOSIT, item, state);
+                state.ledgerEntries.add(() -> ledgerEntryFactory.transfer(outgoing, incoming));
+            }
+        }
+        return null;
+    }
+
+    private String validateCard(Card card, UUID cardId, UUID userId) {
+        if (card == null) {
+            return "Card not found: " + cardId;
+        }
+        if (!card.getUser().getId().equals(userId)) {
+            log.warn("User {} tried to use card {} owned by another user in a batch", userId, cardId);
+            return "Access denied to card";
+        }
+        if (card.getStatus() != CardStatus.ACTIVE) {
+            return "Card is blocked or expired";
+        }
+        return null;
+    }
+
+    private String validateLimit(Card card, BigDecimal amount, TransactionType type, ChunkState state) {
+        CardSpendKey key = new CardSpendKey(card.getId(), type);
+        CardLimit cardLimit = state.limits.get(key);
+        if (cardLimit == null) {
+            return "Card limits not found for card: " + card.getId();
+        }
+
+        SpendTotalsDto spent = state.spent.get(key);
+        BigDecimal dailySpent = spent == null ? BigDecimal.ZERO : spent.getDailySpent();
+        BigDecimal monthlySpent = spent == null ? BigDecimal.ZERO : spent.getMonthlySpent();
+        if (dailySpent.add(amount).compareTo(cardLimit.getDailyLimit()) > 0) {
+            return "Daily limit exceeded";
+        }
+        if (monthlySpent.add(amount).compareTo(cardLimit.getMonthlyLimit()) > 0) {
+            return "Monthly limit exceeded";
+        }
+        return null;
+    }
+
+    private Transaction record(Card card, TransactionType type, BatchTransactionItemDto item, ChunkState state) {
+        TransactionRequestDto request = new TransactionRequestDto(item.getAmount(), item.getDescription());
+        Transaction transaction = transactionFactory.create(request, card, type);
+        state.transactions.add(transaction);
+        state.changedCards.put(card.getId(), card);
+
+        SpendTotalsDto spent = state.spent.computeIfAbsent(new CardSpendKey(card.getId(), type),
+                key -> new SpendTotalsDto(BigDecimal.ZERO, BigDecimal.ZERO));
+        spent.setDailySpent(spent.getDailySpent().add(item.getAmount()));
+        spent.setMonthlySpent(spent.getMonthlySpent().add(item.getAmount()));
+        return transaction;
+    }
+
+    private static final class ChunkState {
+        private final Map<UUID, Card> cards;
+        private final Map<CardSpendKey, CardLimit> limits;
+        private final Map<CardSpendKey, SpendTotalsDto> spent;
+        private final Map<UUID, Card> changedCards = new LinkedHashMap<>();
+        private final List<Transaction> transactions = new ArrayList<>();
+        // built after the transactions are saved, so the postings can link to their ids
+        private final List<Supplier<LedgerEntry>> ledgerEntries = new ArrayList<>();
+
+        private ChunkState(Map<UUID, Card> cards, Map<CardSpendKey, CardLimit> limits,
+                           Map<CardSpendKey, SpendTotalsDto> spent) {
+            this.cards = cards;
+            this.limits = limits;
+            this.spent = spent;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.transaction.ArchivedTransactionRow;
+import com.example.bankcards.dto.transaction.TransactionExportRow;
+import com.example.bankcards.dto.transaction.TransactionFilterDto;
+import com.example.bankcards.entities.Card;
+import com.example.bankcards.entities.Transaction;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransactionRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.ExportFormat;
+import com.example.bankcards.service.TransactionArchiveService;
+import com.example.bankcards.service.TransactionExportService;
+import com.example.bankcards.service.exception.card.CardNotFoundException;
+import com.example.bankcards.service.exception.transaction.CardOwnershipException;
+import com.example.bankcards.specification.TransactionSpecification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class TransactionExportServiceImpl implements TransactionExportService {
+    private static final String CSV_HEADER = "id,card_id,type,amount,description,timestamp";
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchiveService transactionArchiveService;
+    private final CardRepository cardRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public TransactionExportServiceImpl(TransactionRepository transactionRepository,
+                                        TransactionArchiveService transactionArchiveService,
+                                        CardRepository cardRepository,
+                                        ObjectMapper objectMapper,
+                                        PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.transactionArchiveService = transactionArchiveService;
+        this.cardRepository = cardRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Access checks run immediately so they still turn into a proper error
+     * response; the rows are read later, while the body is being written.
+     * Archived rows are all older than the ones left in the table, so they follow them.
+     */
+    @Override
+    public StreamingResponseBody exportTransactions(TransactionFilterDto filter, ExportFormat format, UserPrincipal user) {
+        applyUserScope(filter, user);
+        Specification<Transaction> specification = TransactionSpecification.withFilters(filter);
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            Long written = readOnlyTransactionTemplate.execute(status -> {
+                long count;
+                try (Stream<TransactionExportRow> rows = transactionRepository.streamForExport(specification)) {
+                    count = write(rows.iterator(), format, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count + transactionArchiveService.forEachNewestFirst(filter, row -> {
+                    try {
+                        writeRow(toExportRow(row), format, writer);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            });
+            writer.flush();
+            log.info("Exported {} transactions as {} for user {}", written, format, user.getId());
+        };
+    }
+
+    private long write(Iterator<TransactionExportRow> rows, ExportFormat format, Writer writer) throws IOException {
+        long count = 0;
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        while (rows.hasNext()) {
+            writeRow(rows.next(), format, writer);
+            count++;
+        }
+        return count;
+    }
+
+    private void writeRow(TransactionExportRow row, ExportFormat format, Writer writer) throws IOException {
+        writer.write(format == ExportFormat.CSV ? toCsv(row) : objectMapper.writeValueAsString(row));
+        writer.write('\n');
+    }
+
+    private static TransactionExportRow toExportRow(ArchivedTransactionRow row) {
+        return new TransactionExportRow(row.id(), row.cardId(), row.type(), row.amount(), row.description(), row.timestamp());
+    }
+
+    private static String toCsv(TransactionExportRow row) {
+        return String.join(",",
+                String.valueOf(row.id()),
+                String.valueOf(row.cardId()),
+                String.valueOf(row.type()),
+                row.amount() == null ? "" : row.amount().toPlainString(),
+                csvField(row.description()),
+                row.timestamp() == null ? "" : row.timestamp().toString());
+    }
+
+    /**
+     * Quotes fields containing separators and defuses values a spreadsheet would
+     * evaluate as a formula.
+     */
+    static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String escaped = "=+-@\t\r".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        if (escaped.chars().anyMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r')) {
+            escaped = "\"" + escaped.replace("\"", "\"\"") + "\"";
+        }
+        return escaped;
+    }
+
+    private void applyUserScope(TransactionFilterDto filter, UserPrincipal user) {
+        if (user.getRoles().contains("ADMIN")) {
+            log.info("Admin {} requested transaction export with filter {}", user.getId(), filter);
+            return;
+        }
+        if (filter.getCardId() != null) {
+            Card card = cardRepository.findById(filter.getCardId())
+                    .orElseThrow(() -> new CardNotFoundException(filter.getCardId()));
+            if (!card.getUser().getId().equals(user.getId())) {
+                log.warn("User {} tried to export transactions of card {} owned by another user", user.getId(), card.getId());
+                throw new CardOwnershipException("Access denied to card");
+            }
+        }
+        filter.setUserId(user.getId());
+        log.info("User {} is not ADMIN. Exporting only own transactions", user.getId());
+    }
+}
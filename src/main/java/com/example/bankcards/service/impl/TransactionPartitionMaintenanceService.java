@@ -0,0 +1,104 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.repository.TransactionPartitionRepository;
+import com.example.bankcards.repository.TransactionPartitionRepository.Partition;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Keeps monthly transactions partitions ahead of the clock and moves partitions that
+ * fall entirely behind the retention horizon out of the table into the archive schema.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionPartitionMaintenanceService {
+
+    private final TransactionPartitionRepository partitionRepository;
+
+    @Value("${spring.application.transaction.partitioning.premake-months:3}")
+    private int premakeMonths;
+
+    @Value("${spring.application.transaction.partitioning.retention-months:0}")
+    private int retentionMonths;
+
+    @Scheduled(initialDelayString = "${spring.application.transaction.partitioning.initial-delay:PT30S}",
+            fixedDelayString = "${spring.application.transaction.partitioning.fixed-delay:PT6H}")
+    public void maintainPartitions() {
+        YearMonth currentMonth = YearMonth.now();
+        int created = createUpcomingPartitions(currentMonth);
+        int archived = archiveExpiredPartitions(currentMonth);
+        if (created > 0 || archived > 0) {
+            log.info("Transaction partition maintenance finished, {} created, {} archived", created, archived);
+        }
+    }
+
+    /**
+     * Creates a partition for every month from {@code currentMonth} to {@code premakeMonths}
+     * ahead that no existing partition (including the legacy one) already covers.
+     */
+    public int createUpcomingPartitions(YearMonth currentMonth) {
+        List<Partition> partitions = partitionRepository.findAll();
+        int created = 0;
+
+        for (int offset = 0; offset <= premakeMonths; offset++) {
+            YearMonth month = currentMonth.plusMonths(offset);
+            LocalDateTime from = month.atDay(1).atStartOfDay();
+            LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+            if (partitions.stream().anyMatch(partition -> partition.overlaps(from, to))) {
+                continue;
+            }
+
+            String name = partitionName(month);
+            try {
+                partitionRepository.createPartition(name, from, to);
+                log.info("Created transactions partition {} for [{}, {})", name, from, to);
+                created++;
+            } catch (RuntimeException e) {
+                log.error("Failed to create transactions partition {}", name, e);
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Detaches partitions whose whole range is older than {@code retentionMonths}; a
+     * non-positive retention, the default, keeps everything. Detached rows are no longer
+     * read by history, cursor or export. The legacy partition holding all pre-migration
+     * rows ends two months after the migration month, so it is only detached once that end
+     * falls behind the horizon, and then all of it at once.
+     */
+    public int archiveExpiredPartitions(YearMonth currentMonth) {
+        if (retentionMonths <= 0) {
+            return 0;
+        }
+        LocalDateTime horizon = currentMonth.minusMonths(retentionMonths).atDay(1).atStartOfDay();
+        int archived = 0;
+
+        for (Partition partition : partitionRepository.findAll()) {
+            if (partition.to() == null || partition.to().isAfter(horizon)) {
+                continue;
+            }
+            try {
+                partitionRepository.detachAndArchive(partition.name());
+                log.info("Moved transactions partition {} to schema {}",
+                        partition.name(), TransactionPartitionRepository.ARCHIVE_SCHEMA);
+                archived++;
+            } catch (RuntimeException e) {
+                log.error("Failed to archive transactions partition {}", partition.name(), e);
+            }
+        }
+        return archived;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("transactions_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+}
@@ -1,13 +1,19 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.dto.transaction.ArchivedTransactionRow;
+import com.example.bankcards.dto.transaction.ArchivedTransactionSlice;
+import com.example.bankcards.dto.transaction.SpendTotalsDto;
+import com.example.bankcards.dto.transaction.TransactionCursor;
 import com.example.bankcards.dto.transaction.TransactionFilterDto;
 import com.example.bankcards.dto.transaction.TransactionRequestDto;
 import com.example.bankcards.dto.transaction.TransactionResponseDto;
+import com.example.bankcards.dto.transaction.TransactionSliceDto;
 import com.example.bankcards.entities.Card;
 import com.example.bankcards.entities.CardLimit;
 import com.example.bankcards.entities.Transaction;
 import com.example.bankcards.entities.enums.CardStatus;
 import com.example.bankcards.entities.enums.TransactionType;
+import com.example.bankcards.factory.LedgerEntryFactory;
 import com.example.bankcards.factory.TransactionFactory;
 import com.example.bankcards.mapper.TransactionMapper;
 import com.example.bankcards.repository.CardLimitRepository;
@@ -15,6 +21,12 @@ import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TransactionRepository;
 import com.example.bankcards.security.UserPrincipal;
 import com.example.bankcards.service.CardCryptoService;
+import com.example.bankcards.service.CardLockingService;
+import com.example.bankcards.service.CardShardExecutor;
+import com.example.bankcards.service.CardSpendService;
+import com.example.bankcards.service.IdempotencyService;
+import com.example.bankcards.service.LedgerService;
+import com.example.bankcards.service.TransactionArchiveService;
 import com.example.bankcards.service.TransactionService;
 import com.example.bankcards.service.exception.card.CardLimitNotFoundException;
 import com.example.bankcards.service.exception.card.CardNotActiveException;
@@ -24,19 +36,27 @@ import com.example.bankcards.specification.TransactionSpecification;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionServiceImpl implements TransactionService {
+    private static final Sort CURSOR_ORDER = Sort.by(Sort.Direction.DESC, "timestamp", "id");
 
     private final TransactionRepository transactionRepository;
     private final CardRepository cardRepository;
@@ -44,12 +64,55 @@ public class TransactionServiceImpl implements TransactionService {
     private final TransactionMapper transactionMapper;
     private final CardCryptoService cardCryptoService;
     private final TransactionFactory transactionFactory;
+    private final CardSpendService cardSpendService;
+    private final CardLockingService cardLockingService;
+    private final TransactionArchiveService transactionArchiveService;
+    private final LedgerService ledgerService;
+    private final LedgerEntryFactory ledgerEntryFactory;
+    private final CardShardExecutor cardShardExecutor;
+    private final IdempotencyService idempotencyService;
 
     @Override
-    @Transactional
-    public void withdraw(UUID cardId, TransactionRequestDto dto, UUID userId) {
+    public void withdraw(UUID cardId, TransactionRequestDto dto, UUID userId, String idempotencyKey) {
+        idempotencyService.execute(userId, idempotencyKey, request(TransactionType.WITHDRAWAL, cardId, null, dto),
+                complete -> cardShardExecutor.execute(cardId, () -> cardLockingService.execute(List.of(cardId), () -> {
+                    doWithdraw(cardId, dto, userId);
+                    complete.run();
+                })));
+    }
+
+    @Override
+    public void transfer(UUID fromCardId, UUID toCardId, TransactionRequestDto dto, UUID userId, String idempotencyKey) {
+        idempotencyService.execute(userId, idempotencyKey, request(TransactionType.TRANSFER, fromCardId, toCardId, dto),
+                complete -> cardShardExecutor.execute(fromCardId, toCardId,
+                        () -> cardLockingService.execute(List.of(fromCardId, toCardId), () -> {
+                            doTransfer(fromCardId, toCardId, dto, userId);
+                            complete.run();
+                        })));
+    }
+
+    @Override
+    public void deposit(UUID cardId, TransactionRequestDto dto, UUID userId, String idempotencyKey) {
+        idempotencyService.execute(userId, idempotencyKey, request(TransactionType.DEPOSIT, cardId, null, dto),
+                complete -> cardShardExecutor.execute(cardId, () -> cardLockingService.execute(List.of(cardId), () -> {
+                    doDeposit(cardId, dto, userId);
+                    complete.run();
+                })));
+    }
+
+    /**
+     * What an idempotency key is bound to: reusing a key for anything else is rejected.
+     */
+    private static String request(TransactionType type, UUID cardId, UUID toCardId, TransactionRequestDto dto) {
+        return String.join("|", type.name(), String.valueOf(cardId), String.valueOf(toCardId),
+                dto.getAmount() == null ? "" : dto.getAmount().stripTrailingZeros().toPlainString(),
+                String.valueOf(dto.getDescription()));
+    }
+
+    private void doWithdraw(UUID cardId, TransactionRequestDto dto, UUID userId) {
         log.info("Attempting withdrawal of {} from card {} by user {}", dto.getAmount(), cardId, userId);
 
+        cardLockingService.lockInOrder(cardId);
         Card card = getValidatedCard(cardId, userId);
 
         if (card.getBalance().compareTo(dto.getAmount()) < 0) {
@@ -62,14 +125,14 @@ public class TransactionServiceImpl implements TransactionService {
         card.setBalance(card.getBalance().subtract(dto.getAmount()));
         saveCards(card);
 
-        transactionRepository.save(transactionFactory.create(dto, card, TransactionType.WITHDRAWAL));
+        Transaction withdrawal = transactionFactory.create(dto, card, TransactionType.WITHDRAWAL);
+        saveTransaction(withdrawal);
+        ledgerService.append(List.of(ledgerEntryFactory.withdrawal(withdrawal)));
 
         log.info("Withdrawal successful: {} withdrawn from card {}", dto.getAmount(), cardId);
     }
 
-    @Override
-    @Transactional
-    public void transfer(UUID fromCardId, UUID toCardId, TransactionRequestDto dto, UUID userId) {
+    private void doTransfer(UUID fromCardId, UUID toCardId, TransactionRequestDto dto, UUID userId) {
         log.info("Attempting transfer of {} from card {} to card {} by user {}", dto.getAmount(), fromCardId, toCardId, userId);
 
         if (fromCardId.equals(toCardId)) {
@@ -77,6 +140,7 @@ public class TransactionServiceImpl implements TransactionService {
             throw new TransferToSameCardException("Cannot transfer to the same card");
         }
 
+        cardLockingService.lockInOrder(fromCardId, toCardId);
         Card fromCard = getValidatedCard(fromCardId, userId);
         Card toCard = getValidatedCard(toCardId, userId);
 
@@ -91,17 +155,19 @@ public class TransactionServiceImpl implements TransactionService {
         toCard.setBalance(toCard.getBalance().add(dto.getAmount()));
         saveCards(fromCard, toCard);
 
-        transactionRepository.save(transactionFactory.create(dto, fromCard, TransactionType.TRANSFER));
-        transactionRepository.save(transactionFactory.create(dto, toCard, TransactionType.DEPOSIT));
+        Transaction outgoing = transactionFactory.create(dto, fromCard, TransactionType.TRANSFER);
+        Transaction incoming = transactionFactory.create(dto, toCard, TransactionType.DEPOSIT);
+        saveTransaction(outgoing);
+        saveTransaction(incoming);
+        ledgerService.append(List.of(ledgerEntryFactory.transfer(outgoing, incoming)));
 
         log.info("Transfer successful: {} transferred from card {} to card {}", dto.getAmount(), fromCardId, toCardId);
     }
 
-    @Override
-    @Transactional
-    public void deposit(UUID cardId, TransactionRequestDto dto, UUID userId) {
+    private void doDeposit(UUID cardId, TransactionRequestDto dto, UUID userId) {
         log.info("Attempting deposit of {} to card {} by user {}", dto.getAmount(), cardId, userId);
 
+        cardLockingService.lockInOrder(cardId);
         Card card = getValidatedCard(cardId, userId);
 
         if (dto.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
@@ -115,13 +181,120 @@ public class TransactionServiceImpl implements TransactionService {
         saveCards(card);
 
         Transaction transaction = transactionFactory.create(dto, card, TransactionType.DEPOSIT);
-        transactionRepository.save(transaction);
+        saveTransaction(transaction);
+        ledgerService.append(List.of(ledgerEntryFactory.deposit(transaction)));
 
         log.info("Deposit successful: {} added to card {}", dto.getAmount(), cardId);
     }
 
+    /**
+     * When archived segments hold matching rows, the first offset + size rows of both sources
+     * are merged in the requested order (newest first when unsorted) and the page cut from that.
+     */
     @Override
+    @Transactional(readOnly = true)
     public Page<TransactionResponseDto> getAllTransactions(TransactionFilterDto filter, Pageable pageable, UserPrincipal user) {
+        applyUserScope(filter, user);
+        Specification<Transaction> specification = TransactionSpecification.withFilters(filter);
+
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : CURSOR_ORDER;
+        Comparator<ArchivedTransactionRow> order = archiveOrder(sort);
+        int window = Math.toIntExact(pageable.getOffset() + pageable.getPageSize());
+        ArchivedTransactionSlice archived = transactionArchiveService.findTop(filter, order, window);
+        if (archived.total() == 0) {
+            return transactionRepository.findAll(specification, pageable)
+                    .map(transactionMapper::convertToTransactionResponseDto);
+        }
+
+        Page<Transaction> hot = transactionRepository.findAll(specification, PageRequest.of(0, window, sort));
+        List<TransactionResponseDto> content = Stream.concat(
+                        hot.getContent().stream().map(TransactionServiceImpl::toArchivedRow),
+                        archived.rows().stream())
+                .sorted(order)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(transactionMapper::convertToTransactionResponseDto)
+                .toList();
+        log.info("Merged {} database and {} archived transactions", hot.getTotalElements(), archived.total());
+
+        return new PageImpl<>(content, pageable, hot.getTotalElements() + archived.total());
+    }
+
+    /**
+     * Archival moves whole days older than the horizon out of the table, so archived rows are
+     * older than every row left in it and the archive is only read once the table runs out.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionSliceDto getTransactionsAfter(TransactionFilterDto filter, String cursor, int size, UserPrincipal user) {
+        applyUserScope(filter, user);
+
+        TransactionCursor after = cursor == null || cursor.isBlank() ? null : TransactionCursor.decode(cursor);
+        Specification<Transaction> specification = TransactionSpecification.withFilters(filter);
+        if (after != null) {
+            specification = specification.and(TransactionSpecification.after(after));
+        }
+
+        List<Transaction> rows = transactionRepository.findBy(specification, query -> query
+                .sortBy(CURSOR_ORDER)
+                .limit(size + 1)
+                .all());
+
+        boolean hasMore = rows.size() > size;
+        List<Transaction> page = hasMore ? rows.subList(0, size) : rows;
+        List<TransactionResponseDto> content = new ArrayList<>(
+                page.stream().map(transactionMapper::convertToTransactionResponseDto).toList());
+        TransactionCursor last = page.isEmpty() ? after
+                : new TransactionCursor(page.get(page.size() - 1).getTimestamp(), page.get(page.size() - 1).getId());
+
+        if (!hasMore) {
+            List<ArchivedTransactionRow> archived = transactionArchiveService.findAfter(filter, last, size + 1 - page.size());
+            hasMore = page.size() + archived.size() > size;
+            List<ArchivedTransactionRow> archivedPage = hasMore ? archived.subList(0, size - page.size()) : archived;
+            archivedPage.stream().map(transactionMapper::convertToTransactionResponseDto).forEach(content::add);
+            if (!archivedPage.isEmpty()) {
+                ArchivedTransactionRow oldest = archivedPage.get(archivedPage.size() - 1);
+                last = new TransactionCursor(oldest.timestamp(), oldest.id());
+            }
+        }
+        log.info("Returning {} transactions, more available: {}", content.size(), hasMore);
+
+        return new TransactionSliceDto(content, hasMore ? last.encode() : null);
+    }
+
+    /**
+     * Same order PostgreSQL applies: nulls last ascending, first descending. Properties the
+     * archive does not store leave archived rows unordered relative to each other.
+     */
+    private static Comparator<ArchivedTransactionRow> archiveOrder(Sort sort) {
+        Comparator<ArchivedTransactionRow> order = (a, b) -> 0;
+        for (Sort.Order sortOrder : sort) {
+            Comparator<ArchivedTransactionRow> property = switch (sortOrder.getProperty()) {
+                case "timestamp" -> Comparator.comparing(ArchivedTransactionRow::timestamp,
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                case "amount" -> Comparator.comparing(ArchivedTransactionRow::amount,
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                case "type" -> Comparator.comparing(row -> row.type() == null ? null : row.type().name(),
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                case "description" -> Comparator.comparing(ArchivedTransactionRow::description,
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                // uuid columns sort by their bytes, which matches the canonical hex string
+                case "id" -> Comparator.comparing(row -> row.id().toString());
+                default -> null;
+            };
+            if (property != null) {
+                order = order.thenComparing(sortOrder.isAscending() ? property : property.reversed());
+            }
+        }
+        return order;
+    }
+
+    private static ArchivedTransactionRow toArchivedRow(Transaction transaction) {
+        return new ArchivedTransactionRow(transaction.getId(), transaction.getCard().getId(), null,
+                transaction.getType(), transaction.getAmount(), transaction.getDescription(), transaction.getTimestamp());
+    }
+
+    private void applyUserScope(TransactionFilterDto filter, UserPrincipal user) {
         if (!user.getRoles().contains("ADMIN")) {
             if (filter.getCardId() != null) {
                 getValidatedCard(filter.getCardId(), user.getId());
@@ -131,11 +304,6 @@ public class TransactionServiceImpl implements TransactionService {
         } else {
             log.info("Admin {} requested transactions with filter {}", user.getId(), filter);
         }
-
-        return transactionRepository.findAll(
-                TransactionSpecification.withFilters(filter),
-                pageable
-        ).map(transactionMapper::convertToTransactionResponseDto);
     }
 
     private Card getValidatedCard(UUID cardId, UUID userId) {
@@ -170,14 +338,9 @@ public class TransactionServiceImpl implements TransactionService {
                     return new CardLimitNotFoundException(card.getId());
                 });
 
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime startOfDay = now.toLocalDate().atStartOfDay();
-        LocalDateTime startOfMonth = now.withDayOfMonth(1).toLocalDate().atStartOfDay();
-
-        List<TransactionType> types = List.of(type);
-
-        BigDecimal dailySpent = transactionRepository.sumAmountByCardAndTimestampAfter(card, startOfDay, types);
-        BigDecimal monthlySpent = transactionRepository.sumAmountByCardAndTimestampAfter(card, startOfMonth, types);
+        SpendTotalsDto spent = cardSpendService.getSpent(card.getId(), type, LocalDate.now());
+        BigDecimal dailySpent = spent.getDailySpent();
+        BigDecimal monthlySpent = spent.getMonthlySpent();
 
         log.info("Card {} daily spent: {}, monthly spent: {}", card.getId(), dailySpent, monthlySpent);
 
@@ -194,7 +357,12 @@ public class TransactionServiceImpl implements TransactionService {
     }
 
     private String showCardNumber(Card card) {
-        return cardCryptoService.maskCardNumberDecrypted(card.getCardNumberEncrypted());
+        return cardCryptoService.maskCard(card);
+    }
+
+    private void saveTransaction(Transaction transaction) {
+        transactionRepository.save(transaction);
+        cardSpendService.recordSpend(transaction);
     }
 
     private void saveCards(Card... cards) {
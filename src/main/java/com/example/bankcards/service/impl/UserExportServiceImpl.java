@@ -0,0 +1,89 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.user.UserFilterDto;
+import com.example.bankcards.dto.user.UserSummary;
+import com.example.bankcards.mapper.UserMapper;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.ExportFormat;
+import com.example.bankcards.service.UserExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class UserExportServiceImpl implements UserExportService {
+    private static final String CSV_HEADER = "id,email,full_name,roles,deleted";
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public UserExportServiceImpl(UserRepository userRepository,
+                                 UserMapper userMapper,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public StreamingResponseBody exportUsers(UserFilterDto filter, ExportFormat format) {
+        log.info("Exporting users with filter {} as {}", filter, format);
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            Long written = readOnlyTransactionTemplate.execute(status -> {
+                try (Stream<UserSummary> rows = userRepository.streamSummaries(filter)) {
+                    return write(rows.iterator(), format, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            log.info("Exported {} users as {}", written, format);
+        };
+    }
+
+    private long write(Iterator<UserSummary> rows, ExportFormat format, Writer writer) throws IOException {
+        long count = 0;
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        while (rows.hasNext()) {
+            UserSummary row = rows.next();
+            writer.write(format == ExportFormat.CSV
+                    ? toCsv(row)
+                    : objectMapper.writeValueAsString(userMapper.convertToUserResponse(row)));
+            writer.write('\n');
+            count++;
+        }
+        return count;
+    }
+
+    private static String toCsv(UserSummary row) {
+        return String.join(",",
+                String.valueOf(row.getId()),
+                TransactionExportServiceImpl.csvField(row.getEmail()),
+                TransactionExportServiceImpl.csvField(row.getFullName()),
+                TransactionExportServiceImpl.csvField(row.getRoles()),
+                String.valueOf(row.isDeleted()));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.dto.user.UserFilterDto;
 import com.example.bankcards.dto.user.UserRequestDto;
 import com.example.bankcards.dto.user.UserResponseDto;
 import com.example.bankcards.entities.Card;
@@ -12,12 +13,15 @@ import com.example.bankcards.mapper.UserMapper;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.RoleRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserPrincipalCache;
 import com.example.bankcards.service.UserService;
 import com.example.bankcards.service.exception.RoleNotFoundException;
 import com.example.bankcards.service.exception.user.UserAlreadyActiveException;
 import com.example.bankcards.service.exception.user.UserNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -37,15 +41,15 @@ public class UserServiceImpl implements UserService {
     private final UserFactory userFactory;
     private final UserUpdater userUpdater;
     private final CardRepository cardRepository;
+    private final UserPrincipalCache userPrincipalCache;
 
     @Override
-    public List<UserResponseDto> viewAllUsers() {
-        log.info("Fetching all users from the database");
-        List<UserResponseDto> users = userRepository.findAll()
-                .stream()
-                .map(userMapper::convertToUserResponse)
-                .collect(Collectors.toList());
-        log.info("Found {} users", users.size());
+    @Transactional(readOnly = true)
+    public Page<UserResponseDto> getUsers(UserFilterDto filter, Pageable pageable) {
+        log.info("Fetching users with filter {} and page {}", filter, pageable);
+        Page<UserResponseDto> users = userRepository.findSummaries(filter, pageable)
+                .map(userMapper::convertToUserResponse);
+        log.info("Found {} users on page {}", users.getNumberOfElements(), pageable.getPageNumber());
         return users;
     }
 
@@ -90,6 +94,7 @@ public class UserServiceImpl implements UserService {
 
         userUpdater.updateUserFromDto(existing, userDto);
         User updated = userRepository.save(existing);
+        userPrincipalCache.refresh(updated);
 
         log.info("User with id {} updated successfully", id);
         return userMapper.convertToUserResponse(updated);
@@ -107,6 +112,7 @@ public class UserServiceImpl implements UserService {
         List<Card> userCards = cardRepository.findAllByUserId(userId);
         setStatusAndDeletedForUserCards(userCards, CardStatus.BLOCKED, true);
         userRepository.save(user);
+        userPrincipalCache.refresh(user);
 
         log.info("User with id {} and their {} cards marked as deleted", userId, userCards.size());
     }
@@ -128,6 +134,7 @@ public class UserServiceImpl implements UserService {
         List<Card> userCards = cardRepository.findAllByUserId(userId);
         setStatusAndDeletedForUserCards(userCards, CardStatus.ACTIVE, false);
         userRepository.save(user);
+        userPrincipalCache.refresh(user);
 
         log.info("User with id {} and their {} cards marked as active", userId, userCards.size());
     }
@@ -1,5 +1,6 @@
 package com.example.bankcards.specification;
 
+import com.example.bankcards.dto.transaction.TransactionCursor;
 import com.example.bankcards.dto.transaction.TransactionFilterDto;
 import com.example.bankcards.entities.Transaction;
 import jakarta.persistence.criteria.Predicate;
@@ -44,5 +45,19 @@ public class TransactionSpecification {
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    /**
+     * Rows strictly after the cursor in (timestamp DESC, id DESC) order. The redundant
+     * upper bound on timestamp lets PostgreSQL prune newer partitions outright.
+     */
+    public static Specification<Transaction> after(TransactionCursor cursor) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.lessThanOrEqualTo(root.get("timestamp"), cursor.timestamp()),
+                criteriaBuilder.or(
+                        criteriaBuilder.lessThan(root.get("timestamp"), cursor.timestamp()),
+                        criteriaBuilder.and(
+                                criteriaBuilder.equal(root.get("timestamp"), cursor.timestamp()),
+                                criteriaBuilder.lessThan(root.get("id"), cursor.id()))));
+    }
 }
 
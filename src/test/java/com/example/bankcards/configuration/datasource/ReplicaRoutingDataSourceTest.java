@@ -0,0 +1,113 @@
+package com.example.bankcards.configuration.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two embedded PostgreSQL instances stand in for the primary and the replica; the
+ * server port tells which one served a query.
+ */
+class ReplicaRoutingDataSourceTest {
+    private static final String SERVER_PORT = "SELECT inet_server_port()";
+
+    private static EmbeddedPostgres primary;
+    private static EmbeddedPostgres replica;
+    private static HikariDataSource primaryPool;
+    private static HikariDataSource replicaPool;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        primary = EmbeddedPostgres.builder().start();
+        replica = EmbeddedPostgres.builder().start();
+        primaryPool = pool(primary.getJdbcUrl("postgres", "postgres"));
+        replicaPool = pool(replica.getJdbcUrl("postgres", "postgres"));
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        primaryPool.close();
+        replicaPool.close();
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUseReplica() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaPool, Duration.ofSeconds(1));
+        monitor.refresh();
+        DataSource routing = routing(replicaPool, monitor);
+
+        assertTrue(monitor.isUsable());
+        assertEquals(replica.getPort(), serverPort(routing, true));
+        assertEquals(primary.getPort(), serverPort(routing, false));
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUsePrimary_beforeFirstLagCheck() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaPool, Duration.ofSeconds(1));
+
+        assertEquals(primary.getPort(), serverPort(routing(replicaPool, monitor), true));
+    }
+
+    @Test
+    void readOnlyTransaction_shouldFallBackToPrimary_whenReplicaIsDown() throws IOException {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaPool, Duration.ofSeconds(1));
+        monitor.refresh();
+        try (HikariDataSource downReplica = pool("jdbc:postgresql://localhost:" + freePort() + "/postgres")) {
+            assertEquals(primary.getPort(), serverPort(routing(downReplica, monitor), true));
+        }
+
+        assertFalse(monitor.isUsable());
+    }
+
+    @Test
+    void lagCheck_shouldMarkReplicaUnusable_whenItCannotBeReached() throws IOException {
+        try (HikariDataSource downReplica = pool("jdbc:postgresql://localhost:" + freePort() + "/postgres")) {
+            ReplicaLagMonitor monitor = new ReplicaLagMonitor(downReplica, Duration.ofSeconds(1));
+            monitor.refresh();
+
+            assertFalse(monitor.isUsable());
+        }
+    }
+
+    private static DataSource routing(DataSource replicaDataSource, ReplicaLagMonitor monitor) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryPool, replicaDataSource, monitor));
+    }
+
+    private static int serverPort(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> new JdbcTemplate(dataSource).queryForObject(SERVER_PORT, Integer.class));
+    }
+
+    private static HikariDataSource pool(String url) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername("postgres");
+        dataSource.setConnectionTimeout(250);
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
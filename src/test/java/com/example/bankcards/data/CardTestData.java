@@ -46,6 +46,8 @@ public class CardTestData {
     public static Card buildCardSaved(){
         Card card = buildCard();
         card.setCardNumberEncrypted("ENCRYPTED");
+        card.setCardNumberLast4("3456");
+        card.setCardNumberFingerprint("FINGERPRINT");
         return card;
     }
 
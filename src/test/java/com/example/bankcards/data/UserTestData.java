@@ -3,6 +3,7 @@ package com.example.bankcards.data;
 import com.example.bankcards.dto.auth.AuthenticationDto;
 import com.example.bankcards.dto.user.UserRequestDto;
 import com.example.bankcards.dto.user.UserResponseDto;
+import com.example.bankcards.dto.user.UserSummary;
 import com.example.bankcards.entities.User;
 import com.example.bankcards.security.UserPrincipal;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -55,6 +56,30 @@ public class UserTestData {
                 .build();
     }
 
+    public static UserSummary buildUserSummary(String fullName, String roles) {
+        return new UserSummary() {
+            public UUID getId() {
+                return ID;
+            }
+
+            public String getEmail() {
+                return "test@example.com";
+            }
+
+            public String getFullName() {
+                return fullName;
+            }
+
+            public boolean isDeleted() {
+                return false;
+            }
+
+            public String getRoles() {
+                return roles;
+            }
+        };
+    }
+
     public static UserResponseDto buildUserResponseForUpdate() {
         return UserResponseDto.builder()
                 .id(ID)
@@ -0,0 +1,46 @@
+package com.example.bankcards.entities.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void next_shouldSetVersionAndVariant() {
+        UUID id = UuidV7Generator.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    void next_shouldEmbedCurrentUnixMillis() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        // a burst of more than 4096 ids per millisecond may run the clock slightly ahead
+        assertTrue(timestamp >= before && timestamp <= System.currentTimeMillis() + 1_000,
+                () -> "Unexpected timestamp " + timestamp);
+    }
+
+    @Test
+    void next_shouldBeStrictlyIncreasingInDatabaseOrder() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(UuidV7Generator.next());
+        }
+
+        // PostgreSQL compares uuid values as unsigned bytes, which for v7 is the time-ordered high half
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(Long.compareUnsigned(ids.get(i - 1).getMostSignificantBits(),
+                    ids.get(i).getMostSignificantBits()) < 0, "ids must be strictly increasing at " + i);
+        }
+    }
+}
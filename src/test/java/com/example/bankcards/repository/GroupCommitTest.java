@@ -0,0 +1,152 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.BankCardsApplication;
+import com.example.bankcards.dto.transaction.TransactionRequestDto;
+import com.example.bankcards.service.TransactionService;
+import com.example.bankcards.service.exception.transaction.InsufficientFundsException;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs concurrent deposits and withdrawals with group commit enabled against an embedded
+ * PostgreSQL and checks that rejected operations are rolled back to their savepoint
+ * without affecting the rest of their group.
+ */
+class GroupCommitTest {
+    private static final int OPERATIONS = 20;
+
+    private static EmbeddedPostgres postgres;
+    private static ConfigurableApplicationContext context;
+    private static JdbcTemplate jdbcTemplate;
+
+    private static UUID userId;
+    private static UUID cardId;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(BankCardsApplication.class)
+                .web(WebApplicationType.NONE)
+                // command-line arguments, unlike default properties, take precedence over application.yaml
+                .run(
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=",
+                        "--spring.application.transaction.partitioning.initial-delay=PT1H",
+                        "--spring.application.security.crypto.digest-backfill.initial-delay=PT1H",
+                        "--spring.application.transaction.group-commit.enabled=true",
+                        "--spring.application.transaction.group-commit.window=PT0.05S",
+                        "--spring.application.transaction.group-commit.max-batch-size=" + OPERATIONS,
+                        "--logging.level.root=WARN");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        seed();
+        Map<String, Object> card = jdbcTemplate.queryForMap("SELECT id, user_id FROM cards LIMIT 1");
+        cardId = (UUID) card.get("id");
+        userId = (UUID) card.get("user_id");
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void concurrentOperations_shouldShareCommitsAndIsolateRejections() throws Exception {
+        TransactionService transactionService = context.getBean(TransactionService.class);
+        Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ExecutorService callers = Executors.newFixedThreadPool(OPERATIONS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            boolean deposit = i % 2 == 0;
+            results.add(callers.submit(() -> {
+                start.await();
+                if (deposit) {
+                    transactionService.deposit(cardId, request("10.00"), userId);
+                } else {
+                    transactionService.withdraw(cardId, request("500.00"), userId);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+
+        int rejected = 0;
+        for (Future<?> result : results) {
+            try {
+                result.get(1, TimeUnit.MINUTES);
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(InsufficientFundsException.class);
+                rejected++;
+            }
+        }
+        callers.shutdown();
+
+        // 1000 + 10 * 10 allows exactly two withdrawals of 500, whatever the order
+        assertThat(rejected).isEqualTo(8);
+        assertThat(jdbcTemplate.queryForObject("SELECT balance FROM cards WHERE id = ?", BigDecimal.class, cardId))
+                .isEqualByComparingTo("100.00");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM transactions WHERE card_id = ?", Long.class, cardId))
+                .isEqualTo(12L);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM ledger_postings WHERE account_id = ?", Long.class, cardId))
+                .isEqualTo(12L);
+        assertThat(statistics.getSuccessfulTransactionCount()).isLessThan(OPERATIONS);
+    }
+
+    private static TransactionRequestDto request(String amount) {
+        return TransactionRequestDto.builder()
+                .amount(new BigDecimal(amount))
+                .description("Group commit")
+                .build();
+    }
+
+    private static void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO users (id, email, password, full_name, deleted)
+                VALUES (uuid_generate_v4(), 'group@example.com', 'password', 'Group Commit', false)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO cards (id, user_id, card_number_encrypted, card_number_last4, card_number_fingerprint,
+                                   expiration_date, status, balance, is_deleted, requested_for_blocking, version)
+                SELECT uuid_generate_v4(), u.id, md5(random()::text), '0000', md5(random()::text),
+                       current_date + 365, 'ACTIVE', 1000.00, false, false, 0
+                FROM users u
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO card_limits (id, card_id, transaction_type, daily_limit, monthly_limit)
+                SELECT uuid_generate_v4(), c.id, t.type, 100000.00, 100000.00
+                FROM cards c, unnest(ARRAY['WITHDRAWAL', 'TRANSFER', 'DEPOSIT']) AS t(type)
+                """);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.BankCardsApplication;
+import com.example.bankcards.dto.card.CardFilterDto;
+import com.example.bankcards.dto.transaction.TransactionFilterDto;
+import com.example.bankcards.dto.user.UserFilterDto;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.CardLimitService;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.TransactionService;
+import com.example.bankcards.service.UserService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Starts the application against an embedded PostgreSQL with a few users, cards and
+ * transactions and checks, through Hibernate statistics, that every listing runs a fixed
+ * number of SQL statements instead of one more per row.
+ */
+class ListStatementCountTest {
+
+    private static EmbeddedPostgres postgres;
+    private static ConfigurableApplicationContext context;
+    private static Statistics statistics;
+
+    private static UUID userId;
+    private static UUID cardId;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(BankCardsApplication.class)
+                .web(WebApplicationType.NONE)
+                // command-line arguments, unlike default properties, take precedence over application.yaml
+                .run(
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=",
+                        "--spring.application.transaction.partitioning.initial-delay=PT1H",
+                        "--spring.application.security.crypto.digest-backfill.initial-delay=PT1H",
+                        "--logging.level.root=WARN");
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        seed(context.getBean(JdbcTemplate.class));
+        Map<String, Object> card = context.getBean(JdbcTemplate.class).queryForMap("SELECT id, user_id FROM cards LIMIT 1");
+        cardId = (UUID) card.get("id");
+        userId = (UUID) card.get("user_id");
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void getAllCards_shouldRunPageAndCountQueries() {
+        assertStatements(2, () -> context.getBean(CardService.class)
+                .getAllCards(new CardFilterDto(), PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void getUserCards_shouldRunOneQuery() {
+        assertStatements(1, () -> context.getBean(CardService.class).getUserCards(userId));
+    }
+
+    @Test
+    void getAllTransactions_shouldRunArchiveLookupPageAndCountQueries() {
+        // smaller than the user's 15 transactions, a partial first page would skip the count query
+        assertStatements(3, () -> context.getBean(TransactionService.class)
+                .getAllTransactions(new TransactionFilterDto(), PageRequest.of(0, 10), principal("ADMIN")));
+        assertStatements(3, () -> context.getBean(TransactionService.class)
+                .getAllTransactions(new TransactionFilterDto(), PageRequest.of(0, 10), principal("USER")));
+    }
+
+    @Test
+    void getTransactionsAfter_shouldRunOneQuery() {
+        assertStatements(1, () -> context.getBean(TransactionService.class)
+                .getTransactionsAfter(new TransactionFilterDto(), null, 20, principal("ADMIN")));
+    }
+
+    @Test
+    void getUsers_shouldFetchRolesInThePageQuery() {
+        assertStatements(2, () -> context.getBean(UserService.class)
+                .getUsers(new UserFilterDto(), PageRequest.of(0, 5, Sort.by("email"))));
+    }
+
+    @Test
+    void getCardLimit_shouldServeRepeatedLookupsFromCache() {
+        CardLimitService cardLimitService = context.getBean(CardLimitService.class);
+
+        assertStatements(2, () -> cardLimitService.getCardLimit(cardId, userId, List.of("USER")));
+        assertStatements(1, () -> cardLimitService.getCardLimit(cardId, userId, List.of("USER")));
+    }
+
+    private static void assertStatements(long expected, Runnable call) {
+        statistics.clear();
+        call.run();
+        assertEquals(expected, statistics.getPrepareStatementCount());
+    }
+
+    private static UserPrincipal principal(String role) {
+        return new UserPrincipal(userId, "user@example.com", null, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("""
+                INSERT INTO users (id, email, password, full_name, deleted)
+                SELECT uuid_generate_v4(), 'user' || g || '@example.com', 'password', 'User ' || g, false
+                FROM generate_series(1, 10) g
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO user_roles (user_id, role_id)
+                SELECT u.id, r.id FROM users u, roles r
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO cards (id, user_id, card_number_encrypted, card_number_last4, card_number_fingerprint,
+                                   expiration_date, status, balance, is_deleted, requested_for_blocking, version)
+                SELECT uuid_generate_v4(), u.id, md5(random()::text), '0000', md5(random()::text),
+                       current_date + 365, 'ACTIVE', 1000.00, false, false, 0
+                FROM users u, generate_series(1, 3)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO transactions (id, card_id, type, amount, description, timestamp)
+                SELECT uuid_generate_v4(), c.id, 'DEPOSIT', 10.00, 'Seed', now() - g * interval '1 hour'
+                FROM cards c, generate_series(1, 5) g
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO card_limits (id, card_id, transaction_type, daily_limit, monthly_limit)
+                SELECT uuid_generate_v4(), c.id, t.type, 1000.00, 10000.00
+                FROM cards c, unnest(ARRAY['WITHDRAWAL', 'TRANSFER', 'DEPOSIT']) AS t(type)
+                """);
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.bankcards.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the Liquibase changelog against an embedded PostgreSQL, seeds a few hundred
+ * thousand rows and checks that the hot lookup paths are planned on their indexes
+ * and that date-bounded transaction queries are pruned to the matching partitions.
+ */
+class QueryPlanTest {
+
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionPartitionRepository partitionRepository;
+
+    private static UUID userId;
+    private static UUID cardId;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(postgres.getPostgresDatabase());
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        partitionRepository = new TransactionPartitionRepository(jdbcTemplate);
+        YearMonth firstMonthlyPartition = YearMonth.now().plusMonths(2);
+        partitionRepository.createPartition("transactions_y_test",
+                firstMonthlyPartition.atDay(1).atStartOfDay(),
+                firstMonthlyPartition.plusMonths(1).atDay(1).atStartOfDay());
+        seed();
+
+        Map<String, Object> card = jdbcTemplate.queryForMap(
+                "SELECT id, user_id FROM cards WHERE is_deleted = false LIMIT 1");
+        cardId = (UUID) card.get("id");
+        userId = (UUID) card.get("user_id");
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void spendSum_shouldUseCardTypeTimestampIndex() {
+        assertUsesIndex("ix_transactions_card_id_type_timestamp",
+                "SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE card_id = ? AND type = ? AND timestamp >= ?",
+                cardId, "WITHDRAWAL", LocalDateTime.now().minusDays(1));
+    }
+
+    @Test
+    void cardHistoryPage_shouldUseCardTimestampIdIndex() {
+        assertUsesIndex("ix_transactions_card_id_timestamp_id",
+                "SELECT * FROM transactions WHERE card_id = ? ORDER BY timestamp DESC, id DESC LIMIT 21",
+                cardId);
+    }
+
+    @Test
+    void historyPage_shouldUseTimestampIdIndex() {
+        assertUsesIndex("ix_transactions_timestamp_id",
+                "SELECT * FROM transactions ORDER BY timestamp DESC, id DESC LIMIT 21");
+    }
+
+    @Test
+    void cardLimitLookup_shouldUseCardTypeUniqueConstraint() {
+        assertUsesIndex("uc_card_transaction_type_unique",
+                "SELECT * FROM card_limits WHERE card_id = ? AND transaction_type = ?",
+                cardId, "WITHDRAWAL");
+    }
+
+    @Test
+    void userCards_shouldUsePartialNotDeletedIndex() {
+        assertUsesIndex("ix_cards_user_id_not_deleted",
+                "SELECT * FROM cards WHERE user_id = ? AND is_deleted = false",
+                userId);
+    }
+
+    @Test
+    void expiredActiveCards_shouldUsePartialActiveIndex() {
+        assertUsesIndex("ix_cards_active_expiration_date",
+                "SELECT * FROM cards WHERE status = 'ACTIVE' AND is_deleted = false AND expiration_date < current_date");
+    }
+
+    @Test
+    void cardNumberLookup_shouldUseFingerprintIndex() {
+        assertUsesIndex("ux_cards_card_number_fingerprint",
+                "SELECT EXISTS (SELECT 1 FROM cards WHERE card_number_fingerprint = ?)",
+                "missing-fingerprint");
+    }
+
+    @Test
+    void refreshTokenLookup_shouldUseUserIpIndex() {
+        assertUsesIndex("ix_refresh_tokens_user_id_ip_address",
+                "SELECT * FROM refresh_tokens WHERE user_id = ? AND ip_address = ?",
+                userId, "10.0.0.1");
+    }
+
+    @Test
+    void transactionsTable_shouldBePartitionedWithLegacyPartitionFirst() {
+        List<TransactionPartitionRepository.Partition> partitions = partitionRepository.findAll();
+
+        assertEquals(2, partitions.size());
+        assertEquals("transactions_legacy", partitions.get(0).name());
+        assertNull(partitions.get(0).from());
+        assertEquals(partitions.get(0).to(), partitions.get(1).from());
+    }
+
+    @Test
+    void historyDateRange_shouldPruneFuturePartitions() {
+        String plan = explain("SELECT * FROM transactions WHERE timestamp >= ? AND timestamp <= ?",
+                LocalDateTime.now().minusDays(30), LocalDateTime.now());
+
+        assertTrue(plan.contains("transactions_legacy"), () -> "Expected legacy partition in plan:\n" + plan);
+        assertFalse(plan.contains("transactions_y_test"), () -> "Unexpected future partition in plan:\n" + plan);
+    }
+
+    @Test
+    void futureDateRange_shouldPruneLegacyPartition() {
+        LocalDateTime from = YearMonth.now().plusMonths(2).atDay(1).atStartOfDay();
+        String plan = explain("SELECT * FROM transactions WHERE card_id = ? AND timestamp >= ? AND timestamp <= ?",
+                cardId, from, from.plusDays(7));
+
+        assertTrue(plan.contains("transactions_y_test"), () -> "Expected monthly partition in plan:\n" + plan);
+        assertFalse(plan.contains("transactions_legacy"), () -> "Unexpected legacy partition in plan:\n" + plan);
+    }
+
+    private static void assertUsesIndex(String indexName, String sql, Object... args) {
+        String plan = explain(sql, args);
+
+        assertTrue(plan.contains(indexName), () -> "Expected " + indexName + " in plan:\n" + plan);
+        // partitions that are still empty are legitimately seq-scanned
+        Matcher seqScan = SEQ_SCAN.matcher(plan);
+        while (seqScan.find()) {
+            String relation = seqScan.group(1);
+            assertFalse(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + relation + ")", Boolean.class),
+                    () -> "Unexpected sequential scan on " + relation + " in plan:\n" + plan);
+        }
+    }
+
+    private static String explain(String sql, Object... args) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+    }
+
+    private static void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO users (id, email, password, full_name, deleted)
+                SELECT uuid_generate_v4(), 'user' || g || '@example.com', 'password', 'User ' || g, false
+                FROM generate_series(1, 5000) g
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO cards (id, user_id, card_number_encrypted, card_number_last4, card_number_fingerprint,
+                                   expiration_date, status, balance, is_deleted)
+                SELECT uuid_generate_v4(), u.id, md5(random()::text), '0000', md5(random()::text),
+                       current_date + (random() * 3000)::int - 10,
+                       CASE WHEN random() < 0.05 THEN 'BLOCKED' ELSE 'ACTIVE' END,
+                       1000.00, random() < 0.1
+                FROM users u, generate_series(1, 4)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO transactions (id, card_id, type, amount, description, timestamp)
+                SELECT uuid_generate_v4(), c.id, (ARRAY['WITHDRAWAL', 'TRANSFER', 'DEPOSIT'])[1 + (random() * 2)::int],
+                       round((random() * 100)::numeric, 2), 'Seed', now() - random() * interval '180 days'
+                FROM cards c, generate_series(1, 20)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO card_limits (id, card_id, transaction_type, daily_limit, monthly_limit)
+                SELECT uuid_generate_v4(), c.id, t.type, 1000.00, 10000.00
+                FROM cards c, unnest(ARRAY['WITHDRAWAL', 'TRANSFER', 'DEPOSIT']) AS t(type)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO refresh_tokens (id, token, ip_address, expiry_date, user_id)
+                SELECT uuid_generate_v4(), md5(random()::text), '10.0.0.' || g, now() + interval '7 days', u.id
+                FROM users u, generate_series(1, 3) g
+                """);
+        jdbcTemplate.execute("VACUUM ANALYZE");
+        // the database-wide pass can leave the legacy partition's visibility map unset, ruling out index-only scans
+        jdbcTemplate.execute("VACUUM transactions_legacy");
+    }
+}
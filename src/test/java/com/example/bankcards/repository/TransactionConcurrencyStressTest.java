@@ -0,0 +1,222 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.BankCardsApplication;
+import com.example.bankcards.dto.transaction.TransactionRequestDto;
+import com.example.bankcards.service.ConcurrencyMode;
+import com.example.bankcards.service.TransactionService;
+import com.example.bankcards.service.exception.transaction.ConcurrentCardUpdateException;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers two cards with concurrent deposits and transfers in both directions against
+ * an embedded PostgreSQL, once per concurrency mode and once sharded, then checks that
+ * no update was lost. The throughput of every run is logged.
+ */
+@Slf4j
+class TransactionConcurrencyStressTest {
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1_000_000);
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 300;
+    private static final int TOTAL_OPERATIONS = THREADS * OPERATIONS_PER_THREAD;
+    /**
+     * Optimistic mode retries a conflicting update {@code max-attempts} times and then gives up,
+     * so on two hot cards many operations end as unresolved conflicts: a little under 60% with the
+     * default three attempts, well over 80% without retries. The bound sits between the two.
+     */
+    private static final int MAX_OPTIMISTIC_CONFLICTS = TOTAL_OPERATIONS * 2 / 3;
+
+    private static EmbeddedPostgres postgres;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ConcurrencyMode.class)
+    void concurrentDepositsAndTransfers_shouldNotLoseUpdates(ConcurrencyMode mode) throws Exception {
+        try (ConfigurableApplicationContext context = start(
+                "--spring.application.transaction.concurrency.mode=" + mode)) {
+            Outcome outcome = hammer(context, mode.name());
+
+            assertThat(outcome.failures()).as(outcome.summary()).isZero();
+            if (mode == ConcurrencyMode.PESSIMISTIC) {
+                assertThat(outcome.conflicts()).as(outcome.summary()).isZero();
+            } else {
+                assertThat(outcome.conflicts()).as(outcome.summary()).isLessThanOrEqualTo(MAX_OPTIMISTIC_CONFLICTS);
+            }
+        }
+    }
+
+    @Test
+    void concurrentDepositsAndTransfers_shouldNotConflict_whenSharded() throws Exception {
+        try (ConfigurableApplicationContext context = start(
+                "--spring.application.transaction.concurrency.mode=" + ConcurrencyMode.OPTIMISTIC,
+                "--spring.application.transaction.sharding.enabled=true",
+                "--spring.application.transaction.sharding.shards=4",
+                "--spring.application.transaction.sharding.queue-capacity=" + TOTAL_OPERATIONS)) {
+            Outcome outcome = hammer(context, "SHARDED");
+
+            assertThat(outcome.failures()).as(outcome.summary()).isZero();
+            assertThat(outcome.conflicts()).as(outcome.summary()).isZero();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String... overrides) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--spring.application.transaction.partitioning.initial-delay=PT1H",
+                "--spring.application.security.crypto.digest-backfill.initial-delay=PT1H",
+                "--logging.level.root=WARN",
+                "--logging.level." + TransactionConcurrencyStressTest.class.getName() + "=INFO"));
+        args.addAll(List.of(overrides));
+        // command-line arguments, unlike default properties, take precedence over application.yaml
+        return new SpringApplicationBuilder(BankCardsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Runs the mixed workload on two fresh cards and checks their final balances.
+     */
+    private static Outcome hammer(ConfigurableApplicationContext context, String label) throws Exception {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        TransactionService transactionService = context.getBean(TransactionService.class);
+
+        UUID userId = UUID.randomUUID();
+        UUID cardA = UUID.randomUUID();
+        UUID cardB = UUID.randomUUID();
+        seed(jdbcTemplate, userId, cardA, cardB);
+
+        TransactionRequestDto one = TransactionRequestDto.builder()
+                .amount(BigDecimal.ONE)
+                .description("stress")
+                .build();
+        AtomicInteger deposits = new AtomicInteger();
+        AtomicInteger transfersToB = new AtomicInteger();
+        AtomicInteger transfersToA = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    try {
+                        switch (i % 3) {
+                            case 0 -> {
+                                transactionService.deposit(cardA, one, userId);
+                                deposits.incrementAndGet();
+                            }
+                            case 1 -> {
+                                transactionService.transfer(cardA, cardB, one, userId);
+                                transfersToB.incrementAndGet();
+                            }
+                            default -> {
+                                transactionService.transfer(cardB, cardA, one, userId);
+                                transfersToA.incrementAndGet();
+                            }
+                        }
+                    } catch (ConcurrentCardUpdateException e) {
+                        conflicts.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        pool.shutdown();
+
+        Outcome outcome = new Outcome(label, conflicts.get(), failures.get(), elapsed);
+        log.info(outcome.summary());
+        BigDecimal expectedA = INITIAL_BALANCE
+                .add(BigDecimal.valueOf(deposits.get()))
+                .subtract(BigDecimal.valueOf(transfersToB.get()))
+                .add(BigDecimal.valueOf(transfersToA.get()));
+        BigDecimal expectedB = INITIAL_BALANCE
+                .add(BigDecimal.valueOf(transfersToB.get()))
+                .subtract(BigDecimal.valueOf(transfersToA.get()));
+
+        assertThat(deposits.get() + transfersToB.get() + transfersToA.get() + conflicts.get() + failures.get())
+                .as(outcome.summary()).isEqualTo(TOTAL_OPERATIONS);
+        assertThat(balanceOf(jdbcTemplate, cardA)).as(outcome.summary()).isEqualByComparingTo(expectedA);
+        assertThat(balanceOf(jdbcTemplate, cardB)).as(outcome.summary()).isEqualByComparingTo(expectedB);
+        return outcome;
+    }
+
+    private static BigDecimal balanceOf(JdbcTemplate jdbcTemplate, UUID cardId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM cards WHERE id = ?", BigDecimal.class, cardId);
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, UUID userId, UUID cardA, UUID cardB) {
+        jdbcTemplate.update("""
+                INSERT INTO users (id, email, password, full_name, deleted)
+                VALUES (?, ?, 'password', 'Stress Test', false)
+                """, userId, userId + "@example.com");
+        jdbcTemplate.update("""
+                INSERT INTO cards (id, user_id, card_number_encrypted, card_number_last4, card_number_fingerprint,
+                                   expiration_date, status, balance, is_deleted, requested_for_blocking, version)
+                SELECT c.id, ?, md5(random()::text), '0000', md5(random()::text),
+                       current_date + 365, 'ACTIVE', ?, false, false, 0
+                FROM unnest(ARRAY[?, ?]::uuid[]) AS c(id)
+                """, userId, INITIAL_BALANCE, cardA, cardB);
+        jdbcTemplate.update("""
+                INSERT INTO card_limits (id, card_id, transaction_type, daily_limit, monthly_limit)
+                SELECT uuid_generate_v4(), c.id, t.type, ?, ?
+                FROM unnest(ARRAY[?, ?]::uuid[]) AS c(id), unnest(ARRAY['WITHDRAWAL', 'TRANSFER', 'DEPOSIT']) AS t(type)
+                """, INITIAL_BALANCE, INITIAL_BALANCE, cardA, cardB);
+    }
+
+    private record Outcome(String label, int conflicts, int failures, Duration elapsed) {
+
+        private String summary() {
+            return "%s: %d operations in %d ms (%.0f ops/s), %d unresolved conflicts, %d other failures".formatted(
+                    label, TOTAL_OPERATIONS, elapsed.toMillis(), TOTAL_OPERATIONS * 1e9 / elapsed.toNanos(),
+                    conflicts, failures);
+        }
+    }
+}
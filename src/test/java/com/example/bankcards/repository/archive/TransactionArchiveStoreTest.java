@@ -0,0 +1,117 @@
+package com.example.bankcards.repository.archive;
+
+import com.example.bankcards.dto.transaction.ArchivedTransactionRow;
+import com.example.bankcards.entities.enums.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionArchiveStoreTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    @TempDir
+    Path directory;
+
+    private TransactionArchiveStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new TransactionArchiveStore(directory.toString());
+    }
+
+    @Test
+    void scan_shouldReturnWrittenRowsAcrossBlocks() throws IOException {
+        UUID cardId = UUID.randomUUID();
+        List<ArchivedTransactionRow> written = new ArrayList<>();
+        for (int i = 0; i < TransactionSegmentWriter.BLOCK_ROWS + 10; i++) {
+            written.add(row(cardId, DAY.plusSeconds(i), i % 3 == 0 ? null : "Coffee " + i));
+        }
+
+        write("segment.seg", written);
+        List<ArchivedTransactionRow> read = new ArrayList<>();
+        store.scan("segment.seg", null, null, null, null, read::add);
+
+        assertEquals(written, read);
+    }
+
+    @Test
+    void scan_shouldSkipBlocksOfOtherCards() throws IOException {
+        UUID first = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        UUID second = UUID.fromString("ffffffff-0000-0000-0000-000000000001");
+        List<ArchivedTransactionRow> written = new ArrayList<>();
+        for (int i = 0; i < TransactionSegmentWriter.BLOCK_ROWS; i++) {
+            written.add(row(first, DAY.plusSeconds(i), "First"));
+        }
+        written.add(row(second, DAY, "Second"));
+
+        write("segment.seg", written);
+        List<ArchivedTransactionRow> read = new ArrayList<>();
+        store.scan("segment.seg", null, second, null, null, read::add);
+
+        assertEquals(List.of(written.get(written.size() - 1)), read);
+    }
+
+    @Test
+    void scan_shouldSkipBlocksOfOtherUsers() throws IOException {
+        UUID first = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        UUID second = UUID.fromString("ffffffff-0000-0000-0000-000000000001");
+        UUID cardId = UUID.randomUUID();
+        List<ArchivedTransactionRow> written = new ArrayList<>();
+        for (int i = 0; i < TransactionSegmentWriter.BLOCK_ROWS; i++) {
+            written.add(new ArchivedTransactionRow(UUID.randomUUID(), cardId, first, TransactionType.WITHDRAWAL,
+                    new BigDecimal("12.34"), "First", DAY.plusSeconds(i)));
+        }
+        ArchivedTransactionRow last = new ArchivedTransactionRow(UUID.randomUUID(), cardId, second,
+                TransactionType.DEPOSIT, BigDecimal.ONE, "Second", DAY);
+        written.add(last);
+
+        write("segment.seg", written);
+        List<ArchivedTransactionRow> read = new ArrayList<>();
+        store.scan("segment.seg", second, null, null, null, read::add);
+
+        assertEquals(List.of(last), read);
+    }
+
+    @Test
+    void deleteUnreferenced_shouldKeepReferencedAndRecentFiles() throws IOException {
+        write("kept.seg", List.of(row(UUID.randomUUID(), DAY, "Kept")));
+        write("orphan.seg", List.of(row(UUID.randomUUID(), DAY, "Orphan")));
+        Files.writeString(directory.resolve("notes.txt"), "not a segment");
+
+        assertEquals(0, store.deleteUnreferenced(Set.of("kept.seg"), Duration.ofHours(1)));
+        assertEquals(1, store.deleteUnreferenced(Set.of("kept.seg"), Duration.ZERO));
+
+        assertTrue(Files.exists(directory.resolve("kept.seg")));
+        assertFalse(Files.exists(directory.resolve("orphan.seg")));
+        assertTrue(Files.exists(directory.resolve("notes.txt")));
+    }
+
+    private void write(String fileName, List<ArchivedTransactionRow> rows) throws IOException {
+        try (TransactionSegmentWriter writer = store.create(fileName)) {
+            for (ArchivedTransactionRow row : rows) {
+                writer.append(row);
+            }
+        }
+        store.publish(fileName);
+    }
+
+    private static ArchivedTransactionRow row(UUID cardId, LocalDateTime timestamp, String description) {
+        return new ArchivedTransactionRow(UUID.randomUUID(), cardId, UUID.randomUUID(), TransactionType.WITHDRAWAL,
+                new BigDecimal("12.34"), description, timestamp);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.data.UserTestData;
+import com.example.bankcards.entities.User;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.jwt.impl.JwtTokenProviderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtTokenProviderServiceTest {
+    private static final String ACCESS_SECRET =
+            "2cKYszGG9GYs8vT6zAlXMGxgUG+Evf7G3MTk5Q0TSjte42vX02+VwVtb+/rzkjydspol09wEc+jusPnvgy//qw==";
+    private static final String REFRESH_SECRET =
+            "cH79ZXZg3R4/7Ln44kwdM4HENomxpjFAQW6qszDRKbKf9wGhMYDC1JbRNMzbA7GWJFkww/F4mNYH39rqd75A4Q==";
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserPrincipalCache userPrincipalCache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userPrincipalCache = new UserPrincipalCache(Duration.ofMinutes(15), 100);
+        user = UserTestData.buildUser();
+    }
+
+    @Test
+    void getAuthentication_inClaimsMode_shouldBuildPrincipalFromClaims_checkingRevocationOnce() {
+        JwtTokenProviderService provider = provider(AuthenticationMode.CLAIMS);
+        String token = provider.generateAccessToken(user);
+        when(userRepository.existsByIdAndDeletedFalse(user.getId())).thenReturn(true);
+
+        Optional<Authentication> authentication = authenticate(provider, token);
+        assertThat(authenticate(provider, token)).isPresent();
+
+        assertThat(authentication).isPresent();
+        UserPrincipal principal = (UserPrincipal) authentication.get().getPrincipal();
+        assertThat(principal.getId()).isEqualTo(user.getId());
+        assertThat(principal.getEmail()).isEqualTo(user.getEmail());
+        assertThat(principal.getRoles()).containsExactly("USER");
+        verify(userRepository, times(1)).existsByIdAndDeletedFalse(any());
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void getAuthentication_inClaimsMode_shouldRejectDeletedUser() {
+        JwtTokenProviderService provider = provider(AuthenticationMode.CLAIMS);
+        String token = provider.generateAccessToken(user);
+        user.setDeleted(true);
+        userPrincipalCache.refresh(user);
+
+        assertThat(authenticate(provider, token)).isEmpty();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getAuthentication_inClaimsMode_shouldRejectDeletedUser_afterRevocationWasLost() {
+        JwtTokenProviderService provider = provider(AuthenticationMode.CLAIMS);
+        String token = provider.generateAccessToken(user);
+        // deleted on another instance, or before a restart: this cache holds no revoked entry
+        when(userRepository.existsByIdAndDeletedFalse(user.getId())).thenReturn(false);
+
+        assertThat(authenticate(provider, token)).isEmpty();
+    }
+
+    @Test
+    void getAuthentication_inClaimsMode_shouldUseRolesFromLatestUpdate() {
+        JwtTokenProviderService provider = provider(AuthenticationMode.CLAIMS);
+        String token = provider.generateAccessToken(user);
+        userPrincipalCache.refresh(UserTestData.buildUserForUpdate());
+
+        UserPrincipal principal = (UserPrincipal) authenticate(provider, token).orElseThrow().getPrincipal();
+
+        assertThat(principal.getRoles()).containsExactly("ADMIN");
+    }
+
+    @Test
+    void getAuthentication_inDatabaseMode_shouldLoadUserOnce() {
+        JwtTokenProviderService provider = provider(AuthenticationMode.DATABASE);
+        String token = provider.generateAccessToken(user);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        assertThat(authenticate(provider, token)).isPresent();
+        assertThat(authenticate(provider, token)).isPresent();
+
+        verify(userRepository, times(1)).findById(any());
+    }
+
+    @Test
+    void getAuthentication_inDatabaseMode_shouldRejectDeletedUser() {
+        JwtTokenProviderService provider = provider(AuthenticationMode.DATABASE);
+        String token = provider.generateAccessToken(user);
+        user.setDeleted(true);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        assertThat(authenticate(provider, token)).isEmpty();
+    }
+
+    @Test
+    void parseAccessToken_shouldRejectTamperedAndRefreshTokens() {
+        JwtTokenProviderService provider = provider(AuthenticationMode.CLAIMS);
+        String accessToken = provider.generateAccessToken(user);
+        String refreshToken = provider.generateRefreshToken(user);
+
+        assertThat(provider.parseAccessToken(accessToken)).isPresent();
+        assertThat(provider.parseAccessToken(accessToken + "x")).isEmpty();
+        assertThat(provider.parseAccessToken(refreshToken)).isEmpty();
+        assertThat(provider.parseRefreshToken(refreshToken).orElseThrow().getSubject()).isEqualTo(user.getEmail());
+    }
+
+    private Optional<Authentication> authenticate(JwtTokenProviderService provider, String token) {
+        return provider.parseAccessToken(token).flatMap(provider::getAuthentication);
+    }
+
+    private JwtTokenProviderService provider(AuthenticationMode mode) {
+        return new JwtTokenProviderService(ACCESS_SECRET, REFRESH_SECRET, userRepository, userPrincipalCache, mode);
+    }
+}
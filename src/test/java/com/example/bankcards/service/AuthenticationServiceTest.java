@@ -10,6 +10,7 @@ import com.example.bankcards.entities.User;
 import com.example.bankcards.repository.RefreshTokenRepository;
 import com.example.bankcards.security.jwt.JwtTokenProvider;
 import com.example.bankcards.service.impl.AuthenticationServiceImpl;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -97,8 +98,8 @@ class AuthenticationServiceTest {
     @Test
     @DisplayName("Should generate a new access and a new refresh tokens when refresh token is valid")
     void recreateToken() {
-        when(jwtTokenProvider.validateRefreshToken(refreshJwtRequestDto.getRefreshToken())).thenReturn(true);
-        when(jwtTokenProvider.getLoginFromRefreshToken(refreshJwtRequestDto.getRefreshToken())).thenReturn(user.getEmail());
+        when(jwtTokenProvider.parseRefreshToken(refreshJwtRequestDto.getRefreshToken()))
+                .thenReturn(Optional.of(Jwts.claims().setSubject(user.getEmail())));
         when(userService.getUserByEmail(user.getEmail())).thenReturn(user);
         when(refreshTokenService.findByUserAndIp(user, IP)).thenReturn(refreshToken);
         when(jwtTokenProvider.generateAccessToken(user)).thenReturn(jwtResponseDto.getAccessToken());
@@ -107,8 +108,7 @@ class AuthenticationServiceTest {
 
         assertThat(jwtResponseDto).isEqualTo(authenticationService.recreateToken(refreshJwtRequestDto));
 
-        verify(jwtTokenProvider, times(1)).validateRefreshToken(refreshJwtRequestDto.getRefreshToken());
-        verify(jwtTokenProvider, times(1)).getLoginFromRefreshToken(refreshJwtRequestDto.getRefreshToken());
+        verify(jwtTokenProvider, times(1)).parseRefreshToken(refreshJwtRequestDto.getRefreshToken());
         verify(userService, times(1)).getUserByEmail(user.getEmail());
         verify(refreshTokenService, times(1)).findByUserAndIp(user, IP);
         verify(jwtTokenProvider, times(1)).generateAccessToken(user);
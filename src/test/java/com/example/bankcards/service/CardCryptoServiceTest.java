@@ -1,5 +1,6 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.entities.Card;
 import com.example.bankcards.service.exception.card.CardCryptoException;
 import com.example.bankcards.service.impl.CardCryptoServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,6 +8,12 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 
@@ -18,6 +25,7 @@ public class CardCryptoServiceTest {
         cryptoService = new CardCryptoServiceImpl();
         String secret = "26C7mFn/ZOTMq1+caJYNDw==";
         ReflectionTestUtils.setField(cryptoService, "secretKey", secret);
+        ReflectionTestUtils.setField(cryptoService, "fingerprintSecret", "9pQ2xVh7LbW4sTn1ZkRy6cMf3GdJ8aEu5HoPiK0wBqU=");
         cryptoService.init();
     }
 
@@ -43,6 +51,79 @@ public class CardCryptoServiceTest {
         assertThat(masked).isEqualTo("**** **** **** 5678");
     }
 
+    @Test
+    @DisplayName("Should give the same result when cipher instances are reused")
+    void testRepeatedCallsReuseCiphers() {
+        String original = "1234567812345678";
+
+        String first = cryptoService.encryptCardNumber(original);
+        String second = cryptoService.encryptCardNumber(original);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(cryptoService.decryptCardNumber(first)).isEqualTo(original);
+        assertThat(cryptoService.decryptCardNumber(second)).isEqualTo(original);
+    }
+
+    @Test
+    @DisplayName("Should encrypt and decrypt correctly from many threads")
+    void testConcurrentEncryptDecrypt() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                String cardNumber = String.format("%016d", i * 7919L);
+                results.add(executor.submit(() ->
+                        cryptoService.decryptCardNumber(cryptoService.encryptCardNumber(cardNumber)).equals(cardNumber)));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should mask short decrypted card number with ****")
+    void testMaskShortDecryptedCardNumber() {
+        String encrypted = cryptoService.encryptCardNumber("123");
+
+        assertThat(cryptoService.maskCardNumberDecrypted(encrypted)).isEqualTo("****");
+    }
+
+    @Test
+    @DisplayName("Should mask card from stored last digits without decrypting")
+    void testMaskCardUsesStoredLastDigits() {
+        Card card = Card.builder()
+                .cardNumberEncrypted("broken-data")
+                .cardNumberLast4("5678")
+                .build();
+
+        assertThat(cryptoService.maskCard(card)).isEqualTo("**** **** **** 5678");
+    }
+
+    @Test
+    @DisplayName("Should fall back to decryption when last digits are not stored yet")
+    void testMaskCardFallsBackToDecryption() {
+        Card card = Card.builder()
+                .cardNumberEncrypted(cryptoService.encryptCardNumber("1234567812345678"))
+                .build();
+
+        assertThat(cryptoService.maskCard(card)).isEqualTo("**** **** **** 5678");
+    }
+
+    @Test
+    @DisplayName("Should compute a stable keyed fingerprint per card number")
+    void testFingerprintCardNumber() {
+        String first = cryptoService.fingerprintCardNumber("1234567812345678");
+        String second = cryptoService.fingerprintCardNumber("1234567812345678");
+        String other = cryptoService.fingerprintCardNumber("1234567812345679");
+
+        assertThat(first).hasSize(64);
+        assertThat(second).isEqualTo(first);
+        assertThat(other).isNotEqualTo(first);
+    }
+
     @Test
     @DisplayName("Should mask short card number with ****")
     void testMaskShortCardNumber() {
@@ -14,10 +14,12 @@ import com.example.bankcards.service.exception.card.CardLimitNotFoundException;
 import com.example.bankcards.service.exception.card.CardNotActiveException;
 import com.example.bankcards.service.exception.card.CardNotFoundException;
 import com.example.bankcards.service.impl.CardLimitServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -28,6 +30,7 @@ import java.util.UUID;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,7 +47,15 @@ class CardLimitServiceTest {
     @Mock
     private CardLimitMapper cardLimitMapper;
 
-    @InjectMocks
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Cache cache;
+
     private CardLimitServiceImpl cardLimitService;
     private CardLimit cardLimit;
     private CardLimit cardLimitSaved;
@@ -55,6 +66,8 @@ class CardLimitServiceTest {
 
     @BeforeEach
     void setUp() {
+        // SessionFactory is an EntityManagerFactory too, so @InjectMocks could pick either mock
+        cardLimitService = new CardLimitServiceImpl(cardRepository, cardLimitRepository, cardLimitMapper, entityManagerFactory);
         createTestData();
     }
 
@@ -116,10 +129,14 @@ class CardLimitServiceTest {
 
         when(cardLimitRepository.save(any())).thenReturn(cardLimitSaved);
         when(cardLimitMapper.convertToCardLimitDto(cardLimitSaved)).thenReturn(cardLimitResponseDtoUpdated);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
 
         CardLimitResponseDto result = cardLimitService.setCardLimit(CARD_ID, cardLimitRequestDto);
 
         assertThat(result).isEqualTo(cardLimitResponseDtoUpdated);
+        verify(cache).evictEntityData(CardLimit.class, cardLimitSaved.getId());
+        verify(cache).evictQueryRegion(CardLimit.QUERY_CACHE_REGION);
     }
 
     private void createTestData() {
@@ -0,0 +1,126 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entities.Card;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.exception.transaction.ConcurrentCardUpdateException;
+import com.example.bankcards.service.impl.CardLockingServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardLockingServiceTest {
+    private static final UUID LOWER_ID = UUID.fromString("0a05885c-2386-4e21-af1a-eb5f473249e3");
+    private static final UUID HIGHER_ID = UUID.fromString("bd721116-820a-4647-9b9e-70f3e526fbcb");
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private GroupCommitExecutor groupCommitExecutor;
+
+    @Test
+    void execute_shouldRetryOptimisticConflicts_untilSuccess() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        CardLockingServiceImpl lockingService = service(ConcurrencyMode.OPTIMISTIC, 3);
+        AtomicInteger calls = new AtomicInteger();
+
+        lockingService.execute(List.of(LOWER_ID), () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Card.class, LOWER_ID);
+            }
+        });
+
+        assertThat(calls.get()).isEqualTo(3);
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void execute_shouldGiveUp_whenAttemptsExhausted() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        CardLockingServiceImpl lockingService = service(ConcurrencyMode.OPTIMISTIC, 2);
+
+        assertThatThrownBy(() -> lockingService.execute(List.of(LOWER_ID), () -> {
+            throw new ObjectOptimisticLockingFailureException(Card.class, LOWER_ID);
+        })).isInstanceOf(ConcurrentCardUpdateException.class);
+
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    void execute_shouldNotRetry_inPessimisticMode() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        CardLockingServiceImpl lockingService = service(ConcurrencyMode.PESSIMISTIC, 5);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> lockingService.execute(List.of(LOWER_ID), () -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Card.class, LOWER_ID);
+        })).isInstanceOf(ConcurrentCardUpdateException.class);
+
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_shouldRetryThroughGroupCommit_whenEnabled() {
+        when(groupCommitExecutor.isEnabled()).thenReturn(true);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(groupCommitExecutor).execute(any(), any(Runnable.class));
+        CardLockingServiceImpl lockingService = service(ConcurrencyMode.OPTIMISTIC, 3);
+        AtomicInteger calls = new AtomicInteger();
+
+        lockingService.execute(List.of(LOWER_ID), () -> {
+            if (calls.incrementAndGet() < 2) {
+                throw new ObjectOptimisticLockingFailureException(Card.class, LOWER_ID);
+            }
+        });
+
+        assertThat(calls.get()).isEqualTo(2);
+        verify(groupCommitExecutor, times(2)).execute(eq(List.of(LOWER_ID)), any(Runnable.class));
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void lockInOrder_shouldLockCardsInIdOrder_inPessimisticMode() {
+        CardLockingServiceImpl lockingService = service(ConcurrencyMode.PESSIMISTIC, 3);
+
+        lockingService.lockInOrder(HIGHER_ID, LOWER_ID);
+
+        InOrder order = inOrder(cardRepository);
+        order.verify(cardRepository).findByIdForUpdate(LOWER_ID);
+        order.verify(cardRepository).findByIdForUpdate(HIGHER_ID);
+    }
+
+    @Test
+    void lockInOrder_shouldNotLock_inOptimisticMode() {
+        CardLockingServiceImpl lockingService = service(ConcurrencyMode.OPTIMISTIC, 3);
+
+        lockingService.lockInOrder(HIGHER_ID, LOWER_ID);
+
+        verifyNoInteractions(cardRepository);
+    }
+
+    private CardLockingServiceImpl service(ConcurrencyMode mode, int maxAttempts) {
+        return new CardLockingServiceImpl(cardRepository, transactionManager, groupCommitExecutor, mode, maxAttempts);
+    }
+}
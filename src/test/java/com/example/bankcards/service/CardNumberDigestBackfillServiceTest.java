@@ -0,0 +1,84 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.data.CardTestData;
+import com.example.bankcards.entities.Card;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.exception.card.CardCryptoException;
+import com.example.bankcards.service.impl.CardNumberDigestBackfillService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardNumberDigestBackfillServiceTest {
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardCryptoService cardCryptoService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private CardNumberDigestBackfillService backfillService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0)
+                        .doInTransaction(new SimpleTransactionStatus()));
+    }
+
+    @Test
+    void backfill_shouldStoreLastDigitsAndFingerprint() {
+        Card first = CardTestData.buildCard();
+        Card second = CardTestData.buildCardTo();
+        when(cardRepository.findTop500ByCardNumberFingerprintIsNullAndIdGreaterThanOrderByIdAsc(FIRST_ID))
+                .thenReturn(List.of(first, second));
+        when(cardRepository.findTop500ByCardNumberFingerprintIsNullAndIdGreaterThanOrderByIdAsc(second.getId()))
+                .thenReturn(List.of());
+        when(cardCryptoService.decryptCardNumber(anyString())).thenReturn("1234567812345678");
+        when(cardCryptoService.lastFourDigits("1234567812345678")).thenReturn("5678");
+        when(cardCryptoService.fingerprintCardNumber("1234567812345678")).thenReturn("FINGERPRINT");
+        when(cardRepository.updateCardNumberDigest(any(), eq("5678"), eq("FINGERPRINT"))).thenReturn(1);
+
+        int updated = backfillService.backfill();
+
+        assertThat(updated).isEqualTo(2);
+        verify(cardRepository).updateCardNumberDigest(first.getId(), "5678", "FINGERPRINT");
+        verify(cardRepository).updateCardNumberDigest(second.getId(), "5678", "FINGERPRINT");
+    }
+
+    @Test
+    void backfill_shouldSkipCardsThatCannotBeDecrypted() {
+        Card card = CardTestData.buildCard();
+        when(cardRepository.findTop500ByCardNumberFingerprintIsNullAndIdGreaterThanOrderByIdAsc(FIRST_ID))
+                .thenReturn(List.of(card));
+        when(cardRepository.findTop500ByCardNumberFingerprintIsNullAndIdGreaterThanOrderByIdAsc(card.getId()))
+                .thenReturn(List.of());
+        when(cardCryptoService.decryptCardNumber(card.getCardNumberEncrypted()))
+                .thenThrow(new CardCryptoException("Error while decrypting card number", null));
+
+        int updated = backfillService.backfill();
+
+        assertThat(updated).isZero();
+        verify(cardRepository, never()).updateCardNumberDigest(any(), any(), any());
+    }
+}
@@ -6,31 +6,42 @@ import com.example.bankcards.dto.card.CardRequestDto;
 import com.example.bankcards.dto.card.CardResponseDto;
 import com.example.bankcards.entities.Card;
 import com.example.bankcards.entities.CardLimit;
+import com.example.bankcards.entities.LedgerEntry;
+import com.example.bankcards.entities.LedgerPosting;
 import com.example.bankcards.entities.User;
 import com.example.bankcards.entities.enums.CardStatus;
+import com.example.bankcards.entities.enums.LedgerEntryType;
+import com.example.bankcards.entities.enums.PostingDirection;
 import com.example.bankcards.factory.CardFactory;
+import com.example.bankcards.factory.LedgerEntryFactory;
 import com.example.bankcards.mapper.CardMapper;
 import com.example.bankcards.repository.CardLimitRepository;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.security.UserPrincipal;
 import com.example.bankcards.service.exception.card.BlockingRequestException;
+import com.example.bankcards.service.exception.card.CardAlreadyExistsException;
 import com.example.bankcards.service.exception.card.CardNotActiveException;
 import com.example.bankcards.service.exception.user.UserNotFoundException;
 import com.example.bankcards.service.impl.CardServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -57,6 +68,12 @@ public class CardServiceTest {
     @Mock
     private CardFactory cardFactory;
 
+    @Mock
+    private LedgerService ledgerService;
+
+    @Spy
+    private LedgerEntryFactory ledgerEntryFactory;
+
     @InjectMocks
     private CardServiceImpl cardService;
     private User user;
@@ -76,16 +93,22 @@ public class CardServiceTest {
         when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
         when(cardCryptoService.encryptCardNumber(cardRequestDto.getCardNumberEncrypted()))
                 .thenReturn(savedCard.getCardNumberEncrypted());
-        when(cardRepository.existsByCardNumberEncrypted(savedCard.getCardNumberEncrypted()))
+        when(cardCryptoService.fingerprintCardNumber(cardRequestDto.getCardNumberEncrypted()))
+                .thenReturn(savedCard.getCardNumberFingerprint());
+        when(cardCryptoService.lastFourDigits(cardRequestDto.getCardNumberEncrypted()))
+                .thenReturn(savedCard.getCardNumberLast4());
+        when(cardRepository.existsByCardNumberFingerprint(savedCard.getCardNumberFingerprint()))
                 .thenReturn(false);
-        when(cardFactory.createCard(cardRequestDto, user, savedCard.getCardNumberEncrypted()))
+        when(cardRepository.existsByCardNumberEncryptedAndCardNumberFingerprintIsNull(savedCard.getCardNumberEncrypted()))
+                .thenReturn(false);
+        when(cardFactory.createCard(cardRequestDto, user, savedCard.getCardNumberEncrypted(),
+                savedCard.getCardNumberLast4(), savedCard.getCardNumberFingerprint()))
                 .thenReturn(card);
         when(cardFactory.createDefaultLimitsForAllTransactionTypes(savedCard))
                 .thenReturn(List.of(cardLimit));
         when(cardRepository.save(card)).thenReturn(savedCard);
         when(cardMapper.convertToCardResponseDto(savedCard)).thenReturn(cardResponseDto);
-        when(cardCryptoService.decryptCardNumber(savedCard.getCardNumberEncrypted()))
-                .thenReturn(cardRequestDto.getCardNumberEncrypted());
+        when(cardCryptoService.maskCard(savedCard)).thenReturn("**** **** **** 3456");
 
         CardResponseDto result = cardService.createCard(cardRequestDto, USER_ID);
 
@@ -94,13 +117,89 @@ public class CardServiceTest {
 
         verify(userRepository).findById(USER_ID);
         verify(cardCryptoService).encryptCardNumber(cardRequestDto.getCardNumberEncrypted());
-        verify(cardRepository).existsByCardNumberEncrypted(savedCard.getCardNumberEncrypted());
-        verify(cardFactory).createCard(cardRequestDto, user, savedCard.getCardNumberEncrypted());
+        verify(cardRepository).existsByCardNumberFingerprint(savedCard.getCardNumberFingerprint());
+        verify(cardFactory).createCard(cardRequestDto, user, savedCard.getCardNumberEncrypted(),
+                savedCard.getCardNumberLast4(), savedCard.getCardNumberFingerprint());
         verify(cardFactory).createDefaultLimitsForAllTransactionTypes(savedCard);
         verify(cardRepository).save(card);
         verify(cardLimitRepository).saveAll(List.of(cardLimit));
         verify(cardMapper).convertToCardResponseDto(savedCard);
-        verify(cardCryptoService).decryptCardNumber(savedCard.getCardNumberEncrypted());
+        verify(cardCryptoService).maskCard(savedCard);
+        verify(cardCryptoService, never()).decryptCardNumber(any());
+
+        ArgumentCaptor<List<LedgerEntry>> entries = ArgumentCaptor.forClass(List.class);
+        verify(ledgerService).append(entries.capture());
+        LedgerEntry opening = entries.getValue().get(0);
+        assertThat(opening.getEntryType()).isEqualTo(LedgerEntryType.OPENING_BALANCE);
+        LedgerPosting cardLeg = opening.getPostings().get(1);
+        assertThat(cardLeg.getAccountId()).isEqualTo(savedCard.getId());
+        assertThat(cardLeg.getDirection()).isEqualTo(PostingDirection.CREDIT);
+        assertThat(cardLeg.getAmount()).isEqualByComparingTo(savedCard.getBalance());
+    }
+
+    @Test
+    void testCreateCard_zeroBalance_writesNoJournalEntry() {
+        savedCard.setBalance(BigDecimal.ZERO);
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+        when(cardCryptoService.encryptCardNumber(cardRequestDto.getCardNumberEncrypted()))
+                .thenReturn(savedCard.getCardNumberEncrypted());
+        when(cardCryptoService.fingerprintCardNumber(cardRequestDto.getCardNumberEncrypted()))
+                .thenReturn(savedCard.getCardNumberFingerprint());
+        when(cardCryptoService.lastFourDigits(cardRequestDto.getCardNumberEncrypted()))
+                .thenReturn(savedCard.getCardNumberLast4());
+        when(cardFactory.createCard(cardRequestDto, user, savedCard.getCardNumberEncrypted(),
+                savedCard.getCardNumberLast4(), savedCard.getCardNumberFingerprint()))
+                .thenReturn(card);
+        when(cardRepository.save(card)).thenReturn(savedCard);
+        when(cardMapper.convertToCardResponseDto(savedCard)).thenReturn(cardResponseDto);
+
+        cardService.createCard(cardRequestDto, USER_ID);
+
+        verify(ledgerService, never()).append(any());
+    }
+
+    @Test
+    void testCreateCard_duplicateFingerprint() {
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+        when(cardCryptoService.encryptCardNumber(cardRequestDto.getCardNumberEncrypted()))
+                .thenReturn(savedCard.getCardNumberEncrypted());
+        when(cardCryptoService.fingerprintCardNumber(cardRequestDto.getCardNumberEncrypted()))
+                .thenReturn(savedCard.getCardNumberFingerprint());
+        when(cardRepository.existsByCardNumberFingerprint(savedCard.getCardNumberFingerprint()))
+                .thenReturn(true);
+
+        assertThatThrownBy(() -> cardService.createCard(cardRequestDto, USER_ID))
+                .isInstanceOf(CardAlreadyExistsException.class);
+
+        verify(cardRepository, never()).save(any());
+    }
+
+    @Test
+    void testCreateCard_duplicateOfNotBackfilledCard() {
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+        when(cardCryptoService.encryptCardNumber(cardRequestDto.getCardNumberEncrypted()))
+                .thenReturn(savedCard.getCardNumberEncrypted());
+        when(cardCryptoService.fingerprintCardNumber(cardRequestDto.getCardNumberEncrypted()))
+                .thenReturn(savedCard.getCardNumberFingerprint());
+        when(cardRepository.existsByCardNumberFingerprint(savedCard.getCardNumberFingerprint()))
+                .thenReturn(false);
+        when(cardRepository.existsByCardNumberEncryptedAndCardNumberFingerprintIsNull(savedCard.getCardNumberEncrypted()))
+                .thenReturn(true);
+
+        assertThatThrownBy(() -> cardService.createCard(cardRequestDto, USER_ID))
+                .isInstanceOf(CardAlreadyExistsException.class);
+    }
+
+    @Test
+    void testGetUserCards_masksWithoutDecrypting() {
+        when(cardRepository.findAllByUserIdAndIsDeletedFalse(USER_ID)).thenReturn(List.of(savedCard));
+        when(cardMapper.convertToCardResponseDto(savedCard)).thenReturn(cardResponseDto);
+        when(cardCryptoService.maskCard(savedCard)).thenReturn("**** **** **** 3456");
+
+        List<CardResponseDto> result = cardService.getUserCards(USER_ID);
+
+        assertThat(result.get(0).getMaskedCardNumber()).isEqualTo("**** **** **** 3456");
+        verify(cardCryptoService, never()).decryptCardNumber(any());
     }
 
     @Test
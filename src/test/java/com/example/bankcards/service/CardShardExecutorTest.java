@@ -0,0 +1,125 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.service.exception.transaction.InsufficientFundsException;
+import com.example.bankcards.service.exception.transaction.TransactionQueueFullException;
+import com.example.bankcards.service.impl.CardShardExecutorImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CardShardExecutorTest {
+    private static final UUID CARD_A = UUID.fromString("0a05885c-2386-4e21-af1a-eb5f473249e3");
+    private static final UUID CARD_B = UUID.fromString("bd721116-820a-4647-9b9e-70f3e526fbcb");
+
+    private CardShardExecutorImpl cardShardExecutor;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (cardShardExecutor != null) {
+            cardShardExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void execute_shouldRunOnCallingThread_whenDisabled() {
+        cardShardExecutor = new CardShardExecutorImpl(false, 4, 10);
+        AtomicReference<Thread> runner = new AtomicReference<>();
+
+        cardShardExecutor.execute(CARD_A, () -> runner.set(Thread.currentThread()));
+
+        assertThat(cardShardExecutor.isEnabled()).isFalse();
+        assertThat(runner.get()).isSameAs(Thread.currentThread());
+    }
+
+    @Test
+    void execute_shouldRunOnShardThreadAndRethrowFailures() {
+        cardShardExecutor = new CardShardExecutorImpl(true, 4, 10);
+        AtomicReference<String> runner = new AtomicReference<>();
+
+        cardShardExecutor.execute(CARD_A, () -> runner.set(Thread.currentThread().getName()));
+
+        assertThat(runner.get()).startsWith("card-shard-");
+        assertThrows(InsufficientFundsException.class, () -> cardShardExecutor.execute(CARD_A, () -> {
+            throw new InsufficientFundsException("Insufficient funds");
+        }));
+    }
+
+    @Test
+    void execute_shouldNeverOverlapOperationsOnTheSameCards() throws Exception {
+        cardShardExecutor = new CardShardExecutorImpl(true, 4, 10_000);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        Runnable work = () -> {
+            if (running.incrementAndGet() > 1) {
+                overlaps.incrementAndGet();
+            }
+            Thread.onSpinWait();
+            running.decrementAndGet();
+        };
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            int operation = i;
+            futures.add(callers.submit(() -> {
+                switch (operation % 3) {
+                    case 0 -> cardShardExecutor.execute(CARD_A, work);
+                    case 1 -> cardShardExecutor.execute(CARD_A, CARD_B, work);
+                    default -> cardShardExecutor.execute(CARD_B, CARD_A, work);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        callers.shutdown();
+
+        assertThat(overlaps.get()).isZero();
+    }
+
+    @Test
+    void execute_shouldReject_whenShardQueueIsFull() throws Exception {
+        cardShardExecutor = new CardShardExecutorImpl(true, 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        Future<?> blocking = callers.submit(() -> cardShardExecutor.execute(CARD_A, () -> {
+            started.countDown();
+            awaitQuietly(release);
+        }));
+        started.await();
+        Future<?> queued = callers.submit(() -> cardShardExecutor.execute(CARD_A, () -> { }));
+        // give the second operation time to take the only queue slot
+        Thread.sleep(100);
+
+        try {
+            assertThrows(TransactionQueueFullException.class, () -> cardShardExecutor.execute(CARD_B, () -> { }));
+        } finally {
+            release.countDown();
+            blocking.get(10, TimeUnit.SECONDS);
+            queued.get(10, TimeUnit.SECONDS);
+            callers.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.data.CardTestData;
+import com.example.bankcards.dto.transaction.CardSpendKey;
+import com.example.bankcards.dto.transaction.SpendTotalsDto;
+import com.example.bankcards.entities.Card;
+import com.example.bankcards.entities.CardSpendAggregate;
+import com.example.bankcards.entities.Transaction;
+import com.example.bankcards.entities.enums.SpendPeriod;
+import com.example.bankcards.entities.enums.TransactionType;
+import com.example.bankcards.repository.CardSpendAggregateRepository;
+import com.example.bankcards.service.impl.CardSpendServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CardSpendServiceTest {
+    private static final UUID CARD_ID = UUID.fromString("0a05885c-2386-4e21-af1a-eb5f473249e3");
+    private static final LocalDate DAY = LocalDate.of(2025, 5, 17);
+    private static final LocalDate MONTH = LocalDate.of(2025, 5, 1);
+
+    @Mock
+    private CardSpendAggregateRepository cardSpendAggregateRepository;
+
+    @InjectMocks
+    private CardSpendServiceImpl cardSpendService;
+
+    private Card card;
+
+    @BeforeEach
+    void setUp() {
+        card = CardTestData.buildCard();
+    }
+
+    @Test
+    void getSpent_shouldReadDayAndMonthBuckets() {
+        when(cardSpendAggregateRepository.findDayAndMonthBuckets(
+                CARD_ID, TransactionType.WITHDRAWAL, SpendPeriod.DAY, DAY, SpendPeriod.MONTH, MONTH))
+                .thenReturn(List.of(
+                        bucket(SpendPeriod.DAY, DAY, BigDecimal.valueOf(30)),
+                        bucket(SpendPeriod.MONTH, MONTH, BigDecimal.valueOf(250))));
+
+        SpendTotalsDto result = cardSpendService.getSpent(CARD_ID, TransactionType.WITHDRAWAL, DAY);
+
+        assertThat(result.getDailySpent()).isEqualTo(BigDecimal.valueOf(30));
+        assertThat(result.getMonthlySpent()).isEqualTo(BigDecimal.valueOf(250));
+    }
+
+    @Test
+    void getSpent_shouldReturnZero_whenNoBucketsYet() {
+        when(cardSpendAggregateRepository.findDayAndMonthBuckets(
+                CARD_ID, TransactionType.DEPOSIT, SpendPeriod.DAY, DAY, SpendPeriod.MONTH, MONTH))
+                .thenReturn(List.of());
+
+        SpendTotalsDto result = cardSpendService.getSpent(CARD_ID, TransactionType.DEPOSIT, DAY);
+
+        assertThat(result.getDailySpent()).isEqualTo(BigDecimal.ZERO);
+        assertThat(result.getMonthlySpent()).isEqualTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void recordSpend_shouldAddAmountToDayAndMonthBuckets() {
+        Transaction transaction = Transaction.builder()
+                .card(card)
+                .type(TransactionType.TRANSFER)
+                .amount(BigDecimal.valueOf(50))
+                .timestamp(DAY.atTime(13, 45))
+                .build();
+
+        cardSpendService.recordSpend(transaction);
+
+        verify(cardSpendAggregateRepository)
+                .addToDayAndMonthBuckets(CARD_ID, "TRANSFER", DAY, MONTH, BigDecimal.valueOf(50),
+                        1, BigDecimal.valueOf(50), BigDecimal.valueOf(50));
+    }
+
+    @Test
+    void getSpent_shouldReadBucketsOfAllCardsInOneQuery() {
+        UUID otherCardId = UUID.randomUUID();
+        when(cardSpendAggregateRepository.findDayAndMonthBucketsForCards(
+                List.of(CARD_ID, otherCardId), SpendPeriod.DAY, DAY, SpendPeriod.MONTH, MONTH))
+                .thenReturn(List.of(
+                        bucket(SpendPeriod.DAY, DAY, BigDecimal.valueOf(30)),
+                        bucket(SpendPeriod.MONTH, MONTH, BigDecimal.valueOf(250))));
+
+        Map<CardSpendKey, SpendTotalsDto> result = cardSpendService.getSpent(List.of(CARD_ID, otherCardId), DAY);
+
+        SpendTotalsDto spent = result.get(new CardSpendKey(CARD_ID, TransactionType.WITHDRAWAL));
+        assertThat(spent.getDailySpent()).isEqualTo(BigDecimal.valueOf(30));
+        assertThat(spent.getMonthlySpent()).isEqualTo(BigDecimal.valueOf(250));
+        assertThat(result.containsKey(new CardSpendKey(otherCardId, TransactionType.WITHDRAWAL))).isFalse();
+    }
+
+    @Test
+    void recordSpend_shouldUpsertOncePerCardTypeAndDay() {
+        Transaction first = Transaction.builder()
+                .card(card)
+                .type(TransactionType.DEPOSIT)
+                .amount(BigDecimal.valueOf(20))
+                .timestamp(DAY.atTime(9, 0))
+                .build();
+        Transaction second = Transaction.builder()
+                .card(card)
+                .type(TransactionType.DEPOSIT)
+                .amount(BigDecimal.valueOf(30))
+                .timestamp(DAY.atTime(10, 0))
+                .build();
+
+        cardSpendService.recordSpend(List.of(first, second));
+
+        verify(cardSpendAggregateRepository)
+                .addToDayAndMonthBuckets(CARD_ID, "DEPOSIT", DAY, MONTH, BigDecimal.valueOf(50),
+                        2, BigDecimal.valueOf(20), BigDecimal.valueOf(30));
+        verifyNoMoreInteractions(cardSpendAggregateRepository);
+    }
+
+    @Test
+    void rebuildFrom_shouldRecomputeWholeMonthsUnderLock() {
+        LocalDate end = LocalDate.now().plusMonths(1).withDayOfMonth(1);
+        when(cardSpendAggregateRepository.insertBucketsFromTransactions(MONTH, end)).thenReturn(4);
+
+        int rebuilt = cardSpendService.rebuildFrom(DAY);
+
+        assertThat(rebuilt).isEqualTo(4);
+        InOrder order = inOrder(cardSpendAggregateRepository);
+        order.verify(cardSpendAggregateRepository).lockForRebuild();
+        order.verify(cardSpendAggregateRepository).deleteBuckets(MONTH, end);
+        order.verify(cardSpendAggregateRepository).insertBucketsFromTransactions(MONTH, end);
+    }
+
+    @Test
+    void rebuildClosedMonth_shouldRecomputeOneMonthWithoutLock() {
+        when(cardSpendAggregateRepository.insertBucketsFromTransactions(MONTH, MONTH.plusMonths(1))).thenReturn(6);
+
+        int rebuilt = cardSpendService.rebuildClosedMonth(DAY);
+
+        assertThat(rebuilt).isEqualTo(6);
+        InOrder order = inOrder(cardSpendAggregateRepository);
+        order.verify(cardSpendAggregateRepository).deleteBuckets(MONTH, MONTH.plusMonths(1));
+        order.verify(cardSpendAggregateRepository).insertBucketsFromTransactions(MONTH, MONTH.plusMonths(1));
+        verify(cardSpendAggregateRepository, never()).lockForRebuild();
+    }
+
+    private CardSpendAggregate bucket(SpendPeriod period, LocalDate start, BigDecimal amount) {
+        return CardSpendAggregate.builder()
+                .cardId(CARD_ID)
+                .transactionType(TransactionType.WITHDRAWAL)
+                .period(period)
+                .periodStart(start)
+                .amount(amount)
+                .build();
+    }
+}
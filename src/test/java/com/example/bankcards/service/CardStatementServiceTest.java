@@ -0,0 +1,184 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.data.CardTestData;
+import com.example.bankcards.dto.transaction.CardStatementDto;
+import com.example.bankcards.dto.transaction.StatementTotalsDto;
+import com.example.bankcards.entities.Card;
+import com.example.bankcards.entities.CardSpendAggregate;
+import com.example.bankcards.entities.enums.SpendPeriod;
+import com.example.bankcards.entities.enums.TransactionType;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardSpendAggregateRepository;
+import com.example.bankcards.repository.TransactionArchiveSegmentRepository;
+import com.example.bankcards.repository.TransactionRepository;
+import com.example.bankcards.service.exception.auth.AccessDeniedException;
+import com.example.bankcards.service.exception.transaction.InvalidStatementPeriodException;
+import com.example.bankcards.service.impl.CardStatementServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardStatementServiceTest {
+    private static final LocalDate JANUARY = LocalDate.of(2025, 1, 1);
+    private static final LocalDate FEBRUARY = LocalDate.of(2025, 2, 1);
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardSpendAggregateRepository cardSpendAggregateRepository;
+
+    @Mock
+    private CardSpendService cardSpendService;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionArchiveSegmentRepository transactionArchiveSegmentRepository;
+
+    private CardStatementServiceImpl cardStatementService;
+
+    private Card card;
+
+    @BeforeEach
+    void setUp() {
+        cardStatementService = new CardStatementServiceImpl(cardRepository, cardSpendAggregateRepository,
+                cardSpendService, transactionRepository, transactionArchiveSegmentRepository, 2);
+        card = CardTestData.buildCard();
+    }
+
+    @Test
+    void getStatement_shouldReturnMonthLinesAndTotalsPerType() {
+        when(cardRepository.findById(card.getId())).thenReturn(Optional.of(card));
+        when(cardSpendAggregateRepository.findAllByCardIdAndPeriodAndPeriodStartBetweenOrderByPeriodStartAscTransactionTypeAsc(
+                card.getId(), SpendPeriod.MONTH, JANUARY, FEBRUARY))
+                .thenReturn(List.of(
+                        bucket(JANUARY, 3, "150.00", "10.00", "100.00"),
+                        bucket(FEBRUARY, 2, "70.00", "20.00", "50.00")));
+
+        CardStatementDto statement = cardStatementService.getStatement(card.getId(), SpendPeriod.MONTH,
+                JANUARY.plusDays(14), FEBRUARY.plusDays(3), card.getUser().getId(), List.of("USER"));
+
+        assertThat(statement.getFrom()).isEqualTo(JANUARY);
+        assertThat(statement.getTo()).isEqualTo(FEBRUARY);
+        assertThat(statement.getLines().size()).isEqualTo(2);
+        StatementTotalsDto totals = statement.getTotals().get(0);
+        assertThat(totals.getTransactionType()).isEqualTo(TransactionType.WITHDRAWAL);
+        assertThat(totals.getCount()).isEqualTo(5L);
+        assertThat(totals.getAmount()).isEqualByComparingTo("220.00");
+        assertThat(totals.getMinAmount()).isEqualByComparingTo("10.00");
+        assertThat(totals.getMaxAmount()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void getStatement_shouldSkipMissingExtremes_ofBucketsWrittenBeforeTheyWereTracked() {
+        when(cardRepository.findById(card.getId())).thenReturn(Optional.of(card));
+        when(cardSpendAggregateRepository.findAllByCardIdAndPeriodAndPeriodStartBetweenOrderByPeriodStartAscTransactionTypeAsc(
+                card.getId(), SpendPeriod.MONTH, JANUARY, FEBRUARY))
+                .thenReturn(List.of(
+                        bucket(JANUARY, 0, "150.00", null, null),
+                        bucket(FEBRUARY, 2, "70.00", "20.00", "50.00")));
+
+        CardStatementDto statement = cardStatementService.getStatement(card.getId(), SpendPeriod.MONTH,
+                JANUARY, FEBRUARY, card.getUser().getId(), List.of("USER"));
+
+        StatementTotalsDto totals = statement.getTotals().get(0);
+        assertThat(totals.getMinAmount()).isEqualByComparingTo("20.00");
+        assertThat(totals.getMaxAmount()).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    void getStatement_shouldDenyAccess_toCardOfAnotherUser() {
+        when(cardRepository.findById(card.getId())).thenReturn(Optional.of(card));
+
+        assertThatThrownBy(() -> cardStatementService.getStatement(card.getId(), SpendPeriod.DAY,
+                JANUARY, JANUARY.plusDays(6), UUID.randomUUID(), List.of("USER")))
+                .isInstanceOf(AccessDeniedException.class);
+        verifyNoInteractions(cardSpendAggregateRepository);
+    }
+
+    @Test
+    void getStatement_shouldRejectDailyRangeLongerThanAYear() {
+        assertThatThrownBy(() -> cardStatementService.getStatement(card.getId(), SpendPeriod.DAY,
+                JANUARY, JANUARY.plusYears(2), card.getUser().getId(), List.of("ADMIN")))
+                .isInstanceOf(InvalidStatementPeriodException.class);
+        verifyNoInteractions(cardRepository, cardSpendAggregateRepository);
+    }
+
+    @Test
+    void rebuildFrom_shouldRebuildClosedMonthsSinceOldestTransaction_thenLiveMonths() {
+        LocalDate liveFrom = LocalDate.now().minusDays(1).withDayOfMonth(1);
+        LocalDate oldestMonth = liveFrom.minusMonths(3);
+        when(transactionRepository.findOldestTimestampBefore(liveFrom.atStartOfDay()))
+                .thenReturn(oldestMonth.plusDays(9).atTime(12, 0));
+        when(cardSpendService.rebuildClosedMonth(any())).thenReturn(10);
+        when(cardSpendService.rebuildFrom(liveFrom)).thenReturn(4);
+
+        int rebuilt = cardStatementService.rebuildFrom(liveFrom.minusYears(5));
+
+        assertThat(rebuilt).isEqualTo(34);
+        verify(cardSpendService).rebuildClosedMonth(oldestMonth);
+        verify(cardSpendService).rebuildClosedMonth(oldestMonth.plusMonths(1));
+        verify(cardSpendService).rebuildClosedMonth(oldestMonth.plusMonths(2));
+        verify(cardSpendService, times(3)).rebuildClosedMonth(any());
+    }
+
+    @Test
+    void rebuildFrom_shouldSkipMonthOfLatestArchivedDay_whenArchivalStoppedMidMonth() {
+        LocalDate liveFrom = LocalDate.now().minusDays(1).withDayOfMonth(1);
+        LocalDate partlyArchivedMonth = liveFrom.minusMonths(3);
+        when(transactionArchiveSegmentRepository.findLatestArchivedTimestamp())
+                .thenReturn(partlyArchivedMonth.plusDays(9).atTime(23, 59));
+        when(transactionRepository.findOldestTimestampBefore(liveFrom.atStartOfDay()))
+                .thenReturn(partlyArchivedMonth.plusDays(10).atStartOfDay());
+        when(cardSpendService.rebuildClosedMonth(any())).thenReturn(10);
+        when(cardSpendService.rebuildFrom(liveFrom)).thenReturn(4);
+
+        int rebuilt = cardStatementService.rebuildFrom(liveFrom.minusYears(5));
+
+        assertThat(rebuilt).isEqualTo(24);
+        verify(cardSpendService, never()).rebuildClosedMonth(partlyArchivedMonth);
+        verify(cardSpendService).rebuildClosedMonth(partlyArchivedMonth.plusMonths(1));
+        verify(cardSpendService).rebuildClosedMonth(partlyArchivedMonth.plusMonths(2));
+        verify(cardSpendService, times(2)).rebuildClosedMonth(any());
+    }
+
+    @Test
+    void rebuildFrom_shouldOnlyRebuildLiveMonths_whenStartingInThem() {
+        LocalDate today = LocalDate.now();
+        when(cardSpendService.rebuildFrom(today.withDayOfMonth(1))).thenReturn(4);
+
+        int rebuilt = cardStatementService.rebuildFrom(today);
+
+        assertThat(rebuilt).isEqualTo(4);
+        verify(cardSpendService, never()).rebuildClosedMonth(any());
+    }
+
+    private CardSpendAggregate bucket(LocalDate month, long count, String amount, String min, String max) {
+        return CardSpendAggregate.builder()
+                .cardId(card.getId())
+                .transactionType(TransactionType.WITHDRAWAL)
+                .period(SpendPeriod.MONTH)
+                .periodStart(month)
+                .amount(new BigDecimal(amount))
+                .transactionCount(count)
+                .minAmount(min == null ? null : new BigDecimal(min))
+                .maxAmount(max == null ? null : new BigDecimal(max))
+                .build();
+    }
+}
@@ -1,8 +1,5 @@
 package com.example.bankcards.service;
 
-import com.example.bankcards.data.CardTestData;
-import com.example.bankcards.entities.Card;
-import com.example.bankcards.entities.enums.CardStatus;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.service.impl.CardStatusUpdaterService;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,12 +8,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class CardStatusUpdaterServiceTest {
@@ -24,32 +28,54 @@ class CardStatusUpdaterServiceTest {
     @Mock
     private CardRepository cardRepository;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private CardStatusUpdaterService cardStatusUpdaterService;
-    private Card validCard;
-    private Card expiredCard;
 
     @BeforeEach
     void setUp() {
-        createTestData();
+        ReflectionTestUtils.setField(cardStatusUpdaterService, "chunkSize", 2);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0)
+                        .doInTransaction(new SimpleTransactionStatus()));
     }
 
     @Test
-    void testUpdateExpiredCardStatuses_shouldMarkExpiredCards() {
-        List<Card> cards = List.of(expiredCard, validCard);
+    void testUpdateExpiredCardStatuses_shouldExpireInChunksUntilNothingIsLeft() {
+        when(cardRepository.expireActiveCards(any(LocalDate.class), eq(2)))
+                .thenReturn(List.of(UUID.randomUUID(), UUID.randomUUID()))
+                .thenReturn(List.of(UUID.randomUUID()))
+                .thenReturn(List.of());
 
-        when(cardRepository.findAllByStatus(CardStatus.ACTIVE)).thenReturn(cards);
+        int expired = cardStatusUpdaterService.updateExpiredCardStatuses();
+
+        assertEquals(3, expired);
+        verify(cardRepository, times(3)).expireActiveCards(any(LocalDate.class), eq(2));
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(cardRepository, never()).saveAll(any());
+    }
 
-        cardStatusUpdaterService.updateExpiredCardStatuses();
+    @Test
+    void testUpdateExpiredCardStatuses_shouldReportZero_whenNoCardsExpired() {
+        when(cardRepository.expireActiveCards(any(LocalDate.class), eq(2))).thenReturn(List.of());
 
-        assertEquals(CardStatus.EXPIRED, expiredCard.getStatus());
-        assertEquals(CardStatus.ACTIVE, validCard.getStatus());
+        int expired = cardStatusUpdaterService.updateExpiredCardStatuses();
 
-        verify(cardRepository).saveAll(cards);
+        assertEquals(0, expired);
+        verify(cardRepository, times(1)).expireActiveCards(any(LocalDate.class), eq(2));
     }
 
-    private void createTestData() {
-        validCard = CardTestData.buildCard();
-        expiredCard = CardTestData.buildExpiredCard();
+    @Test
+    void testUpdateExpiredCardStatuses_shouldLogEachCard_whenAuditEnabled() {
+        ReflectionTestUtils.setField(cardStatusUpdaterService, "auditEnabled", true);
+        when(cardRepository.expireActiveCards(any(LocalDate.class), eq(2)))
+                .thenReturn(List.of(UUID.randomUUID()))
+                .thenReturn(List.of());
+
+        int expired = cardStatusUpdaterService.updateExpiredCardStatuses();
+
+        assertEquals(1, expired);
     }
 }
@@ -0,0 +1,128 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.impl.GroupCommitExecutorImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupCommitExecutorTest {
+    private static final UUID CARD_ID = UUID.fromString("0a05885c-2386-4e21-af1a-eb5f473249e3");
+    private static final UUID OTHER_CARD_ID = UUID.fromString("f3c1e9a2-5b7d-4c8e-9a1f-2d3e4b5c6a7b");
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Session session;
+
+    private GroupCommitExecutorImpl executor;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        executor = executor(ConcurrencyMode.OPTIMISTIC);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_shouldReplayOperation_whenGroupAbortsBeforeCommit() {
+        AtomicInteger calls = new AtomicInteger();
+
+        executor.execute(List.of(CARD_ID), () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new PersistenceException("deadlock detected");
+            }
+        });
+
+        assertThat(calls.get()).isEqualTo(2);
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void execute_shouldSurfaceCommitFailure_withoutReplayingOperation() {
+        TransactionSystemException commitFailure = new TransactionSystemException("connection reset during commit");
+        doThrow(commitFailure).when(transactionManager).commit(any());
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute(List.of(CARD_ID), calls::incrementAndGet)).isSameAs(commitFailure);
+
+        assertThat(calls.get()).isEqualTo(1);
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void execute_shouldKeepOperationsOwnFailure_whenCommitFails() {
+        doThrow(new TransactionSystemException("connection reset during commit")).when(transactionManager).commit(any());
+        IllegalStateException rejection = new IllegalStateException("insufficient funds");
+
+        assertThatThrownBy(() -> executor.execute(List.of(CARD_ID), () -> {
+            throw rejection;
+        })).isSameAs(rejection);
+    }
+
+    @Test
+    void execute_shouldLockGroupsCardsBeforeWork_inPessimisticMode() throws InterruptedException {
+        executor.shutdown();
+        executor = executor(ConcurrencyMode.PESSIMISTIC);
+        Runnable work = mock(Runnable.class);
+
+        executor.execute(List.of(OTHER_CARD_ID, CARD_ID), work);
+
+        InOrder inOrder = inOrder(cardRepository, work);
+        inOrder.verify(cardRepository).findAllByIdInForUpdate(Set.of(CARD_ID, OTHER_CARD_ID));
+        inOrder.verify(work).run();
+    }
+
+    @Test
+    void execute_shouldNotLockUpFront_inOptimisticMode() {
+        executor.execute(List.of(CARD_ID), () -> {
+        });
+
+        verify(cardRepository, never()).findAllByIdInForUpdate(anyCollection());
+    }
+
+    private GroupCommitExecutorImpl executor(ConcurrencyMode mode) {
+        return new GroupCommitExecutorImpl(transactionManager, cardRepository, mode, entityManager,
+                entityManagerFactory, true, Duration.ofMillis(1), 64, 1, 100);
+    }
+}
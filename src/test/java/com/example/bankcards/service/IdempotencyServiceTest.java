@@ -0,0 +1,169 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entities.IdempotencyKey;
+import com.example.bankcards.entities.IdempotencyKeyId;
+import com.example.bankcards.repository.IdempotencyKeyRepository;
+import com.example.bankcards.service.exception.transaction.IdempotencyKeyInProgressException;
+import com.example.bankcards.service.exception.transaction.IdempotencyKeyReuseException;
+import com.example.bankcards.service.exception.transaction.InsufficientFundsException;
+import com.example.bankcards.service.impl.IdempotencyServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+    private static final UUID USER_ID = UUID.fromString("0a05885c-2386-4e21-af1a-eb5f473249e3");
+    private static final String KEY = "c1f6a0b2-payment-1";
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyServiceImpl(idempotencyKeyRepository,
+                Duration.ofDays(1), Duration.ofMinutes(1), Duration.ofMinutes(10), 100);
+    }
+
+    @Test
+    void execute_shouldRunWithoutClaim_whenNoKeyGiven() {
+        AtomicInteger calls = new AtomicInteger();
+
+        idempotencyService.execute(USER_ID, null, "DEPOSIT|100", complete -> {
+            calls.incrementAndGet();
+            complete.run();
+        });
+
+        assertThat(calls.get()).isEqualTo(1);
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    @Test
+    void execute_shouldCompleteKeyInsideOperation_andReplayRetryFromCache() {
+        when(idempotencyKeyRepository.claim(eq(USER_ID), eq(KEY), anyString(), any(), any())).thenReturn(1);
+        when(idempotencyKeyRepository.complete(eq(USER_ID), eq(KEY), any())).thenReturn(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            idempotencyService.execute(USER_ID, KEY, "DEPOSIT|100", complete -> {
+                calls.incrementAndGet();
+                complete.run();
+            });
+        }
+
+        assertThat(calls.get()).isEqualTo(1);
+        verify(idempotencyKeyRepository, times(1)).claim(eq(USER_ID), eq(KEY), anyString(), any(), any());
+        verify(idempotencyKeyRepository, times(1)).complete(eq(USER_ID), eq(KEY), any());
+    }
+
+    @Test
+    void execute_shouldReject_whenKeyReusedForDifferentRequest() {
+        when(idempotencyKeyRepository.claim(eq(USER_ID), eq(KEY), anyString(), any(), any())).thenReturn(1);
+        when(idempotencyKeyRepository.complete(eq(USER_ID), eq(KEY), any())).thenReturn(1);
+        idempotencyService.execute(USER_ID, KEY, "DEPOSIT|100", Runnable::run);
+
+        assertThatThrownBy(() -> idempotencyService.execute(USER_ID, KEY, "DEPOSIT|200", Runnable::run))
+                .isInstanceOf(IdempotencyKeyReuseException.class);
+    }
+
+    @Test
+    void execute_shouldReleaseKey_whenOperationFails() {
+        when(idempotencyKeyRepository.claim(eq(USER_ID), eq(KEY), anyString(), any(), any())).thenReturn(1);
+
+        assertThatThrownBy(() -> idempotencyService.execute(USER_ID, KEY, "WITHDRAWAL|100", complete -> {
+            throw new InsufficientFundsException("Insufficient funds");
+        })).isInstanceOf(InsufficientFundsException.class);
+
+        verify(idempotencyKeyRepository).release(eq(USER_ID), eq(KEY), any());
+        verify(idempotencyKeyRepository, never()).complete(any(), any(), any());
+    }
+
+    @Test
+    void execute_shouldReplayKeyCompletedByEarlierInstance() {
+        when(idempotencyKeyRepository.claim(eq(USER_ID), eq(KEY), anyString(), any(), any())).thenReturn(0);
+        when(idempotencyKeyRepository.findById(new IdempotencyKeyId(USER_ID, KEY)))
+                .thenReturn(Optional.of(stored(hashOf("DEPOSIT|100"), LocalDateTime.now())));
+        AtomicInteger calls = new AtomicInteger();
+
+        idempotencyService.execute(USER_ID, KEY, "DEPOSIT|100", complete -> calls.incrementAndGet());
+        idempotencyService.execute(USER_ID, KEY, "DEPOSIT|100", complete -> calls.incrementAndGet());
+
+        assertThat(calls.get()).isEqualTo(0);
+        verify(idempotencyKeyRepository, times(1)).findById(any());
+    }
+
+    @Test
+    void execute_shouldReportInProgress_whenKeyHeldElsewhere() {
+        when(idempotencyKeyRepository.claim(eq(USER_ID), eq(KEY), anyString(), any(), any())).thenReturn(0);
+        when(idempotencyKeyRepository.findById(new IdempotencyKeyId(USER_ID, KEY)))
+                .thenReturn(Optional.of(stored(hashOf("DEPOSIT|100"), null)));
+
+        assertThatThrownBy(() -> idempotencyService.execute(USER_ID, KEY, "DEPOSIT|100", Runnable::run))
+                .isInstanceOf(IdempotencyKeyInProgressException.class);
+        verify(idempotencyKeyRepository, never()).release(any(), any(), any());
+    }
+
+    @Test
+    void execute_shouldClaimWithLease_thatExpiresClaimsOlderThanTheLease() {
+        ArgumentCaptor<LocalDateTime> claimedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> expiredBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(idempotencyKeyRepository.claim(eq(USER_ID), eq(KEY), anyString(), claimedAt.capture(), expiredBefore.capture()))
+                .thenReturn(1);
+        when(idempotencyKeyRepository.complete(eq(USER_ID), eq(KEY), any())).thenReturn(1);
+
+        idempotencyService.execute(USER_ID, KEY, "DEPOSIT|100", Runnable::run);
+
+        assertThat(expiredBefore.getValue()).isEqualTo(claimedAt.getValue().minusMinutes(1));
+        verify(idempotencyKeyRepository).complete(USER_ID, KEY, claimedAt.getValue());
+    }
+
+    @Test
+    void execute_shouldFailOperation_whenClaimWasTakenOverBeforeCompletion() {
+        when(idempotencyKeyRepository.claim(eq(USER_ID), eq(KEY), anyString(), any(), any())).thenReturn(1);
+        when(idempotencyKeyRepository.complete(eq(USER_ID), eq(KEY), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> idempotencyService.execute(USER_ID, KEY, "DEPOSIT|100", Runnable::run))
+                .isInstanceOf(IdempotencyKeyInProgressException.class);
+
+        verify(idempotencyKeyRepository).release(eq(USER_ID), eq(KEY), any());
+    }
+
+    private static IdempotencyKey stored(String requestHash, LocalDateTime completedAt) {
+        return IdempotencyKey.builder()
+                .id(new IdempotencyKeyId(USER_ID, KEY))
+                .requestHash(requestHash)
+                .completedAt(completedAt)
+                .build();
+    }
+
+    private static String hashOf(String request) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(request.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.data.CardTestData;
+import com.example.bankcards.entities.LedgerEntry;
+import com.example.bankcards.entities.Transaction;
+import com.example.bankcards.entities.enums.TransactionType;
+import com.example.bankcards.factory.LedgerEntryFactory;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import com.example.bankcards.repository.LedgerPostingRepository;
+import com.example.bankcards.service.impl.LedgerServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+    private static final UUID CARD_ID = UUID.fromString("0a05885c-2386-4e21-af1a-eb5f473249e3");
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    private LedgerPostingRepository ledgerPostingRepository;
+
+    @InjectMocks
+    private LedgerServiceImpl ledgerService;
+
+    private final LedgerEntryFactory ledgerEntryFactory = new LedgerEntryFactory();
+
+    @Test
+    void append_shouldSaveBalancedEntries() {
+        List<LedgerEntry> entries = List.of(ledgerEntryFactory.deposit(transaction(BigDecimal.valueOf(100))));
+
+        ledgerService.append(entries);
+
+        verify(ledgerEntryRepository).saveAll(entries);
+    }
+
+    @Test
+    void append_shouldReject_whenPostingsDoNotBalance() {
+        LedgerEntry entry = ledgerEntryFactory.deposit(transaction(BigDecimal.valueOf(100)));
+        entry.getPostings().get(0).setAmount(BigDecimal.valueOf(90));
+
+        assertThrows(IllegalArgumentException.class, () -> ledgerService.append(List.of(entry)));
+        verify(ledgerEntryRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void append_shouldReject_whenEntryHasSingleLeg() {
+        LedgerEntry entry = ledgerEntryFactory.deposit(transaction(BigDecimal.valueOf(100)));
+        entry.getPostings().remove(0);
+
+        assertThrows(IllegalArgumentException.class, () -> ledgerService.append(List.of(entry)));
+        verify(ledgerEntryRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void append_shouldReject_whenAmountIsNotPositive() {
+        LedgerEntry entry = ledgerEntryFactory.withdrawal(transaction(BigDecimal.ZERO));
+
+        assertThrows(IllegalArgumentException.class, () -> ledgerService.append(List.of(entry)));
+        verify(ledgerEntryRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void append_shouldSkipEmptyBatch() {
+        ledgerService.append(List.of());
+
+        verify(ledgerEntryRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void getBalance_shouldReadSnapshotAndTail() {
+        when(ledgerPostingRepository.findBalance(CARD_ID)).thenReturn(BigDecimal.valueOf(250));
+
+        assertThat(ledgerService.getBalance(CARD_ID)).isEqualTo(BigDecimal.valueOf(250));
+    }
+
+    private static Transaction transaction(BigDecimal amount) {
+        return Transaction.builder()
+                .id(UUID.randomUUID())
+                .card(CardTestData.buildCard())
+                .type(TransactionType.DEPOSIT)
+                .amount(amount)
+                .description("Test")
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.ledger.LedgerPostingRow;
+import com.example.bankcards.dto.ledger.LedgerSnapshotRow;
+import com.example.bankcards.dto.ledger.LedgerVerificationReport;
+import com.example.bankcards.entities.enums.PostingDirection;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import com.example.bankcards.repository.LedgerPostingRepository;
+import com.example.bankcards.repository.LedgerSnapshotRepository;
+import com.example.bankcards.service.impl.LedgerVerificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerVerificationServiceTest {
+    private static final UUID FIRST_ACCOUNT = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID SECOND_ACCOUNT = UUID.fromString("0a05885c-2386-4e21-af1a-eb5f473249e3");
+    private static final UUID THIRD_ACCOUNT = UUID.fromString("f1b2c3d4-0000-4000-8000-000000000000");
+    private static final LocalDateTime START = LocalDateTime.of(2025, 5, 17, 10, 0);
+
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    private LedgerPostingRepository ledgerPostingRepository;
+
+    @Mock
+    private LedgerSnapshotRepository ledgerSnapshotRepository;
+
+    @InjectMocks
+    private LedgerVerificationService ledgerVerificationService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(ledgerEntryRepository.findUnbalancedEntryIds()).thenReturn(List.of());
+        lenient().when(ledgerPostingRepository.findCardsOutOfBalance()).thenReturn(List.of());
+        lenient().when(ledgerPostingRepository.streamAllForReplay()).thenReturn(Stream.of(
+                posting(FIRST_ACCOUNT, PostingDirection.DEBIT, 100, 0),
+                posting(FIRST_ACCOUNT, PostingDirection.DEBIT, 50, 2),
+                posting(SECOND_ACCOUNT, PostingDirection.CREDIT, 100, 0),
+                posting(SECOND_ACCOUNT, PostingDirection.CREDIT, 50, 2),
+                posting(SECOND_ACCOUNT, PostingDirection.DEBIT, 30, 4),
+                posting(THIRD_ACCOUNT, PostingDirection.CREDIT, 30, 4)));
+    }
+
+    @Test
+    void verify_shouldReplayPostingsAgainstEverySnapshot() {
+        when(ledgerSnapshotRepository.streamAllForReplay()).thenReturn(Stream.of(
+                snapshot(FIRST_ACCOUNT, -100, 1),
+                snapshot(FIRST_ACCOUNT, -150, 3),
+                snapshot(SECOND_ACCOUNT, 150, 3),
+                snapshot(SECOND_ACCOUNT, 120, 5),
+                snapshot(THIRD_ACCOUNT, 30, 5)));
+
+        LedgerVerificationReport report = ledgerVerificationService.verify();
+
+        assertThat(report.isConsistent()).isTrue();
+        assertThat(report.postingsReplayed()).isEqualTo(6);
+        assertThat(report.snapshotsChecked()).isEqualTo(5);
+    }
+
+    @Test
+    void verify_shouldIgnorePostingsAfterTheLastSnapshot() {
+        when(ledgerSnapshotRepository.streamAllForReplay()).thenReturn(Stream.of(
+                snapshot(SECOND_ACCOUNT, 150, 3)));
+
+        LedgerVerificationReport report = ledgerVerificationService.verify();
+
+        assertThat(report.isConsistent()).isTrue();
+        assertThat(report.postingsReplayed()).isEqualTo(6);
+        assertThat(report.snapshotsChecked()).isEqualTo(1);
+    }
+
+    @Test
+    void verify_shouldReportSnapshotThatDiffersFromReplay() {
+        LedgerSnapshotRow wrong = snapshot(SECOND_ACCOUNT, 100, 3);
+        when(ledgerSnapshotRepository.streamAllForReplay()).thenReturn(Stream.of(
+                snapshot(FIRST_ACCOUNT, -150, 3),
+                wrong,
+                snapshot(THIRD_ACCOUNT, 30, 5)));
+
+        LedgerVerificationReport report = ledgerVerificationService.verify();
+
+        assertThat(report.isConsistent()).isFalse();
+        assertThat(report.mismatchedSnapshots()).containsExactly(wrong.id());
+    }
+
+    @Test
+    void verify_shouldReportUnbalancedEntriesAndCards() {
+        UUID entryId = UUID.randomUUID();
+        when(ledgerEntryRepository.findUnbalancedEntryIds()).thenReturn(List.of(entryId));
+        when(ledgerPostingRepository.findCardsOutOfBalance()).thenReturn(List.of(SECOND_ACCOUNT));
+        when(ledgerSnapshotRepository.streamAllForReplay()).thenReturn(Stream.of());
+
+        LedgerVerificationReport report = ledgerVerificationService.verify();
+
+        assertThat(report.isConsistent()).isFalse();
+        assertThat(report.unbalancedEntries()).containsExactly(entryId);
+        assertThat(report.cardsOutOfBalance()).containsExactly(SECOND_ACCOUNT);
+    }
+
+    private static LedgerPostingRow posting(UUID accountId, PostingDirection direction, long amount, int minutes) {
+        return new LedgerPostingRow(accountId, direction, BigDecimal.valueOf(amount), START.plusMinutes(minutes));
+    }
+
+    private static LedgerSnapshotRow snapshot(UUID accountId, long balance, int minutes) {
+        return new LedgerSnapshotRow(UUID.randomUUID(), accountId, BigDecimal.valueOf(balance), START.plusMinutes(minutes));
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.transaction.ArchivedTransactionRow;
+import com.example.bankcards.dto.transaction.ArchivedTransactionSlice;
+import com.example.bankcards.dto.transaction.TransactionCursor;
+import com.example.bankcards.dto.transaction.TransactionFilterDto;
+import com.example.bankcards.entities.TransactionArchiveSegment;
+import com.example.bankcards.entities.enums.TransactionType;
+import com.example.bankcards.repository.TransactionArchiveSegmentRepository;
+import com.example.bankcards.repository.TransactionRepository;
+import com.example.bankcards.repository.archive.TransactionArchiveStore;
+import com.example.bankcards.repository.archive.TransactionSegmentWriter;
+import com.example.bankcards.service.exception.transaction.TransactionPageTooDeepException;
+import com.example.bankcards.service.impl.TransactionArchiveServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionArchiveServiceTest {
+    private static final UUID USER_ID = UUID.fromString("fd84e264-29aa-4481-9d39-f29f660d827a");
+    private static final UUID CARD_ID = UUID.fromString("0a05885c-2386-4e21-af1a-eb5f473249e3");
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionArchiveSegmentRepository segmentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionArchiveStore archiveStore;
+    private TransactionArchiveService archiveService;
+    private LocalDateTime day;
+
+    @BeforeEach
+    void setUp() {
+        archiveStore = new TransactionArchiveStore(directory.toString());
+        archiveService = new TransactionArchiveServiceImpl(transactionRepository, segmentRepository,
+                archiveStore, transactionManager);
+        ReflectionTestUtils.setField(archiveService, "enabled", true);
+        ReflectionTestUtils.setField(archiveService, "horizonMonths", 12);
+        ReflectionTestUtils.setField(archiveService, "maxPageWindow", 10000);
+        day = LocalDate.now().minusMonths(12).withDayOfMonth(1).minusDays(1).atStartOfDay();
+    }
+
+    @Test
+    void archiveExpiredTransactions_shouldWriteSegmentDeleteRowsAndRecordSegment() throws IOException {
+        when(transactionRepository.findOldestTimestampBefore(any())).thenReturn(day.plusHours(10));
+        when(transactionRepository.streamForArchive(day, day.plusDays(1)))
+                .thenReturn(Stream.of(row(day.plusHours(10)), row(day.plusHours(11))));
+        when(transactionRepository.deleteByTimestampRange(day, day.plusDays(1))).thenReturn(2);
+
+        long archived = archiveService.archiveExpiredTransactions();
+
+        assertEquals(2, archived);
+        ArgumentCaptor<TransactionArchiveSegment> segment = ArgumentCaptor.forClass(TransactionArchiveSegment.class);
+        verify(segmentRepository).save(segment.capture());
+        assertEquals(2, segment.getValue().getRowCount());
+        assertEquals(day.plusHours(10), segment.getValue().getMinTimestamp());
+        assertEquals(day.plusHours(11), segment.getValue().getMaxTimestamp());
+        assertEquals(List.of(segment.getValue().getFileName()), segmentFiles());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void archiveExpiredTransactions_shouldRollBackAndDropFile_whenDeletedCountDiffers() throws IOException {
+        when(transactionRepository.findOldestTimestampBefore(any())).thenReturn(day);
+        when(transactionRepository.streamForArchive(day, day.plusDays(1))).thenReturn(Stream.of(row(day)));
+        when(transactionRepository.deleteByTimestampRange(day, day.plusDays(1))).thenReturn(2);
+
+        long archived = archiveService.archiveExpiredTransactions();
+
+        assertEquals(0, archived);
+        verify(segmentRepository, never()).save(any());
+        verify(transactionManager).rollback(any());
+        assertTrue(segmentFiles().isEmpty());
+    }
+
+    @Test
+    void archiveExpiredTransactions_shouldDoNothing_whenDisabled() {
+        ReflectionTestUtils.setField(archiveService, "enabled", false);
+
+        assertEquals(0, archiveService.archiveExpiredTransactions());
+        verifyNoInteractions(transactionRepository, segmentRepository, transactionManager);
+    }
+
+    @Test
+    void findTop_shouldFilterAndKeepNewestRows() throws IOException {
+        ArchivedTransactionRow oldest = row(day);
+        ArchivedTransactionRow newest = row(day.plusHours(2));
+        ArchivedTransactionRow foreign = new ArchivedTransactionRow(UUID.randomUUID(), UUID.randomUUID(),
+                UUID.randomUUID(), TransactionType.DEPOSIT, BigDecimal.TEN, "Foreign", day.plusHours(3));
+        try (TransactionSegmentWriter writer = archiveStore.create("segment.seg")) {
+            writer.append(oldest);
+            writer.append(newest);
+            writer.append(foreign);
+        }
+        archiveStore.publish("segment.seg");
+        when(segmentRepository.findOverlapping(any(), any())).thenReturn(List.of(TransactionArchiveSegment.builder()
+                .fileName("segment.seg")
+                .build()));
+
+        ArchivedTransactionSlice slice = archiveService.findTop(TransactionFilterDto.builder().userId(USER_ID).build(),
+                Comparator.comparing(ArchivedTransactionRow::timestamp).reversed(), 1);
+
+        assertEquals(2, slice.total());
+        assertEquals(List.of(newest), slice.rows());
+    }
+
+    @Test
+    void findTop_shouldRejectDeepWindow_whenArchiveIsInvolved() {
+        ReflectionTestUtils.setField(archiveService, "maxPageWindow", 100);
+        when(segmentRepository.findOverlapping(any(), any())).thenReturn(List.of(TransactionArchiveSegment.builder()
+                .fileName("segment.seg")
+                .build()));
+        TransactionFilterDto filter = TransactionFilterDto.builder().userId(USER_ID).build();
+        Comparator<ArchivedTransactionRow> order = Comparator.comparing(ArchivedTransactionRow::timestamp);
+
+        assertThrows(TransactionPageTooDeepException.class, () -> archiveService.findTop(filter, order, 101));
+    }
+
+    @Test
+    void findAfter_shouldReturnRowsOlderThanCursorNewestFirst() throws IOException {
+        ArchivedTransactionRow oldest = row(day);
+        ArchivedTransactionRow middle = row(day.plusHours(1));
+        ArchivedTransactionRow newest = row(day.plusHours(2));
+        writeSegment("older.seg", oldest);
+        writeSegment("newer.seg", middle, newest);
+        when(segmentRepository.findOverlapping(any(), eq(newest.timestamp()))).thenReturn(List.of(
+                segment("older.seg", oldest.timestamp(), oldest.timestamp()),
+                segment("newer.seg", middle.timestamp(), newest.timestamp())));
+
+        List<ArchivedTransactionRow> rows = archiveService.findAfter(TransactionFilterDto.builder().userId(USER_ID).build(),
+                new TransactionCursor(newest.timestamp(), newest.id()), 2);
+
+        assertEquals(List.of(middle, oldest), rows);
+    }
+
+    @Test
+    void forEachNewestFirst_shouldEmitSegmentsNewestFirst() throws IOException {
+        ArchivedTransactionRow oldest = row(day);
+        ArchivedTransactionRow middle = row(day.plusDays(1));
+        ArchivedTransactionRow newest = row(day.plusDays(1).plusHours(1));
+        writeSegment("older.seg", oldest);
+        writeSegment("newer.seg", middle, newest);
+        when(segmentRepository.findOverlapping(any(), any())).thenReturn(List.of(
+                segment("older.seg", oldest.timestamp(), oldest.timestamp()),
+                segment("newer.seg", middle.timestamp(), newest.timestamp())));
+        List<ArchivedTransactionRow> rows = new ArrayList<>();
+
+        long count = archiveService.forEachNewestFirst(TransactionFilterDto.builder().userId(USER_ID).build(), rows::add);
+
+        assertEquals(3, count);
+        assertEquals(List.of(newest, middle, oldest), rows);
+    }
+
+    private void writeSegment(String fileName, ArchivedTransactionRow... rows) throws IOException {
+        try (TransactionSegmentWriter writer = archiveStore.create(fileName)) {
+            for (ArchivedTransactionRow row : rows) {
+                writer.append(row);
+            }
+        }
+        archiveStore.publish(fileName);
+    }
+
+    private static TransactionArchiveSegment segment(String fileName, LocalDateTime min, LocalDateTime max) {
+        return TransactionArchiveSegment.builder()
+                .fileName(fileName)
+                .minTimestamp(min)
+                .maxTimestamp(max)
+                .build();
+    }
+
+    private List<String> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).toList();
+        }
+    }
+
+    private static ArchivedTransactionRow row(LocalDateTime timestamp) {
+        return new ArchivedTransactionRow(UUID.randomUUID(), CARD_ID, USER_ID, TransactionType.WITHDRAWAL,
+                new BigDecimal("25.00"), "Coffee", timestamp);
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.data.CardTestData;
+import com.example.bankcards.dto.transaction.BatchItemStatus;
+import com.example.bankcards.dto.transaction.BatchTransactionItemDto;
+import com.example.bankcards.dto.transaction.BatchTransactionItemResultDto;
+import com.example.bankcards.dto.transaction.BatchTransactionRequestDto;
+import com.example.bankcards.dto.transaction.BatchTransactionResponseDto;
+import com.example.bankcards.dto.transaction.CardSpendKey;
+import com.example.bankcards.dto.transaction.SpendTotalsDto;
+import com.example.bankcards.dto.transaction.TransactionRequestDto;
+import com.example.bankcards.entities.Card;
+import com.example.bankcards.entities.CardLimit;
+import com.example.bankcards.entities.LedgerEntry;
+import com.example.bankcards.entities.LedgerPosting;
+import com.example.bankcards.entities.Transaction;
+import com.example.bankcards.entities.enums.LedgerEntryType;
+import com.example.bankcards.entities.enums.PostingDirection;
+import com.example.bankcards.entities.enums.TransactionType;
+import com.example.bankcards.factory.LedgerEntryFactory;
+import com.example.bankcards.factory.TransactionFactory;
+import com.example.bankcards.repository.CardLimitRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransactionRepository;
+import com.example.bankcards.service.impl.TransactionBatchServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionBatchServiceTest {
+    private static final UUID USER_ID = UUID.fromString("fd84e264-29aa-4481-9d39-f29f660d827a");
+    private static final UUID CARD_ID = UUID.fromString("0a05885c-2386-4e21-af1a-eb5f473249e3");
+    private static final UUID TO_CARD_ID = UUID.fromString("bd721116-820a-4647-9b9e-70f3e526fbcb");
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardLimitRepository cardLimitRepository;
+
+    @Mock
+    private TransactionFactory transactionFactory;
+
+    @Mock
+    private CardSpendService cardSpendService;
+
+    @Mock
+    private CardLockingService cardLockingService;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    private Card card;
+    private Card toCard;
+    private Map<CardSpendKey, SpendTotalsDto> spent;
+
+    @BeforeEach
+    void setUp() {
+        card = CardTestData.buildCard();
+        toCard = CardTestData.buildCardTo();
+        spent = new HashMap<>();
+
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(cardLockingService).execute(any(), any());
+        lenient().when(cardLockingService.getMode()).thenReturn(ConcurrencyMode.OPTIMISTIC);
+        lenient().when(cardRepository.findAllById(anyCollection())).thenReturn(List.of(card, toCard));
+        lenient().when(cardLimitRepository.findAllByCardIdIn(anyCollection()))
+                .thenReturn(limits(card, toCard));
+        lenient().when(cardSpendService.getSpent(anyCollection(), any(LocalDate.class))).thenReturn(spent);
+        lenient().when(transactionFactory.create(any(TransactionRequestDto.class), any(Card.class), any(TransactionType.class)))
+                .thenAnswer(invocation -> Transaction.builder()
+                        .amount(invocation.<TransactionRequestDto>getArgument(0).getAmount())
+                        .card(invocation.getArgument(1))
+                        .type(invocation.getArgument(2))
+                        .build());
+    }
+
+    @Test
+    void submit_shouldApplyValidItemsAndRejectInvalidOnes() {
+        spent.put(new CardSpendKey(CARD_ID, TransactionType.WITHDRAWAL),
+                new SpendTotalsDto(BigDecimal.valueOf(90), BigDecimal.valueOf(90)));
+        UUID unknownCardId = UUID.randomUUID();
+
+        BatchTransactionResponseDto response = service(500).submit(request(
+                item(TransactionType.DEPOSIT, CARD_ID, null, 30),
+                item(TransactionType.WITHDRAWAL, CARD_ID, null, 20),
+                item(TransactionType.TRANSFER, CARD_ID, TO_CARD_ID, 50),
+                item(TransactionType.WITHDRAWAL, unknownCardId, null, 10),
+                item(TransactionType.TRANSFER, CARD_ID, CARD_ID, 10)), USER_ID);
+
+        assertEquals(2, response.getApplied());
+        assertEquals(3, response.getRejected());
+        List<BatchTransactionItemResultDto> results = response.getResults();
+        assertEquals(BatchItemStatus.APPLIED, results.get(0).getStatus());
+        assertNull(results.get(0).getError());
+        assertEquals("Daily limit exceeded", results.get(1).getError());
+        assertEquals(BatchItemStatus.APPLIED, results.get(2).getStatus());
+        assertEquals("Card not found: " + unknownCardId, results.get(3).getError());
+        assertEquals("Cannot transfer to the same card", results.get(4).getError());
+
+        assertEquals(BigDecimal.valueOf(80), card.getBalance());
+        assertEquals(BigDecimal.valueOf(150), toCard.getBalance());
+
+        ArgumentCaptor<List<Transaction>> saved = ArgumentCaptor.forClass(List.class);
+        verify(transactionRepository).saveAll(saved.capture());
+        assertEquals(List.of(TransactionType.DEPOSIT, TransactionType.TRANSFER, TransactionType.DEPOSIT),
+                saved.getValue().stream().map(Transaction::getType).toList());
+        verify(cardSpendService).recordSpend(saved.getValue());
+
+        ArgumentCaptor<List<LedgerEntry>> journal = ArgumentCaptor.forClass(List.class);
+        verify(ledgerService).append(journal.capture());
+        assertEquals(List.of(LedgerEntryType.DEPOSIT, LedgerEntryType.TRANSFER),
+                journal.getValue().stream().map(LedgerEntry::getEntryType).toList());
+        List<LedgerPosting> transferLegs = journal.getValue().get(1).getPostings();
+        assertEquals(CARD_ID, transferLegs.get(0).getAccountId());
+        assertEquals(PostingDirection.DEBIT, transferLegs.get(0).getDirection());
+        assertEquals(TO_CARD_ID, transferLegs.get(1).getAccountId());
+        assertEquals(PostingDirection.CREDIT, transferLegs.get(1).getDirection());
+        verify(cardRepository, times(1)).findAllById(anyCollection());
+        verify(cardLimitRepository, times(1)).findAllByCardIdIn(anyCollection());
+    }
+
+    @Test
+    void submit_shouldCountRunningSpendAgainstLimits() {
+        BatchTransactionResponseDto response = service(500).submit(request(
+                item(TransactionType.DEPOSIT, CARD_ID, null, 60),
+                item(TransactionType.DEPOSIT, CARD_ID, null, 60)), USER_ID);
+
+        assertEquals(BatchItemStatus.APPLIED, response.getResults().get(0).getStatus());
+        assertEquals("Daily limit exceeded", response.getResults().get(1).getError());
+        assertEquals(BigDecimal.valueOf(160), card.getBalance());
+    }
+
+    @Test
+    void submit_shouldProcessEachChunkInItsOwnTransaction() {
+        BatchTransactionResponseDto response = service(2).submit(request(
+                item(TransactionType.DEPOSIT, CARD_ID, null, 10),
+                item(TransactionType.DEPOSIT, CARD_ID, null, 10),
+                item(TransactionType.DEPOSIT, TO_CARD_ID, null, 10)), USER_ID);
+
+        assertEquals(3, response.getApplied());
+        assertEquals(List.of(0, 1, 2), response.getResults().stream().map(BatchTransactionItemResultDto::getIndex).toList());
+        verify(cardLockingService, times(2)).execute(any(), any());
+        verify(transactionRepository, times(2)).saveAll(any());
+    }
+
+    @Test
+    void submit_shouldLockCardsUpFront_inPessimisticMode() {
+        when(cardLockingService.getMode()).thenReturn(ConcurrencyMode.PESSIMISTIC);
+        when(cardRepository.findAllByIdInForUpdate(anyCollection())).thenReturn(List.of(card));
+
+        service(500).submit(request(item(TransactionType.WITHDRAWAL, CARD_ID, null, 10)), USER_ID);
+
+        verify(cardRepository).findAllByIdInForUpdate(anyCollection());
+        verify(cardRepository, never()).findAllById(anyCollection());
+    }
+
+    @Test
+    void submit_shouldRejectForeignCardsAndSaveNothing() {
+        BatchTransactionResponseDto response = service(500).submit(request(
+                item(TransactionType.DEPOSIT, CARD_ID, null, 10)), UUID.randomUUID());
+
+        assertEquals(0, response.getApplied());
+        assertEquals("Access denied to card", response.getResults().get(0).getError());
+        verify(transactionRepository, never()).saveAll(any());
+        verify(cardSpendService, never()).recordSpend(anyList());
+        verify(ledgerService, never()).append(anyList());
+    }
+
+    private TransactionBatchService service(int chunkSize) {
+        return new TransactionBatchServiceImpl(transactionRepository, cardRepository, cardLimitRepository,
+                transactionFactory, cardSpendService, cardLockingService, ledgerService, new LedgerEntryFactory(),
+                chunkSize);
+    }
+
+    private static BatchTransactionRequestDto request(BatchTransactionItemDto... items) {
+        return new BatchTransactionRequestDto(Arrays.asList(items));
+    }
+
+    private static BatchTransactionItemDto item(TransactionType type, UUID cardId, UUID toCardId, long amount) {
+        return BatchTransactionItemDto.builder()
+                .type(type)
+                .cardId(cardId)
+                .toCardId(toCardId)
+                .amount(BigDecimal.valueOf(amount))
+                .build();
+    }
+
+    private static List<CardLimit> limits(Card... cards) {
+        return Arrays.stream(cards)
+                .flatMap(limitCard -> Arrays.stream(TransactionType.values())
+                        .map(type -> CardLimit.builder()
+                                .card(limitCard)
+                                .transactionType(type)
+                                .dailyLimit(BigDecimal.valueOf(100))
+                                .monthlyLimit(BigDecimal.valueOf(100))
+                                .build()))
+                .toList();
+    }
+}
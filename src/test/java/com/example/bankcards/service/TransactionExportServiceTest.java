@@ -0,0 +1,165 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.data.CardTestData;
+import com.example.bankcards.data.TransactionTestData;
+import com.example.bankcards.data.UserTestData;
+import com.example.bankcards.dto.transaction.ArchivedTransactionRow;
+import com.example.bankcards.dto.transaction.TransactionExportRow;
+import com.example.bankcards.dto.transaction.TransactionFilterDto;
+import com.example.bankcards.entities.Card;
+import com.example.bankcards.entities.Transaction;
+import com.example.bankcards.entities.enums.TransactionType;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransactionRepository;
+import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.exception.transaction.CardOwnershipException;
+import com.example.bankcards.service.impl.TransactionExportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+    private static final UUID USER_ID = UUID.fromString("fd84e264-29aa-4481-9d39-f29f660d827a");
+    private static final UUID CARD_ID = UUID.fromString("0a05885c-2386-4e21-af1a-eb5f473249e3");
+    private static final UUID TRANSACTION_ID = UUID.fromString("6f1c2b0e-0d7a-4b5e-9a51-3c1f0e2d4a77");
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionArchiveService transactionArchiveService;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionExportService transactionExportService;
+    private TransactionFilterDto filter;
+    private UserPrincipal user;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        transactionExportService = new TransactionExportServiceImpl(
+                transactionRepository, transactionArchiveService, cardRepository, objectMapper, transactionManager);
+        filter = TransactionTestData.buildTransactionFilterDto();
+        user = UserTestData.buildUserPrincipal();
+    }
+
+    @Test
+    void exportTransactions_shouldWriteCsvWithHeaderAndEscapedFields() throws IOException {
+        when(transactionRepository.streamForExport(ArgumentMatchers.<Specification<Transaction>>any()))
+                .thenReturn(Stream.of(buildRow("Dinner, \"Lux\"")));
+
+        String csv = export(ExportFormat.CSV);
+
+        assertEquals("id,card_id,type,amount,description,timestamp\n" +
+                TRANSACTION_ID + "," + CARD_ID + ",TRANSFER,150.00,\"Dinner, \"\"Lux\"\"\",2025-03-01T12:30\n", csv);
+        assertEquals(USER_ID, filter.getUserId());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void exportTransactions_shouldWriteOneJsonObjectPerLine() throws IOException {
+        when(transactionRepository.streamForExport(ArgumentMatchers.<Specification<Transaction>>any()))
+                .thenReturn(Stream.of(buildRow("Coffee"), buildRow("Tea")));
+
+        String ndjson = export(ExportFormat.NDJSON);
+
+        String[] lines = ndjson.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":\"" + TRANSACTION_ID + "\""));
+        assertTrue(lines[1].contains("\"description\":\"Tea\""));
+    }
+
+    @Test
+    void exportTransactions_shouldAppendArchivedRowsAfterDatabaseRows() throws IOException {
+        UUID archivedId = UUID.randomUUID();
+        when(transactionRepository.streamForExport(ArgumentMatchers.<Specification<Transaction>>any()))
+                .thenReturn(Stream.of(buildRow("Coffee")));
+        when(transactionArchiveService.forEachNewestFirst(eq(filter), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<ArchivedTransactionRow>>getArgument(1).accept(new ArchivedTransactionRow(archivedId,
+                    CARD_ID, USER_ID, TransactionType.DEPOSIT, BigDecimal.TEN, "Old", LocalDateTime.of(2023, 1, 2, 9, 0)));
+            return 1L;
+        });
+
+        String csv = export(ExportFormat.CSV);
+
+        String[] lines = csv.split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[1].startsWith(TRANSACTION_ID + ","));
+        assertEquals(archivedId + "," + CARD_ID + ",DEPOSIT,10,Old,2023-01-02T09:00", lines[2]);
+    }
+
+    @Test
+    void exportTransactions_shouldCloseStream() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(transactionRepository.streamForExport(ArgumentMatchers.<Specification<Transaction>>any()))
+                .thenReturn(Stream.of(buildRow("Coffee")).onClose(() -> closed.set(true)));
+
+        export(ExportFormat.CSV);
+
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportTransactions_shouldNeutralizeSpreadsheetFormulas() throws IOException {
+        when(transactionRepository.streamForExport(ArgumentMatchers.<Specification<Transaction>>any()))
+                .thenReturn(Stream.of(buildRow("=HYPERLINK(\"x\")")));
+
+        String csv = export(ExportFormat.CSV);
+
+        assertTrue(csv.contains(",\"'=HYPERLINK(\"\"x\"\")\","));
+    }
+
+    @Test
+    void exportTransactions_shouldRejectForeignCardBeforeStreaming() {
+        Card foreignCard = CardTestData.buildCard();
+        foreignCard.getUser().setId(UUID.randomUUID());
+        filter.setCardId(CARD_ID);
+        when(cardRepository.findById(CARD_ID)).thenReturn(Optional.of(foreignCard));
+
+        assertThrows(CardOwnershipException.class,
+                () -> transactionExportService.exportTransactions(filter, ExportFormat.CSV, user));
+        verifyNoInteractions(transactionRepository, transactionManager);
+    }
+
+    private String export(ExportFormat format) throws IOException {
+        StreamingResponseBody body = transactionExportService.exportTransactions(filter, format, user);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private TransactionExportRow buildRow(String description) {
+        return new TransactionExportRow(TRANSACTION_ID, CARD_ID, TransactionType.TRANSFER,
+                new BigDecimal("150.00"), description, LocalDateTime.of(2025, 3, 1, 12, 30));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.repository.TransactionPartitionRepository;
+import com.example.bankcards.repository.TransactionPartitionRepository.Partition;
+import com.example.bankcards.service.impl.TransactionPartitionMaintenanceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionPartitionMaintenanceServiceTest {
+    private static final YearMonth CURRENT_MONTH = YearMonth.of(2026, 10);
+
+    @Mock
+    private TransactionPartitionRepository partitionRepository;
+
+    @InjectMocks
+    private TransactionPartitionMaintenanceService maintenanceService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(maintenanceService, "premakeMonths", 3);
+        ReflectionTestUtils.setField(maintenanceService, "retentionMonths", 24);
+    }
+
+    @Test
+    void createUpcomingPartitions_shouldSkipMonthsCoveredByLegacyPartition() {
+        when(partitionRepository.findAll()).thenReturn(List.of(
+                new Partition("transactions_legacy", null, LocalDateTime.of(2026, 12, 1, 0, 0))));
+
+        int created = maintenanceService.createUpcomingPartitions(CURRENT_MONTH);
+
+        assertEquals(2, created);
+        verify(partitionRepository).createPartition("transactions_y2026m12",
+                LocalDateTime.of(2026, 12, 1, 0, 0), LocalDateTime.of(2027, 1, 1, 0, 0));
+        verify(partitionRepository).createPartition("transactions_y2027m01",
+                LocalDateTime.of(2027, 1, 1, 0, 0), LocalDateTime.of(2027, 2, 1, 0, 0));
+        verifyNoMoreInteractions(partitionRepository);
+    }
+
+    @Test
+    void createUpcomingPartitions_shouldContinueAfterFailure() {
+        when(partitionRepository.findAll()).thenReturn(List.of());
+        doThrow(new IllegalStateException("lock timeout")).when(partitionRepository)
+                .createPartition(eq("transactions_y2026m10"), any(), any());
+
+        int created = maintenanceService.createUpcomingPartitions(CURRENT_MONTH);
+
+        assertEquals(3, created);
+        verify(partitionRepository, times(4)).createPartition(anyString(), any(), any());
+    }
+
+    @Test
+    void archiveExpiredPartitions_shouldDetachOnlyPartitionsBehindHorizon() {
+        when(partitionRepository.findAll()).thenReturn(List.of(
+                new Partition("transactions_legacy", null, LocalDateTime.of(2024, 10, 1, 0, 0)),
+                new Partition("transactions_y2024m10", LocalDateTime.of(2024, 10, 1, 0, 0),
+                        LocalDateTime.of(2024, 11, 1, 0, 0)),
+                new Partition("transactions_y2026m11", LocalDateTime.of(2026, 11, 1, 0, 0),
+                        LocalDateTime.of(2026, 12, 1, 0, 0))));
+
+        int archived = maintenanceService.archiveExpiredPartitions(CURRENT_MONTH);
+
+        assertEquals(1, archived);
+        verify(partitionRepository).detachAndArchive("transactions_legacy");
+        verify(partitionRepository, never()).detachAndArchive("transactions_y2024m10");
+        verify(partitionRepository, never()).detachAndArchive("transactions_y2026m11");
+    }
+
+    @Test
+    void archiveExpiredPartitions_shouldKeepEverything_whenRetentionDisabled() {
+        ReflectionTestUtils.setField(maintenanceService, "retentionMonths", 0);
+
+        int archived = maintenanceService.archiveExpiredPartitions(CURRENT_MONTH);
+
+        assertEquals(0, archived);
+        verifyNoInteractions(partitionRepository);
+    }
+}
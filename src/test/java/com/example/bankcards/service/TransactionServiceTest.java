@@ -3,22 +3,32 @@ package com.example.bankcards.service;
 import com.example.bankcards.data.CardTestData;
 import com.example.bankcards.data.TransactionTestData;
 import com.example.bankcards.data.UserTestData;
+import com.example.bankcards.dto.transaction.ArchivedTransactionRow;
+import com.example.bankcards.dto.transaction.ArchivedTransactionSlice;
+import com.example.bankcards.dto.transaction.SpendTotalsDto;
+import com.example.bankcards.dto.transaction.TransactionCursor;
 import com.example.bankcards.dto.transaction.TransactionFilterDto;
 import com.example.bankcards.dto.transaction.TransactionRequestDto;
 import com.example.bankcards.dto.transaction.TransactionResponseDto;
+import com.example.bankcards.dto.transaction.TransactionSliceDto;
 import com.example.bankcards.entities.Card;
 import com.example.bankcards.entities.CardLimit;
+import com.example.bankcards.entities.LedgerEntry;
 import com.example.bankcards.entities.Transaction;
 import com.example.bankcards.entities.enums.TransactionType;
+import com.example.bankcards.factory.LedgerEntryFactory;
 import com.example.bankcards.factory.TransactionFactory;
 import com.example.bankcards.mapper.TransactionMapper;
 import com.example.bankcards.repository.CardLimitRepository;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TransactionRepository;
 import com.example.bankcards.security.UserPrincipal;
+import com.example.bankcards.service.exception.transaction.DailyLimitExceededException;
 import com.example.bankcards.service.exception.transaction.InsufficientFundsException;
+import com.example.bankcards.service.exception.transaction.InvalidCursorException;
 import com.example.bankcards.service.exception.transaction.InvalidDepositAmountException;
 import com.example.bankcards.service.exception.transaction.TransferToSameCardException;
+import com.example.bankcards.service.impl.CardShardExecutorImpl;
 import com.example.bankcards.service.impl.TransactionServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,17 +36,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -65,6 +80,27 @@ class TransactionServiceTest {
     @Mock
     private TransactionFactory transactionFactory;
 
+    @Mock
+    private CardSpendService cardSpendService;
+
+    @Mock
+    private CardLockingService cardLockingService;
+
+    @Mock
+    private TransactionArchiveService transactionArchiveService;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private LedgerEntryFactory ledgerEntryFactory;
+
+    @Spy
+    private CardShardExecutor cardShardExecutor = new CardShardExecutorImpl(false, 1, 1);
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
     @InjectMocks
     private TransactionServiceImpl transactionService;
 
@@ -78,14 +114,28 @@ class TransactionServiceTest {
     @BeforeEach
     void setUp() {
         createTestData();
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(cardLockingService).execute(any(), any(Runnable.class));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<Runnable>>getArgument(3).accept(() -> {
+            });
+            return null;
+        }).when(idempotencyService).execute(any(), any(), any(), any());
+        lenient().when(transactionArchiveService.findTop(any(), any(), anyInt()))
+                .thenReturn(ArchivedTransactionSlice.empty());
+        lenient().when(ledgerEntryFactory.deposit(any())).thenReturn(new LedgerEntry());
+        lenient().when(ledgerEntryFactory.withdrawal(any())).thenReturn(new LedgerEntry());
+        lenient().when(ledgerEntryFactory.transfer(any(), any())).thenReturn(new LedgerEntry());
     }
 
     @Test
     void withdraw_shouldSucceed_whenEnoughBalanceAndLimit() {
         when(cardRepository.findById(CARD_ID)).thenReturn(Optional.of(card));
         when(cardLimitRepository.findByCardIdAndTransactionType(CARD_ID, TransactionType.WITHDRAWAL)).thenReturn(Optional.of(cardLimit));
-        when(transactionRepository.sumAmountByCardAndTimestampAfter(any(), any(), any()))
-                .thenReturn(BigDecimal.ZERO);
+        when(cardSpendService.getSpent(any(), any(), any()))
+                .thenReturn(new SpendTotalsDto(BigDecimal.ZERO, BigDecimal.ZERO));
         when(transactionFactory.create(requestDto, card, TransactionType.WITHDRAWAL))
                 .thenReturn(new Transaction());
 
@@ -93,14 +143,17 @@ class TransactionServiceTest {
 
         verify(cardRepository).saveAll(List.of(card));
         verify(transactionRepository).save(any(Transaction.class));
+        verify(cardSpendService).recordSpend(any(Transaction.class));
+        verify(ledgerEntryFactory).withdrawal(any(Transaction.class));
+        verify(ledgerService).append(anyList());
     }
 
     @Test
     void deposit_shouldSucceed_whenValidAmount() {
         when(cardRepository.findById(CARD_ID)).thenReturn(Optional.of(card));
         when(cardLimitRepository.findByCardIdAndTransactionType(CARD_ID, TransactionType.DEPOSIT)).thenReturn(Optional.of(cardLimit));
-        when(transactionRepository.sumAmountByCardAndTimestampAfter(any(), any(), any()))
-                .thenReturn(BigDecimal.ZERO);
+        when(cardSpendService.getSpent(any(), any(), any()))
+                .thenReturn(new SpendTotalsDto(BigDecimal.ZERO, BigDecimal.ZERO));
         when(transactionFactory.create(requestDto, card, TransactionType.DEPOSIT))
                 .thenReturn(new Transaction());
 
@@ -108,6 +161,9 @@ class TransactionServiceTest {
 
         verify(cardRepository).saveAll(List.of(card));
         verify(transactionRepository).save(any(Transaction.class));
+        verify(cardSpendService).recordSpend(any(Transaction.class));
+        verify(ledgerEntryFactory).deposit(any(Transaction.class));
+        verify(ledgerService).append(anyList());
     }
 
     @Test
@@ -115,15 +171,33 @@ class TransactionServiceTest {
         when(cardRepository.findById(CARD_ID)).thenReturn(Optional.of(card));
         when(cardRepository.findById(TO_CARD_ID)).thenReturn(Optional.of(toCard));
         when(cardLimitRepository.findByCardIdAndTransactionType(CARD_ID, TransactionType.TRANSFER)).thenReturn(Optional.of(cardLimit));
-        when(transactionRepository.sumAmountByCardAndTimestampAfter(any(), any(), any()))
-                .thenReturn(BigDecimal.ZERO);
+        when(cardSpendService.getSpent(any(), any(), any()))
+                .thenReturn(new SpendTotalsDto(BigDecimal.ZERO, BigDecimal.ZERO));
         when(transactionFactory.create(any(), any(), any()))
                 .thenReturn(new Transaction());
 
         transactionService.transfer(CARD_ID, TO_CARD_ID, requestDto, USER_ID);
 
+        verify(cardLockingService).lockInOrder(CARD_ID, TO_CARD_ID);
         verify(cardRepository).saveAll(List.of(card, toCard));
         verify(transactionRepository, times(2)).save(any(Transaction.class));
+        verify(cardSpendService, times(2)).recordSpend(any(Transaction.class));
+        verify(ledgerEntryFactory).transfer(any(Transaction.class), any(Transaction.class));
+        verify(ledgerService).append(anyList());
+    }
+
+    @Test
+    void withdraw_shouldThrowException_whenDailyLimitExceeded() {
+        when(cardRepository.findById(CARD_ID)).thenReturn(Optional.of(card));
+        when(cardLimitRepository.findByCardIdAndTransactionType(CARD_ID, TransactionType.WITHDRAWAL)).thenReturn(Optional.of(cardLimit));
+        when(cardSpendService.getSpent(any(), any(), any()))
+                .thenReturn(new SpendTotalsDto(BigDecimal.valueOf(80), BigDecimal.valueOf(80)));
+
+        assertThrows(DailyLimitExceededException.class,
+                () -> transactionService.withdraw(CARD_ID, requestDto, USER_ID));
+
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(cardSpendService, never()).recordSpend(any(Transaction.class));
     }
 
     @Test
@@ -178,6 +252,117 @@ class TransactionServiceTest {
         verify(transactionRepository).findAll(ArgumentMatchers.<Specification<Transaction>>any(), eq(pageable));
     }
 
+    @Test
+    void getAllTransactions_shouldMergeArchivedRowsAfterNewerDatabaseRows() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Transaction hotTransaction = Transaction.builder()
+                .id(UUID.randomUUID())
+                .card(card)
+                .type(TransactionType.DEPOSIT)
+                .amount(BigDecimal.TEN)
+                .timestamp(LocalDateTime.of(2026, 3, 1, 12, 0))
+                .build();
+        ArchivedTransactionRow archivedRow = new ArchivedTransactionRow(UUID.randomUUID(), CARD_ID, USER_ID,
+                TransactionType.WITHDRAWAL, BigDecimal.ONE, "Old", LocalDateTime.of(2024, 3, 1, 12, 0));
+        when(transactionArchiveService.findTop(any(), any(), eq(10)))
+                .thenReturn(new ArchivedTransactionSlice(1, List.of(archivedRow)));
+        when(transactionRepository.findAll(ArgumentMatchers.<Specification<Transaction>>any(),
+                eq(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "timestamp", "id")))))
+                .thenReturn(new PageImpl<>(List.of(hotTransaction), pageable, 1));
+        when(transactionMapper.convertToTransactionResponseDto(any(ArchivedTransactionRow.class)))
+                .thenAnswer(invocation -> {
+                    TransactionResponseDto dto = new TransactionResponseDto();
+                    dto.setTimestamp(invocation.<ArchivedTransactionRow>getArgument(0).timestamp());
+                    return dto;
+                });
+
+        Page<TransactionResponseDto> result = transactionService.getAllTransactions(filter, pageable, user);
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(List.of(hotTransaction.getTimestamp(), archivedRow.timestamp()),
+                result.getContent().stream().map(TransactionResponseDto::getTimestamp).toList());
+        assertEquals(USER_ID, filter.getUserId());
+    }
+
+    @Test
+    void getTransactionsAfter_shouldReturnNextCursor_whenMoreRowsExist() {
+        Transaction newest = buildTransaction(LocalDateTime.of(2025, 3, 3, 12, 0));
+        Transaction middle = buildTransaction(LocalDateTime.of(2025, 3, 2, 12, 0));
+        Transaction oldest = buildTransaction(LocalDateTime.of(2025, 3, 1, 12, 0));
+        when(transactionRepository.findBy(ArgumentMatchers.<Specification<Transaction>>any(), any()))
+                .thenReturn(List.of(newest, middle, oldest));
+
+        TransactionSliceDto result = transactionService.getTransactionsAfter(filter, null, 2, user);
+
+        assertEquals(2, result.getContent().size());
+        assertEquals(new TransactionCursor(middle.getTimestamp(), middle.getId()),
+                TransactionCursor.decode(result.getNextCursor()));
+        assertEquals(USER_ID, filter.getUserId());
+    }
+
+    @Test
+    void getTransactionsAfter_shouldReturnNoCursor_onLastPage() {
+        Transaction only = buildTransaction(LocalDateTime.of(2025, 3, 1, 12, 0));
+        String cursor = new TransactionCursor(LocalDateTime.of(2025, 3, 2, 12, 0), UUID.randomUUID()).encode();
+        when(transactionRepository.findBy(ArgumentMatchers.<Specification<Transaction>>any(), any()))
+                .thenReturn(List.of(only));
+
+        TransactionSliceDto result = transactionService.getTransactionsAfter(filter, cursor, 2, user);
+
+        assertEquals(1, result.getContent().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getTransactionsAfter_shouldContinueIntoArchive_whenDatabaseRowsRunOut() {
+        Transaction newest = buildTransaction(LocalDateTime.of(2025, 3, 3, 12, 0));
+        ArchivedTransactionRow archivedNewer = new ArchivedTransactionRow(UUID.randomUUID(), CARD_ID, USER_ID,
+                TransactionType.WITHDRAWAL, BigDecimal.ONE, "Old", LocalDateTime.of(2024, 3, 2, 12, 0));
+        ArchivedTransactionRow archivedOlder = new ArchivedTransactionRow(UUID.randomUUID(), CARD_ID, USER_ID,
+                TransactionType.WITHDRAWAL, BigDecimal.ONE, "Older", LocalDateTime.of(2024, 3, 1, 12, 0));
+        when(transactionRepository.findBy(ArgumentMatchers.<Specification<Transaction>>any(), any()))
+                .thenReturn(List.of(newest));
+        when(transactionArchiveService.findAfter(filter, new TransactionCursor(newest.getTimestamp(), newest.getId()), 2))
+                .thenReturn(List.of(archivedNewer, archivedOlder));
+
+        TransactionSliceDto result = transactionService.getTransactionsAfter(filter, null, 2, user);
+
+        assertEquals(2, result.getContent().size());
+        assertEquals(new TransactionCursor(archivedNewer.timestamp(), archivedNewer.id()),
+                TransactionCursor.decode(result.getNextCursor()));
+        verify(transactionMapper).convertToTransactionResponseDto(newest);
+        verify(transactionMapper).convertToTransactionResponseDto(archivedNewer);
+        verify(transactionMapper, never()).convertToTransactionResponseDto(archivedOlder);
+    }
+
+    @Test
+    void getTransactionsAfter_shouldNotReadArchive_whenDatabaseFillsPage() {
+        when(transactionRepository.findBy(ArgumentMatchers.<Specification<Transaction>>any(), any()))
+                .thenReturn(List.of(buildTransaction(LocalDateTime.of(2025, 3, 2, 12, 0)),
+                        buildTransaction(LocalDateTime.of(2025, 3, 1, 12, 0))));
+
+        transactionService.getTransactionsAfter(filter, null, 1, user);
+
+        verify(transactionArchiveService, never()).findAfter(any(), any(), anyInt());
+    }
+
+    @Test
+    void getTransactionsAfter_shouldThrowException_whenCursorIsInvalid() {
+        assertThrows(InvalidCursorException.class,
+                () -> transactionService.getTransactionsAfter(filter, "not-a-cursor", 2, user));
+        verify(transactionRepository, never()).findBy(ArgumentMatchers.<Specification<Transaction>>any(), any());
+    }
+
+    private Transaction buildTransaction(LocalDateTime timestamp) {
+        return Transaction.builder()
+                .id(UUID.randomUUID())
+                .card(card)
+                .type(TransactionType.TRANSFER)
+                .amount(BigDecimal.valueOf(100))
+                .timestamp(timestamp)
+                .build();
+    }
+
 
     private void createTestData() {
         card = CardTestData.buildCard();
@@ -0,0 +1,92 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.data.UserTestData;
+import com.example.bankcards.dto.user.UserFilterDto;
+import com.example.bankcards.mapper.UserMapperImpl;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.impl.UserExportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportServiceTest {
+    private static final String ID = "fd84e264-29aa-4481-9d39-f29f660d827a";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserExportService userExportService;
+    private UserFilterDto filter;
+
+    @BeforeEach
+    void setUp() {
+        userExportService = new UserExportServiceImpl(userRepository, new UserMapperImpl(), new ObjectMapper(),
+                transactionManager);
+        filter = new UserFilterDto();
+        filter.setEmailPrefix("test");
+    }
+
+    @Test
+    void exportUsers_shouldWriteCsvWithHeaderAndEscapedFields() throws IOException {
+        when(userRepository.streamSummaries(filter))
+                .thenReturn(Stream.of(UserTestData.buildUserSummary("Smith, John", "ADMIN,USER")));
+
+        String csv = export(ExportFormat.CSV);
+
+        assertEquals("id,email,full_name,roles,deleted\n" +
+                ID + ",test@example.com,\"Smith, John\",\"ADMIN,USER\",false\n", csv);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void exportUsers_shouldWriteOneJsonObjectPerLineWithoutPassword() throws IOException {
+        when(userRepository.streamSummaries(filter)).thenReturn(Stream.of(
+                UserTestData.buildUserSummary("Test User", "USER"),
+                UserTestData.buildUserSummary("Other User", null)));
+
+        String ndjson = export(ExportFormat.NDJSON);
+
+        String[] lines = ndjson.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":\"" + ID + "\""));
+        assertTrue(lines[0].contains("\"roles\":[\"USER\"]"));
+        assertTrue(lines[1].contains("\"roles\":[]"));
+        assertFalse(ndjson.contains("password"));
+    }
+
+    @Test
+    void exportUsers_shouldCloseStream() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(userRepository.streamSummaries(filter))
+                .thenReturn(Stream.of(UserTestData.buildUserSummary("Test User", "USER")).onClose(() -> closed.set(true)));
+
+        export(ExportFormat.CSV);
+
+        assertTrue(closed.get());
+    }
+
+    private String export(ExportFormat format) throws IOException {
+        StreamingResponseBody body = userExportService.exportUsers(filter, format);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
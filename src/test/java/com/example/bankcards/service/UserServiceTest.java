@@ -3,8 +3,10 @@ package com.example.bankcards.service;
 import com.example.bankcards.data.CardTestData;
 import com.example.bankcards.data.RoleTestData;
 import com.example.bankcards.data.UserTestData;
+import com.example.bankcards.dto.user.UserFilterDto;
 import com.example.bankcards.dto.user.UserRequestDto;
 import com.example.bankcards.dto.user.UserResponseDto;
+import com.example.bankcards.dto.user.UserSummary;
 import com.example.bankcards.entities.Card;
 import com.example.bankcards.entities.Role;
 import com.example.bankcards.entities.User;
@@ -15,6 +17,7 @@ import com.example.bankcards.mapper.UserMapper;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.RoleRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserPrincipalCache;
 import com.example.bankcards.service.exception.RoleNotFoundException;
 import com.example.bankcards.service.exception.user.UserNotFoundException;
 import com.example.bankcards.service.impl.UserServiceImpl;
@@ -24,6 +27,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.List;
@@ -33,6 +40,7 @@ import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -57,6 +65,9 @@ public class UserServiceTest {
     @Mock
     private CardRepository cardRepository;
 
+    @Mock
+    private UserPrincipalCache userPrincipalCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -72,20 +83,25 @@ public class UserServiceTest {
     @BeforeEach
     void setup() {
         UserUpdater userUpdater = new UserUpdater(roleRepository, passwordEncoder);
-        userService = new UserServiceImpl(userRepository, roleRepository, userMapper, userFactory, userUpdater, cardRepository);
+        userService = new UserServiceImpl(userRepository, roleRepository, userMapper, userFactory, userUpdater, cardRepository,
+                userPrincipalCache);
         createTestData();
     }
 
     @Test
-    void viewAllUsers_shouldReturnMappedUsers() {
-        when(userRepository.findAll()).thenReturn(List.of(user));
-        when(userMapper.convertToUserResponse(user)).thenReturn(userResponseDto);
-
-        List<UserResponseDto> result = userService.viewAllUsers();
-        assertThat(result).hasSize(1);
-
-        verify(userRepository).findAll();
-        verify(userMapper).convertToUserResponse(user);
+    void getUsers_shouldMapSummaryPage() {
+        UserFilterDto filter = new UserFilterDto();
+        filter.setRole("USER");
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("email"));
+        UserSummary summary = UserTestData.buildUserSummary("Test User", "USER");
+        when(userRepository.findSummaries(filter, pageRequest)).thenReturn(new PageImpl<>(List.of(summary), pageRequest, 1));
+        when(userMapper.convertToUserResponse(summary)).thenReturn(userResponseDto);
+
+        Page<UserResponseDto> result = userService.getUsers(filter, pageRequest);
+
+        assertThat(result.getContent()).containsExactly(userResponseDto);
+        assertEquals(1, result.getTotalElements());
+        verify(userRepository, never()).findAll();
     }
 
     @Test
@@ -150,6 +166,7 @@ public class UserServiceTest {
         verify(userMapper).convertToUserResponse(updatedUser);
         verify(roleRepository).findByName(roleAdmin.getName());
         verify(passwordEncoder).encode(userRequestDto.getPassword());
+        verify(userPrincipalCache).refresh(updatedUser);
     }
 
     @Test
@@ -168,11 +185,25 @@ public class UserServiceTest {
 
         assertTrue(user.isDeleted());
         assertTrue(card.isDeleted());
+        verify(userPrincipalCache).refresh(user);
         assertEquals(CardStatus.BLOCKED, card.getStatus());
         verify(userRepository).save(user);
         verify(cardRepository).save(card);
     }
 
+    @Test
+    void restoreUser_shouldReactivateUserAndRefreshPrincipal() {
+        user.setDeleted(true);
+        when(userRepository.findById(ID)).thenReturn(Optional.of(user));
+        when(cardRepository.findAllByUserId(ID)).thenReturn(List.of(card));
+
+        userService.restoreUser(ID);
+
+        assertFalse(user.isDeleted());
+        assertEquals(CardStatus.ACTIVE, card.getStatus());
+        verify(userPrincipalCache).refresh(user);
+    }
+
     @Test
     void deleteUser_whenUserNotFound_shouldThrowException() {
         when(userRepository.findById(ID)).thenReturn(Optional.empty());